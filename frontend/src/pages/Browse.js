@@ -1,31 +1,64 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import axios from 'axios';
 import { motion } from 'framer-motion';
 import { FaSearch, FaFilter, FaStar } from 'react-icons/fa';
 
+const PAGE_SIZE = 100;
+
 const Browse = () => {
   const [skills, setSkills] = useState([]);
   const [loading, setLoading] = useState(true);
   const [searchQuery, setSearchQuery] = useState('');
   const [selectedCategory, setSelectedCategory] = useState('All');
   const [categories, setCategories] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+  // Responses to superseded filters are dropped so pages of different searches never mix
+  const latestRequest = useRef(0);
 
   useEffect(() => {
-    fetchSkills();
     fetchCategories();
   }, []);
 
-  const fetchSkills = async () => {
+  useEffect(() => {
+    // Debounce keystrokes; the server does the matching and filtering, one page at a time
+    const timer = setTimeout(() => fetchSkills(searchQuery.trim(), selectedCategory), 200);
+    return () => clearTimeout(timer);
+  }, [searchQuery, selectedCategory]);
+
+  const fetchSkills = async (query, category, cursor = null) => {
+    const request = ++latestRequest.current;
+    const params = { limit: PAGE_SIZE, cursor: cursor || undefined };
     try {
-      const response = await axios.get('/api/skills');
-      setSkills(response.data);
+      let response;
+      if (query) {
+        const inCategory = category !== 'All' ? category : undefined;
+        response = await axios.get('/api/skills/search', { params: { ...params, query, category: inCategory } });
+      } else if (category !== 'All') {
+        response = await axios.get(`/api/skills/category/${encodeURIComponent(category)}`, { params });
+      } else {
+        response = await axios.get('/api/skills', { params });
+      }
+      if (request !== latestRequest.current) {
+        return;
+      }
+      setSkills(previous => cursor ? [...previous, ...response.data.items] : response.data.items);
+      setNextCursor(response.data.nextCursor);
     } catch (error) {
       console.error('Error fetching skills:', error);
     } finally {
-      setLoading(false);
+      if (request === latestRequest.current) {
+        setLoading(false);
+        setLoadingMore(false);
+      }
     }
   };
 
+  const loadMore = () => {
+    setLoadingMore(true);
+    fetchSkills(searchQuery.trim(), selectedCategory, nextCursor);
+  };
+
   const fetchCategories = async () => {
     try {
       const response = await axios.get('/api/skills/categories');
@@ -37,13 +70,6 @@ const Browse = () => {
     }
   };
 
-  const filteredSkills = skills.filter(skill => {
-    const matchesSearch = skill.name.toLowerCase().includes(searchQuery.toLowerCase()) || 
-                          skill.description?.toLowerCase().includes(searchQuery.toLowerCase());
-    const matchesCategory = selectedCategory === 'All' || skill.category === selectedCategory;
-    return matchesSearch && matchesCategory;
-  });
-
   const containerVariants = {
     hidden: { opacity: 0 },
     visible: { 
@@ -119,8 +145,8 @@ const Browse = () => {
             animate="visible"
             className="grid grid-cols-1 sm:grid-cols-2 lg:grid-cols-3 xl:grid-cols-4 gap-6"
           >
-            {filteredSkills.length > 0 ? (
-              filteredSkills.map((skill) => (
+            {skills.length > 0 ? (
+              skills.map((skill) => (
                 <motion.div 
                   key={skill.id}
                   variants={itemVariants}
@@ -160,6 +186,18 @@ const Browse = () => {
             )}
           </motion.div>
         )}
+
+        {!loading && nextCursor && (
+          <div className="flex justify-center mt-10">
+            <button
+              onClick={loadMore}
+              disabled={loadingMore}
+              className="px-8 py-3 rounded-xl bg-indigo-600 text-white font-bold hover:bg-indigo-700 transition disabled:opacity-50"
+            >
+              {loadingMore ? 'Loading...' : 'Load more'}
+            </button>
+          </div>
+        )}
       </div>
     </div>
   );
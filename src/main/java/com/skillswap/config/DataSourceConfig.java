@@ -0,0 +1,55 @@
+package com.skillswap.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceConfig {
+
+    // Hikari reports -1 until the pool is started and then applies this default
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * Wraps the Hikari pool in a {@link ConnectionLimitingDataSource} sized to
+     * the pool, so the pool stays the real limit on database concurrency even
+     * when requests run on unbounded virtual threads.
+     */
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${skillswap.datasource.max-concurrent-connections}") int maxConcurrent,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                int poolSize = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+                int permits = maxConcurrent > 0 ? maxConcurrent : poolSize;
+                ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(
+                        hikari, permits, hikari.getConnectionTimeout());
+                // Tagged by bean, since the primary and the replica are each wrapped
+                meterRegistry.ifAvailable(registry -> {
+                    Gauge.builder("skillswap.datasource.permits.available", limited,
+                            ConnectionLimitingDataSource::getAvailablePermits)
+                            .tag("pool", beanName)
+                            .register(registry);
+                    Gauge.builder("skillswap.datasource.permits.waiting", limited,
+                            ConnectionLimitingDataSource::getQueueLength)
+                            .tag("pool", beanName)
+                            .register(registry);
+                });
+                return limited;
+            }
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.skillswap.config;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only service transactions to the replica while
+ * {@link ReplicaLagMonitor} reports it caught up, and everything else to the
+ * primary. Spring Data wraps a repository call made outside any transaction
+ * in its own read-only transaction; those stay on the primary, so logins and
+ * token checks never read a row older than the write before them.
+ * <p>
+ * JPA fetches a connection when a transaction begins, before the read-only
+ * flag is visible here, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private static final String REPOSITORY_TRANSACTION_PREFIX = SimpleJpaRepository.class.getName() + ".";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter replicaReads;
+    private final Counter fallbackReads;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+            Counter replicaReads, Counter fallbackReads) {
+        this.lagMonitor = lagMonitor;
+        this.replicaReads = replicaReads;
+        this.fallbackReads = fallbackReads;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Target.PRIMARY;
+        }
+        String transaction = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (transaction == null || transaction.startsWith(REPOSITORY_TRANSACTION_PREFIX)) {
+            return Target.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            fallbackReads.increment();
+            return Target.PRIMARY;
+        }
+        replicaReads.increment();
+        return Target.REPLICA;
+    }
+}
@@ -0,0 +1,105 @@
+package com.skillswap.config;
+
+import com.skillswap.util.InstanceId;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the single auto-configured pool with a primary and a replica pool
+ * when {@code skillswap.datasource.replica.enabled} is set. Both are Hikari
+ * pools, so each is wrapped in its own connection limit by
+ * {@link DataSourceConfig}. The application sees one DataSource that routes
+ * each transaction with {@link ReadWriteRoutingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "skillswap.datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(@Value("${skillswap.datasource.replica.url}") String url,
+            @Value("${skillswap.datasource.replica.username}") String username,
+            @Value("${skillswap.datasource.replica.password:}") String password,
+            @Value("${skillswap.datasource.replica.maximum-pool-size}") int maximumPoolSize,
+            @Value("${skillswap.datasource.replica.max-lag-ms}") long maxLagMillis) {
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        replica.setPoolName("replica");
+        replica.setMaximumPoolSize(maximumPoolSize);
+        replica.setReadOnly(true);
+        // A replica that is down must not stop startup or hold the lag check, which runs on the
+        // scheduler thread, for the default 30 s; one that slow counts as lagging anyway
+        replica.setInitializationFailTimeout(-1);
+        replica.setConnectionTimeout(Math.max(maxLagMillis, 250L));
+        return replica;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${skillswap.datasource.replica.max-lag-ms}") long maxLagMillis, MeterRegistry meterRegistry) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(primary, replica, maxLagMillis, InstanceId.get());
+        Gauge.builder("skillswap.datasource.replica.lag", monitor, ReplicaLagMonitor::getLagMillis)
+                .description("Most the replica can trail the primary, in milliseconds, given the last check; -1 when unknown")
+                .register(meterRegistry);
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica, ReplicaLagMonitor lagMonitor,
+            MeterRegistry meterRegistry) {
+        Counter replicaReads = Counter.builder("skillswap.datasource.reads")
+                .description("Read-only service transactions by the database that served them")
+                .tag("target", "replica")
+                .register(meterRegistry);
+        Counter fallbackReads = Counter.builder("skillswap.datasource.reads")
+                .description("Read-only service transactions by the database that served them")
+                .tag("target", "primary")
+                .register(meterRegistry);
+        // Lazy, so the connection is only fetched, and routed, once the transaction's read-only flag is set
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, lagMonitor, replicaReads, fallbackReads));
+    }
+
+    /**
+     * Hibernate otherwise keeps a request's connection from its first
+     * transaction to the end of the request (open-in-view), which would run
+     * a write on the replica connection a read-only transaction before it
+     * was routed to.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
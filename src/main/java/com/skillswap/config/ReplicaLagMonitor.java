@@ -0,0 +1,133 @@
+package com.skillswap.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how far the replica trails the primary. Each check writes the
+ * time to this instance's row of replication_heartbeats on the primary and
+ * reads the row back from the replica. Every instance compares only beats
+ * written by its own clock, so clock skew between instances cannot hide or
+ * invent lag.
+ * <p>
+ * The replica may stop applying changes right after a check, so between
+ * checks the lag is taken as the measured lag plus the time since the
+ * check. A replica that cannot be read, has not yet seen a heartbeat, or has
+ * not been checked for longer than the maximum lag counts as unusable and
+ * reads stay on the primary.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final long UNKNOWN = -1L;
+
+    // Rows of instances that stopped beating this long ago are deleted when an instance starts
+    private static final Duration ABANDONED_AFTER = Duration.ofDays(1);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+    private final String instanceId;
+
+    private volatile Measurement last = new Measurement(UNKNOWN, System.nanoTime());
+    private boolean readFailing;
+    private boolean abandonedPurged;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMillis, String instanceId) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMillis = maxLagMillis;
+        this.instanceId = instanceId;
+    }
+
+    @Scheduled(fixedDelayString = "${skillswap.datasource.replica.lag-check-interval-ms}")
+    public void check() {
+        boolean wasUsable = isReplicaUsable();
+        long checkedAt = System.nanoTime();
+        long now = System.currentTimeMillis();
+        try {
+            writeHeartbeat(now);
+        } catch (DataAccessException e) {
+            log.warn("Could not write the replication heartbeat: {}", e.getMessage());
+        }
+        long lagMillis;
+        try {
+            List<Long> seen = replica.queryForList(
+                    "SELECT beat_millis FROM replication_heartbeats WHERE instance_id = ?", Long.class, instanceId);
+            lagMillis = seen.isEmpty() ? UNKNOWN : Math.max(0L, now - seen.get(0));
+            readFailing = false;
+        } catch (DataAccessException e) {
+            lagMillis = UNKNOWN;
+            if (!readFailing) {
+                log.warn("Could not read the replication heartbeat from the replica: {}", e.getMessage());
+            }
+            readFailing = true;
+        }
+        last = new Measurement(lagMillis, checkedAt);
+
+        boolean usable = isReplicaUsable();
+        if (usable && !wasUsable) {
+            log.info("Replica caught up (lag {} ms); read-only transactions use it", lagMillis);
+        } else if (!usable && wasUsable) {
+            log.warn("Replica lag {} exceeds {} ms; read-only transactions use the primary",
+                    lagMillis == UNKNOWN ? "unknown" : lagMillis + " ms", maxLagMillis);
+        }
+    }
+
+    private void writeHeartbeat(long now) {
+        if (primary.update("UPDATE replication_heartbeats SET beat_millis = ? WHERE instance_id = ?",
+                now, instanceId) > 0) {
+            return;
+        }
+        if (!abandonedPurged) {
+            primary.update("DELETE FROM replication_heartbeats WHERE beat_millis < ?",
+                    now - ABANDONED_AFTER.toMillis());
+            abandonedPurged = true;
+        }
+        try {
+            primary.update("INSERT INTO replication_heartbeats (instance_id, beat_millis) VALUES (?, ?)",
+                    instanceId, now);
+        } catch (DuplicateKeyException e) {
+            // Only this instance writes its row; a duplicate means an earlier insert did land
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        long lag = getLagMillis();
+        return lag != UNKNOWN && lag <= maxLagMillis;
+    }
+
+    /**
+     * Upper bound on the current lag in milliseconds: the last measured lag
+     * plus the time since it was measured, or -1 while it is unknown.
+     */
+    public long getLagMillis() {
+        Measurement measurement = last;
+        if (measurement.lagMillis == UNKNOWN) {
+            return UNKNOWN;
+        }
+        return measurement.lagMillis
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - measurement.checkedAtNanos);
+    }
+
+    private static final class Measurement {
+
+        private final long lagMillis;
+        private final long checkedAtNanos;
+
+        Measurement(long lagMillis, long checkedAtNanos) {
+            this.lagMillis = lagMillis;
+            this.checkedAtNanos = checkedAtNanos;
+        }
+    }
+}
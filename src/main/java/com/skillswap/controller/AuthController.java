@@ -3,16 +3,21 @@ package com.skillswap.controller;
 import com.skillswap.dto.UserDto;
 import com.skillswap.service.UserService;
 import com.skillswap.security.JwtUtil;
+import com.skillswap.security.JwtVerifier;
+import com.skillswap.security.LoginService;
+import com.skillswap.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/auth")
@@ -23,10 +28,13 @@ public class AuthController {
     private UserService userService;
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private LoginService loginService;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private JwtVerifier jwtVerifier;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody UserDto userDto) {
@@ -48,38 +56,68 @@ public class AuthController {
         }
     }
 
+    /**
+     * Password verification runs on the login pool; the request thread is
+     * released while it waits. A saturated pool answers 429 straight away.
+     */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, String> loginRequest) {
+        String username = loginRequest.get("username");
+        String password = loginRequest.get("password");
         try {
-            String username = loginRequest.get("username");
-            String password = loginRequest.get("password");
-
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(username, password));
-
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String token = jwtUtil.generateToken(userDetails);
-
-            UserDto user = userService.getUserByUsername(username);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("token", token);
-            response.put("user", user);
+            return loginService.login(username, password)
+                    .<ResponseEntity<?>>thenApply(result -> {
+                        Map<String, Object> response = new HashMap<>();
+                        response.put("token", result.getToken());
+                        response.put("user", result.getUser());
+                        return ResponseEntity.ok(response);
+                    })
+                    .exceptionally(e -> ResponseEntity.badRequest().body("Invalid username or password"));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Too many logins in progress, please retry"));
+        }
+    }
 
-            return ResponseEntity.ok(response);
+    /**
+     * Revokes the presented token; other sessions stay signed in.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader("Authorization") String token) {
+        try {
+            Claims claims = jwtVerifier.verify(token.substring(7));
+            Number userId = claims.get(JwtUtil.USER_ID_CLAIM, Number.class);
+            if (userId == null || claims.getId() == null || tokenRevocationService.isRevoked(claims)) {
+                // Tokens issued before claims carried the user id cannot be revoked one by one
+                return ResponseEntity.badRequest().body("Invalid token");
+            }
+            tokenRevocationService.revokeToken(claims.getId(), userId.longValue(), claims.getExpiration());
+            return ResponseEntity.ok().build();
         } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.badRequest().body("Invalid username or password");
+            return ResponseEntity.badRequest().body("Invalid token");
+        }
+    }
+
+    /**
+     * Revokes every token issued to the caller, signing out all sessions.
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutAll(Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.badRequest().body("Invalid token");
         }
+        UserDto user = userService.getUserByUsername(authentication.getName());
+        userService.revokeAllTokens(user.getId());
+        return ResponseEntity.ok().build();
     }
 
     @GetMapping("/validate")
     public ResponseEntity<?> validateToken(@RequestHeader("Authorization") String token) {
         try {
-            String jwt = token.substring(7);
-            if (jwtUtil.validateToken(jwt)) {
-                String username = jwtUtil.extractUsername(jwt);
-                UserDto user = userService.getUserByUsername(username);
+            Claims claims = jwtVerifier.verify(token.substring(7));
+            if (!tokenRevocationService.isRevoked(claims)) {
+                UserDto user = userService.getUserByUsername(claims.getSubject());
                 return ResponseEntity.ok(user);
             } else {
                 return ResponseEntity.badRequest().body("Invalid token");
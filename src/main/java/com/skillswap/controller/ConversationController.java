@@ -0,0 +1,39 @@
+package com.skillswap.controller;
+
+import com.skillswap.dto.ConversationDto;
+import com.skillswap.pagination.CursorPage;
+import com.skillswap.pagination.PaginationSettings;
+import com.skillswap.service.ConversationService;
+import com.skillswap.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/conversations")
+@CrossOrigin(origins = { "http://localhost:3000", "http://localhost:3001" })
+public class ConversationController {
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PaginationSettings paginationSettings;
+
+    /**
+     * The caller's inbox: one entry per conversation partner with the last
+     * message preview and unread count, most recent activity first.
+     */
+    @GetMapping
+    public ResponseEntity<CursorPage<ConversationDto>> getConversations(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit, Authentication authentication) {
+        Long userId = userService.getCurrentUserId(authentication);
+        CursorPage<ConversationDto> page = conversationService.getConversations(userId, cursor,
+                paginationSettings.resolveLimit(limit));
+        return ResponseEntity.ok(page);
+    }
+}
@@ -0,0 +1,32 @@
+package com.skillswap.controller;
+
+import com.skillswap.dto.MatchDto;
+import com.skillswap.dto.UserDto;
+import com.skillswap.matching.MatchingService;
+import com.skillswap.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/matches")
+@CrossOrigin(origins = { "http://localhost:3000", "http://localhost:3001" })
+public class MatchController {
+
+    @Autowired
+    private MatchingService matchingService;
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping("/me")
+    public ResponseEntity<List<MatchDto>> getMyMatches(@RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+        UserDto currentUser = userService.getUserByUsername(authentication.getName());
+        List<MatchDto> matches = matchingService.findMatches(currentUser.getId(), limit);
+        return ResponseEntity.ok(matches);
+    }
+}
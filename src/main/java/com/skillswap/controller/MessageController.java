@@ -0,0 +1,145 @@
+package com.skillswap.controller;
+
+import com.skillswap.dto.MessageDto;
+import com.skillswap.messaging.MessageHub;
+import com.skillswap.messaging.MessageIngestBuffer;
+import com.skillswap.pagination.PaginationSettings;
+import com.skillswap.service.MessageService;
+import com.skillswap.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/messages")
+@CrossOrigin(origins = { "http://localhost:3000", "http://localhost:3001" })
+public class MessageController {
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private MessageHub messageHub;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MessageIngestBuffer messageIngestBuffer;
+
+    @Autowired
+    private PaginationSettings paginationSettings;
+
+    @Value("${skillswap.messaging.ingest.enabled}")
+    private boolean ingestEnabled;
+
+    /**
+     * With ingest enabled the message joins the next write batch and the
+     * response is sent once that batch has committed; a full ingest queue
+     * answers 429 straight away.
+     */
+    @PostMapping
+    public CompletableFuture<ResponseEntity<?>> sendMessage(@RequestBody MessageDto messageDto,
+            Authentication authentication) {
+        if (messageDto.getReceiverId() == null || messageDto.getContent() == null
+                || messageDto.getContent().isBlank() || messageDto.getContent().length() > 2000) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body("A receiver and 1 to 2000 characters of content are required"));
+        }
+        Long senderId = userService.getCurrentUserId(authentication);
+        if (!ingestEnabled) {
+            try {
+                return CompletableFuture.completedFuture(ResponseEntity.ok(
+                        messageService.sendMessage(senderId, messageDto)));
+            } catch (RuntimeException e) {
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(e.getMessage()));
+            }
+        }
+        try {
+            return messageIngestBuffer.submit(senderId, messageDto)
+                    .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                    .exceptionally(e -> {
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        return ResponseEntity.badRequest().body(cause.getMessage());
+                    });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Too many messages in flight, please retry"));
+        }
+    }
+
+    @GetMapping("/me")
+    public ResponseEntity<?> getMyMessages(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit, Authentication authentication) {
+        Long userId = userService.getCurrentUserId(authentication);
+        if (paginationSettings.isLegacyRequest(cursor, limit)) {
+            return ResponseEntity.ok(messageService.getMessages(userId));
+        }
+        return ResponseEntity.ok(messageService.getMessages(userId, cursor, paginationSettings.resolveLimit(limit)));
+    }
+
+    @GetMapping("/conversation/{otherUserId}")
+    public ResponseEntity<?> getConversation(@PathVariable Long otherUserId,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        Long userId = userService.getCurrentUserId(authentication);
+        if (paginationSettings.isLegacyRequest(cursor, limit)) {
+            return ResponseEntity.ok(messageService.getConversation(userId, otherUserId));
+        }
+        return ResponseEntity.ok(messageService.getConversation(userId, otherUserId, cursor,
+                paginationSettings.resolveLimit(limit)));
+    }
+
+    @PutMapping("/conversation/{otherUserId}/read")
+    public ResponseEntity<?> markConversationRead(@PathVariable Long otherUserId, Authentication authentication) {
+        try {
+            Long userId = userService.getCurrentUserId(authentication);
+            return ResponseEntity.ok(messageService.markConversationRead(userId, otherUserId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/unread")
+    public ResponseEntity<List<MessageDto>> getUnreadMessages(Authentication authentication) {
+        return ResponseEntity.ok(messageService.getUnreadMessages(userService.getCurrentUserId(authentication)));
+    }
+
+    @GetMapping("/unread/count")
+    public ResponseEntity<Long> getUnreadCount(Authentication authentication) {
+        return ResponseEntity.ok(messageService.getUnreadCount(userService.getCurrentUserId(authentication)));
+    }
+
+    @PutMapping("/{id}/read")
+    public ResponseEntity<?> markAsRead(@PathVariable Long id, Authentication authentication) {
+        try {
+            return ResponseEntity.ok(messageService.markAsRead(id, userService.getCurrentUserId(authentication)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Server-sent event stream of the caller's messages: "message" for each new
+     * message sent or received, "conversation" with the caller's updated inbox
+     * entry, "read" when a sent message is read and "conversation-read" when
+     * the partner reads a whole conversation. Clients fetch
+     * /conversations once on connect instead of polling.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication authentication) {
+        return messageHub.subscribe(userService.getCurrentUserId(authentication));
+    }
+}
@@ -1,6 +1,13 @@
 package com.skillswap.controller;
 
+import com.skillswap.dto.RankedProviderDto;
+import com.skillswap.dto.RelatedSkillDto;
 import com.skillswap.dto.SkillDto;
+import com.skillswap.dto.SkillSuggestionDto;
+import com.skillswap.pagination.CursorPage;
+import com.skillswap.pagination.PaginationSettings;
+import com.skillswap.ranking.ProviderRankingService;
+import com.skillswap.recommend.RelatedSkillsService;
 import com.skillswap.service.SkillService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -16,10 +23,22 @@ public class SkillController {
     @Autowired
     private SkillService skillService;
 
+    @Autowired
+    private RelatedSkillsService relatedSkillsService;
+
+    @Autowired
+    private ProviderRankingService providerRankingService;
+
+    @Autowired
+    private PaginationSettings paginationSettings;
+
     @GetMapping
-    public ResponseEntity<List<SkillDto>> getAllSkills() {
-        List<SkillDto> skills = skillService.getAllSkills();
-        return ResponseEntity.ok(skills);
+    public ResponseEntity<?> getAllSkills(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (paginationSettings.isLegacyRequest(cursor, limit)) {
+            return ResponseEntity.ok(skillService.getAllSkills());
+        }
+        return ResponseEntity.ok(skillService.getAllSkills(cursor, paginationSettings.resolveLimit(limit)));
     }
 
     @GetMapping("/{id}")
@@ -28,16 +47,45 @@ public class SkillController {
         return ResponseEntity.ok(skill);
     }
 
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<RelatedSkillDto>> getRelatedSkills(@PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<RelatedSkillDto> related = relatedSkillsService.getRelatedSkills(id, limit);
+        return ResponseEntity.ok(related);
+    }
+
+    @GetMapping("/{id}/providers")
+    public ResponseEntity<CursorPage<RankedProviderDto>> getRankedProviders(@PathVariable Long id,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(
+                providerRankingService.getProviders(id, cursor, paginationSettings.resolveLimit(limit)));
+    }
+
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<SkillDto>> getSkillsByCategory(@PathVariable String category) {
-        List<SkillDto> skills = skillService.getSkillsByCategory(category);
-        return ResponseEntity.ok(skills);
+    public ResponseEntity<?> getSkillsByCategory(@PathVariable String category,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit) {
+        if (paginationSettings.isLegacyRequest(cursor, limit)) {
+            return ResponseEntity.ok(skillService.getSkillsByCategory(category));
+        }
+        return ResponseEntity.ok(
+                skillService.getSkillsByCategory(category, cursor, paginationSettings.resolveLimit(limit)));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<SkillDto>> searchSkills(@RequestParam String query) {
-        List<SkillDto> skills = skillService.searchSkills(query);
-        return ResponseEntity.ok(skills);
+    public ResponseEntity<?> searchSkills(@RequestParam String query, @RequestParam(required = false) String category,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit) {
+        if (paginationSettings.isLegacyRequest(cursor, limit)) {
+            return ResponseEntity.ok(skillService.searchSkills(query, category));
+        }
+        return ResponseEntity.ok(
+                skillService.searchSkills(query, category, cursor, paginationSettings.resolveLimit(limit)));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SkillSuggestionDto>> suggestSkills(@RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<SkillSuggestionDto> suggestions = skillService.suggestSkills(prefix, limit);
+        return ResponseEntity.ok(suggestions);
     }
 
     @GetMapping("/categories")
@@ -47,8 +95,8 @@ public class SkillController {
     }
 
     @GetMapping("/popular")
-    public ResponseEntity<List<SkillDto>> getMostPopularSkills() {
-        List<SkillDto> skills = skillService.getMostPopularSkills();
+    public ResponseEntity<List<SkillDto>> getMostPopularSkills(@RequestParam(defaultValue = "10") int limit) {
+        List<SkillDto> skills = skillService.getMostPopularSkills(limit);
         return ResponseEntity.ok(skills);
     }
 
@@ -0,0 +1,94 @@
+package com.skillswap.controller;
+
+import com.skillswap.dto.SkillExchangeDto;
+import com.skillswap.entity.SkillExchange.ExchangeStatus;
+import com.skillswap.exchange.ExchangeAction;
+import com.skillswap.service.ExchangeService;
+import com.skillswap.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/exchanges")
+@CrossOrigin(origins = { "http://localhost:3000", "http://localhost:3001" })
+public class SkillExchangeController {
+
+    @Autowired
+    private ExchangeService exchangeService;
+
+    @Autowired
+    private UserService userService;
+
+    @PostMapping
+    public ResponseEntity<?> createExchange(@RequestBody SkillExchangeDto exchangeDto, Authentication authentication) {
+        if (exchangeDto.getProviderId() == null || exchangeDto.getRequestedSkillId() == null
+                || exchangeDto.getOfferedSkillId() == null) {
+            return ResponseEntity.badRequest().body("A provider, a requested skill and an offered skill are required");
+        }
+        try {
+            Long userId = userService.getCurrentUserId(authentication);
+            return ResponseEntity.ok(exchangeService.createExchange(userId, exchangeDto));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/me")
+    public ResponseEntity<?> getMyExchanges(@RequestParam(required = false) ExchangeStatus status,
+            Authentication authentication) {
+        Long userId = userService.getCurrentUserId(authentication);
+        return ResponseEntity.ok(exchangeService.getExchangesForUser(userId, status));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getExchange(@PathVariable Long id, Authentication authentication) {
+        try {
+            Long userId = userService.getCurrentUserId(authentication);
+            return ResponseEntity.ok(exchangeService.getExchange(id, userId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Applies accept, reject, start, complete or cancel. A 409 means the
+     * exchange kept changing underneath every retry; the client may try again.
+     */
+    @PutMapping("/{id}/{action:accept|reject|start|complete|cancel}")
+    public ResponseEntity<?> transition(@PathVariable Long id, @PathVariable String action,
+            Authentication authentication) {
+        try {
+            Long userId = userService.getCurrentUserId(authentication);
+            return ResponseEntity.ok(exchangeService.transition(id, userId, ExchangeAction.fromPath(action)));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Exchange is being changed concurrently, please retry");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PutMapping("/{id}/rating")
+    public ResponseEntity<?> rate(@PathVariable Long id, @RequestBody Map<String, Object> rating,
+            Authentication authentication) {
+        Object value = rating.get("rating");
+        if (!(value instanceof Number)) {
+            return ResponseEntity.badRequest().body("Rating must be between 1 and 5");
+        }
+        Object feedback = rating.get("feedback");
+        try {
+            Long userId = userService.getCurrentUserId(authentication);
+            return ResponseEntity.ok(exchangeService.rate(id, userId, ((Number) value).intValue(),
+                    feedback != null ? feedback.toString() : null));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Exchange is being changed concurrently, please retry");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
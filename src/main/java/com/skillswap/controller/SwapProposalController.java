@@ -0,0 +1,51 @@
+package com.skillswap.controller;
+
+import com.skillswap.dto.CycleJobStatusDto;
+import com.skillswap.dto.SwapProposalDto;
+import com.skillswap.dto.UserDto;
+import com.skillswap.matching.SwapCycleService;
+import com.skillswap.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/swap-proposals")
+@CrossOrigin(origins = { "http://localhost:3000", "http://localhost:3001" })
+public class SwapProposalController {
+
+    @Autowired
+    private SwapCycleService swapCycleService;
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping("/me")
+    public ResponseEntity<List<SwapProposalDto>> getMyProposals(Authentication authentication) {
+        UserDto currentUser = userService.getUserByUsername(authentication.getName());
+        List<SwapProposalDto> proposals = swapCycleService.getOpenProposals(currentUser.getId());
+        return ResponseEntity.ok(proposals);
+    }
+
+    @PostMapping("/{id}/accept")
+    public ResponseEntity<SwapProposalDto> acceptProposal(@PathVariable Long id, Authentication authentication) {
+        UserDto currentUser = userService.getUserByUsername(authentication.getName());
+        SwapProposalDto proposal = swapCycleService.acceptProposal(id, currentUser.getId());
+        return ResponseEntity.ok(proposal);
+    }
+
+    @PostMapping("/{id}/decline")
+    public ResponseEntity<SwapProposalDto> declineProposal(@PathVariable Long id, Authentication authentication) {
+        UserDto currentUser = userService.getUserByUsername(authentication.getName());
+        SwapProposalDto proposal = swapCycleService.declineProposal(id, currentUser.getId());
+        return ResponseEntity.ok(proposal);
+    }
+
+    @GetMapping("/job")
+    public ResponseEntity<CycleJobStatusDto> getJobStatus() {
+        return ResponseEntity.ok(swapCycleService.getStatus());
+    }
+}
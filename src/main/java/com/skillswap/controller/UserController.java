@@ -1,6 +1,13 @@
 package com.skillswap.controller;
 
+import com.skillswap.dto.RelatedSkillDto;
 import com.skillswap.dto.UserDto;
+import com.skillswap.dto.UserProfileDto;
+import com.skillswap.geo.GeoIndexService;
+import com.skillswap.geo.GeoPoint;
+import com.skillswap.pagination.PaginationSettings;
+import com.skillswap.recommend.RelatedSkillsService;
+import com.skillswap.service.ProfileService;
 import com.skillswap.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +24,18 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ProfileService profileService;
+
+    @Autowired
+    private RelatedSkillsService relatedSkillsService;
+
+    @Autowired
+    private GeoIndexService geoIndexService;
+
+    @Autowired
+    private PaginationSettings paginationSettings;
+
     @GetMapping("/me")
     public ResponseEntity<UserDto> getCurrentUser(Authentication authentication) {
         String username = authentication.getName();
@@ -24,12 +43,56 @@ public class UserController {
         return ResponseEntity.ok(user);
     }
 
+    @GetMapping("/me/recommended-skills")
+    public ResponseEntity<List<RelatedSkillDto>> getRecommendedSkills(@RequestParam(defaultValue = "10") int limit,
+            Authentication authentication) {
+        UserDto currentUser = userService.getUserByUsername(authentication.getName());
+        List<RelatedSkillDto> recommended = relatedSkillsService.getRecommendedSkills(currentUser.getId(), limit);
+        return ResponseEntity.ok(recommended);
+    }
+
+    /**
+     * Users near {@code near} ("lat,lon" or a city), or near the caller when omitted.
+     * Without {@code radiusKm} this returns the {@code limit} nearest users.
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<?> getNearbyUsers(@RequestParam(required = false) String near,
+            @RequestParam(required = false) Double radiusKm, @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        GeoPoint center;
+        Long currentUserId;
+        if (near != null) {
+            center = geoIndexService.resolve(near);
+            currentUserId = userService.getCurrentUserId(authentication);
+        } else {
+            UserDto currentUser = userService.getUserByUsername(authentication.getName());
+            if (currentUser.getLatitude() == null || currentUser.getLongitude() == null) {
+                return ResponseEntity.badRequest().body("Set a recognised location or pass near=");
+            }
+            center = new GeoPoint(currentUser.getLatitude(), currentUser.getLongitude());
+            currentUserId = currentUser.getId();
+        }
+        List<UserDto> users = userService.getNearbyUsers(center, radiusKm, paginationSettings.resolveLimit(limit),
+                currentUserId);
+        return ResponseEntity.ok(users);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<UserDto> getUserById(@PathVariable Long id) {
         UserDto user = userService.getUserById(id);
         return ResponseEntity.ok(user);
     }
 
+    /**
+     * User, reputation and skills in one response; the user's own profile
+     * also lists their active exchanges.
+     */
+    @GetMapping("/{id}/profile")
+    public ResponseEntity<UserProfileDto> getUserProfile(@PathVariable Long id, Authentication authentication) {
+        UserProfileDto profile = profileService.getProfile(id, userService.getCurrentUserId(authentication));
+        return ResponseEntity.ok(profile);
+    }
+
     @PutMapping("/me")
     public ResponseEntity<UserDto> updateCurrentUser(@RequestBody UserDto userDto, Authentication authentication) {
         String username = authentication.getName();
@@ -38,15 +101,28 @@ public class UserController {
         return ResponseEntity.ok(updatedUser);
     }
 
+    @DeleteMapping("/me")
+    public ResponseEntity<Void> deactivateCurrentUser(Authentication authentication) {
+        userService.deactivateUser(userService.getCurrentUserId(authentication));
+        return ResponseEntity.ok().build();
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<List<UserDto>> searchUsers(@RequestParam String query) {
-        List<UserDto> users = userService.searchUsers(query);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> searchUsers(@RequestParam String query,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit) {
+        if (paginationSettings.isLegacyRequest(cursor, limit)) {
+            return ResponseEntity.ok(userService.searchUsers(query));
+        }
+        return ResponseEntity.ok(userService.searchUsers(query, cursor, paginationSettings.resolveLimit(limit)));
     }
 
     @GetMapping("/location/{location}")
-    public ResponseEntity<List<UserDto>> getUsersByLocation(@PathVariable String location) {
-        List<UserDto> users = userService.getUsersByLocation(location);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getUsersByLocation(@PathVariable String location,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit) {
+        if (paginationSettings.isLegacyRequest(cursor, limit)) {
+            return ResponseEntity.ok(userService.getUsersByLocation(location));
+        }
+        return ResponseEntity.ok(
+                userService.getUsersByLocation(location, cursor, paginationSettings.resolveLimit(limit)));
     }
 }
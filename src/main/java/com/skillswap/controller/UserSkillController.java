@@ -2,14 +2,14 @@ package com.skillswap.controller;
 
 import com.skillswap.dto.UserSkillDto;
 import com.skillswap.entity.UserSkill;
+import com.skillswap.geo.GeoIndexService;
+import com.skillswap.pagination.PaginationSettings;
 import com.skillswap.service.UserSkillService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/user-skills")
 @CrossOrigin(origins = { "http://localhost:3000", "http://localhost:3001" })
@@ -18,6 +18,12 @@ public class UserSkillController {
     @Autowired
     private UserSkillService userSkillService;
 
+    @Autowired
+    private GeoIndexService geoIndexService;
+
+    @Autowired
+    private PaginationSettings paginationSettings;
+
     @PostMapping
     public ResponseEntity<UserSkillDto> addUserSkill(@RequestBody UserSkillDto userSkillDto,
             Authentication authentication) {
@@ -29,37 +35,62 @@ public class UserSkillController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<UserSkillDto>> getUserSkills(@PathVariable Long userId) {
-        List<UserSkillDto> userSkills = userSkillService.getUserSkills(userId);
-        return ResponseEntity.ok(userSkills);
+    public ResponseEntity<?> getUserSkills(@PathVariable Long userId,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit) {
+        if (paginationSettings.isLegacyRequest(cursor, limit)) {
+            return ResponseEntity.ok(userSkillService.getUserSkills(userId));
+        }
+        return ResponseEntity.ok(
+                userSkillService.getUserSkills(userId, cursor, paginationSettings.resolveLimit(limit)));
     }
 
     @GetMapping("/user/{userId}/type/{skillType}")
-    public ResponseEntity<List<UserSkillDto>> getUserSkillsByType(@PathVariable Long userId,
-            @PathVariable UserSkill.SkillType skillType) {
-        List<UserSkillDto> userSkills = userSkillService.getUserSkillsByType(userId, skillType);
-        return ResponseEntity.ok(userSkills);
+    public ResponseEntity<?> getUserSkillsByType(@PathVariable Long userId,
+            @PathVariable UserSkill.SkillType skillType,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit) {
+        if (paginationSettings.isLegacyRequest(cursor, limit)) {
+            return ResponseEntity.ok(userSkillService.getUserSkillsByType(userId, skillType));
+        }
+        return ResponseEntity.ok(userSkillService.getUserSkillsByType(
+                userId, skillType, cursor, paginationSettings.resolveLimit(limit)));
     }
 
     @GetMapping("/skill/{skillId}/type/{skillType}")
-    public ResponseEntity<List<UserSkillDto>> getAvailableSkillsBySkillId(@PathVariable Long skillId,
-            @PathVariable UserSkill.SkillType skillType) {
-        List<UserSkillDto> userSkills = userSkillService.getAvailableSkillsBySkillId(skillId, skillType);
-        return ResponseEntity.ok(userSkills);
+    public ResponseEntity<?> getAvailableSkillsBySkillId(@PathVariable Long skillId,
+            @PathVariable UserSkill.SkillType skillType,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String near, @RequestParam(required = false) Double radiusKm) {
+        if (near != null) {
+            return ResponseEntity.ok(userSkillService.getAvailableSkillsNear(skillId, skillType,
+                    geoIndexService.resolve(near), radiusKm, paginationSettings.resolveLimit(limit)));
+        }
+        if (paginationSettings.isLegacyRequest(cursor, limit)) {
+            return ResponseEntity.ok(userSkillService.getAvailableSkillsBySkillId(skillId, skillType));
+        }
+        return ResponseEntity.ok(userSkillService.getAvailableSkillsBySkillId(
+                skillId, skillType, cursor, paginationSettings.resolveLimit(limit)));
     }
 
     @GetMapping("/category/{category}/type/{skillType}")
-    public ResponseEntity<List<UserSkillDto>> getSkillsByCategoryAndType(@PathVariable String category,
-            @PathVariable UserSkill.SkillType skillType) {
-        List<UserSkillDto> userSkills = userSkillService.getSkillsByCategoryAndType(category, skillType);
-        return ResponseEntity.ok(userSkills);
+    public ResponseEntity<?> getSkillsByCategoryAndType(@PathVariable String category,
+            @PathVariable UserSkill.SkillType skillType,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit) {
+        if (paginationSettings.isLegacyRequest(cursor, limit)) {
+            return ResponseEntity.ok(userSkillService.getSkillsByCategoryAndType(category, skillType));
+        }
+        return ResponseEntity.ok(userSkillService.getSkillsByCategoryAndType(
+                category, skillType, cursor, paginationSettings.resolveLimit(limit)));
     }
 
     @GetMapping("/search/type/{skillType}")
-    public ResponseEntity<List<UserSkillDto>> searchSkillsByQueryAndType(@RequestParam String query,
-            @PathVariable UserSkill.SkillType skillType) {
-        List<UserSkillDto> userSkills = userSkillService.searchSkillsByQueryAndType(query, skillType);
-        return ResponseEntity.ok(userSkills);
+    public ResponseEntity<?> searchSkillsByQueryAndType(@RequestParam String query,
+            @PathVariable UserSkill.SkillType skillType,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit) {
+        if (paginationSettings.isLegacyRequest(cursor, limit)) {
+            return ResponseEntity.ok(userSkillService.searchSkillsByQueryAndType(query, skillType));
+        }
+        return ResponseEntity.ok(userSkillService.searchSkillsByQueryAndType(
+                query, skillType, cursor, paginationSettings.resolveLimit(limit)));
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,113 @@
+package com.skillswap.dto;
+
+import java.time.LocalDateTime;
+
+public class ConversationDto {
+
+    private Long id;
+
+    private Long partnerId;
+
+    private String partnerUsername;
+
+    private String partnerFirstName;
+
+    private String partnerLastName;
+
+    private Long lastMessageId;
+
+    private Long lastSenderId;
+
+    // First characters of the last message
+    private String lastMessagePreview;
+
+    private LocalDateTime lastMessageAt;
+
+    // Messages in this conversation the caller has not read
+    private Integer unreadCount;
+
+    // Constructors
+    public ConversationDto() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getPartnerId() {
+        return partnerId;
+    }
+
+    public void setPartnerId(Long partnerId) {
+        this.partnerId = partnerId;
+    }
+
+    public String getPartnerUsername() {
+        return partnerUsername;
+    }
+
+    public void setPartnerUsername(String partnerUsername) {
+        this.partnerUsername = partnerUsername;
+    }
+
+    public String getPartnerFirstName() {
+        return partnerFirstName;
+    }
+
+    public void setPartnerFirstName(String partnerFirstName) {
+        this.partnerFirstName = partnerFirstName;
+    }
+
+    public String getPartnerLastName() {
+        return partnerLastName;
+    }
+
+    public void setPartnerLastName(String partnerLastName) {
+        this.partnerLastName = partnerLastName;
+    }
+
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public void setLastMessageId(Long lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+
+    public Long getLastSenderId() {
+        return lastSenderId;
+    }
+
+    public void setLastSenderId(Long lastSenderId) {
+        this.lastSenderId = lastSenderId;
+    }
+
+    public String getLastMessagePreview() {
+        return lastMessagePreview;
+    }
+
+    public void setLastMessagePreview(String lastMessagePreview) {
+        this.lastMessagePreview = lastMessagePreview;
+    }
+
+    public LocalDateTime getLastMessageAt() {
+        return lastMessageAt;
+    }
+
+    public void setLastMessageAt(LocalDateTime lastMessageAt) {
+        this.lastMessageAt = lastMessageAt;
+    }
+
+    public Integer getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(Integer unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+}
@@ -0,0 +1,91 @@
+package com.skillswap.dto;
+
+import java.time.LocalDateTime;
+
+public class CycleJobStatusDto {
+
+    private boolean running;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private long usersTotal;
+
+    private long usersProcessed;
+
+    private long cyclesFound;
+
+    private long proposalsCreated;
+
+    private double usersPerSecond;
+
+    // Constructors
+    public CycleJobStatusDto() {
+    }
+
+    // Getters and Setters
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void setRunning(boolean running) {
+        this.running = running;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public long getUsersTotal() {
+        return usersTotal;
+    }
+
+    public void setUsersTotal(long usersTotal) {
+        this.usersTotal = usersTotal;
+    }
+
+    public long getUsersProcessed() {
+        return usersProcessed;
+    }
+
+    public void setUsersProcessed(long usersProcessed) {
+        this.usersProcessed = usersProcessed;
+    }
+
+    public long getCyclesFound() {
+        return cyclesFound;
+    }
+
+    public void setCyclesFound(long cyclesFound) {
+        this.cyclesFound = cyclesFound;
+    }
+
+    public long getProposalsCreated() {
+        return proposalsCreated;
+    }
+
+    public void setProposalsCreated(long proposalsCreated) {
+        this.proposalsCreated = proposalsCreated;
+    }
+
+    public double getUsersPerSecond() {
+        return usersPerSecond;
+    }
+
+    public void setUsersPerSecond(double usersPerSecond) {
+        this.usersPerSecond = usersPerSecond;
+    }
+}
@@ -0,0 +1,113 @@
+package com.skillswap.dto;
+
+import java.util.List;
+
+public class MatchDto {
+
+    private Long userId;
+
+    private String username;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String location;
+
+    // Skills the matched user offers that the current user is seeking
+    private List<Long> offeredSkillIds;
+
+    // Skills the matched user is seeking that the current user offers
+    private List<Long> soughtSkillIds;
+
+    private Double averageProficiency;
+
+    private Double averageRating;
+
+    private Double score;
+
+    // Constructors
+    public MatchDto() {
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public List<Long> getOfferedSkillIds() {
+        return offeredSkillIds;
+    }
+
+    public void setOfferedSkillIds(List<Long> offeredSkillIds) {
+        this.offeredSkillIds = offeredSkillIds;
+    }
+
+    public List<Long> getSoughtSkillIds() {
+        return soughtSkillIds;
+    }
+
+    public void setSoughtSkillIds(List<Long> soughtSkillIds) {
+        this.soughtSkillIds = soughtSkillIds;
+    }
+
+    public Double getAverageProficiency() {
+        return averageProficiency;
+    }
+
+    public void setAverageProficiency(Double averageProficiency) {
+        this.averageProficiency = averageProficiency;
+    }
+
+    public Double getAverageRating() {
+        return averageRating;
+    }
+
+    public void setAverageRating(Double averageRating) {
+        this.averageRating = averageRating;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+}
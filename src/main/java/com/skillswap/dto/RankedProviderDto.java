@@ -0,0 +1,120 @@
+package com.skillswap.dto;
+
+public class RankedProviderDto {
+
+    private Long userId;
+
+    private String username;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String profileImageUrl;
+
+    private Long userSkillId;
+
+    private Integer proficiencyLevel;
+
+    private Double averageRating;
+
+    private Long ratingCount;
+
+    private Long completedExchangeCount;
+
+    // Ranking score in [0, 1]; also the cursor's sort key
+    private Double score;
+
+    // Constructors
+    public RankedProviderDto() {
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getProfileImageUrl() {
+        return profileImageUrl;
+    }
+
+    public void setProfileImageUrl(String profileImageUrl) {
+        this.profileImageUrl = profileImageUrl;
+    }
+
+    public Long getUserSkillId() {
+        return userSkillId;
+    }
+
+    public void setUserSkillId(Long userSkillId) {
+        this.userSkillId = userSkillId;
+    }
+
+    public Integer getProficiencyLevel() {
+        return proficiencyLevel;
+    }
+
+    public void setProficiencyLevel(Integer proficiencyLevel) {
+        this.proficiencyLevel = proficiencyLevel;
+    }
+
+    public Double getAverageRating() {
+        return averageRating;
+    }
+
+    public void setAverageRating(Double averageRating) {
+        this.averageRating = averageRating;
+    }
+
+    public Long getRatingCount() {
+        return ratingCount;
+    }
+
+    public void setRatingCount(Long ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
+    public Long getCompletedExchangeCount() {
+        return completedExchangeCount;
+    }
+
+    public void setCompletedExchangeCount(Long completedExchangeCount) {
+        this.completedExchangeCount = completedExchangeCount;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+}
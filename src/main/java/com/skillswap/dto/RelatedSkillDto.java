@@ -0,0 +1,57 @@
+package com.skillswap.dto;
+
+public class RelatedSkillDto {
+
+    private Long id;
+
+    private String name;
+
+    private String category;
+
+    // Number of users offering both skills, summed over seed skills for recommendations
+    private Integer score;
+
+    // Constructors
+    public RelatedSkillDto() {
+    }
+
+    public RelatedSkillDto(Long id, String name, String category, Integer score) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.score = score;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Integer getScore() {
+        return score;
+    }
+
+    public void setScore(Integer score) {
+        this.score = score;
+    }
+}
@@ -51,6 +51,8 @@ public class SkillExchangeDto {
 
     private LocalDateTime updatedAt;
 
+    private Long version;
+
     // Constructors
     public SkillExchangeDto() {
     }
@@ -214,4 +216,12 @@ public class SkillExchangeDto {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,45 @@
+package com.skillswap.dto;
+
+public class SkillSuggestionDto {
+
+    private Long id;
+
+    private String name;
+
+    private String category;
+
+    // Constructors
+    public SkillSuggestionDto() {
+    }
+
+    public SkillSuggestionDto(Long id, String name, String category) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+}
@@ -0,0 +1,54 @@
+package com.skillswap.dto;
+
+import com.skillswap.entity.SwapProposal.ProposalStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class SwapProposalDto {
+
+    private Long id;
+
+    private ProposalStatus status;
+
+    private List<SwapProposalLegDto> legs;
+
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public SwapProposalDto() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ProposalStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ProposalStatus status) {
+        this.status = status;
+    }
+
+    public List<SwapProposalLegDto> getLegs() {
+        return legs;
+    }
+
+    public void setLegs(List<SwapProposalLegDto> legs) {
+        this.legs = legs;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -38,6 +38,13 @@ public class UserDto {
     @Size(max = 200)
     private String profileImageUrl;
 
+    private Double latitude;
+
+    private Double longitude;
+
+    // Only set on proximity query results
+    private Double distanceKm;
+
     private Boolean isVerified;
 
     private Boolean isActive;
@@ -48,6 +55,15 @@ public class UserDto {
 
     private List<UserSkillDto> userSkills;
 
+    // Reputation as a provider, from the user_reputation read model
+    private Double averageRating;
+
+    private Long ratingCount;
+
+    private Double recentRating;
+
+    private Long completedExchangeCount;
+
     // Constructors
     public UserDto() {
     }
@@ -125,6 +141,30 @@ public class UserDto {
         this.location = location;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(Double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
     public String getProfileImageUrl() {
         return profileImageUrl;
     }
@@ -173,6 +213,38 @@ public class UserDto {
         this.userSkills = userSkills;
     }
 
+    public Double getAverageRating() {
+        return averageRating;
+    }
+
+    public void setAverageRating(Double averageRating) {
+        this.averageRating = averageRating;
+    }
+
+    public Long getRatingCount() {
+        return ratingCount;
+    }
+
+    public void setRatingCount(Long ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
+    public Double getRecentRating() {
+        return recentRating;
+    }
+
+    public void setRecentRating(Double recentRating) {
+        this.recentRating = recentRating;
+    }
+
+    public Long getCompletedExchangeCount() {
+        return completedExchangeCount;
+    }
+
+    public void setCompletedExchangeCount(Long completedExchangeCount) {
+        this.completedExchangeCount = completedExchangeCount;
+    }
+
     public String getFullName() {
         return firstName + " " + lastName;
     }
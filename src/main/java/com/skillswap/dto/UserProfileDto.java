@@ -0,0 +1,49 @@
+package com.skillswap.dto;
+
+import java.util.List;
+
+public class UserProfileDto {
+
+    // Includes the user's reputation
+    private UserDto user;
+
+    private List<UserSkillDto> skills;
+
+    // Only filled in when users view their own profile
+    private List<SkillExchangeDto> activeExchanges;
+
+    // Constructors
+    public UserProfileDto() {
+    }
+
+    public UserProfileDto(UserDto user, List<UserSkillDto> skills, List<SkillExchangeDto> activeExchanges) {
+        this.user = user;
+        this.skills = skills;
+        this.activeExchanges = activeExchanges;
+    }
+
+    // Getters and Setters
+    public UserDto getUser() {
+        return user;
+    }
+
+    public void setUser(UserDto user) {
+        this.user = user;
+    }
+
+    public List<UserSkillDto> getSkills() {
+        return skills;
+    }
+
+    public void setSkills(List<UserSkillDto> skills) {
+        this.skills = skills;
+    }
+
+    public List<SkillExchangeDto> getActiveExchanges() {
+        return activeExchanges;
+    }
+
+    public void setActiveExchanges(List<SkillExchangeDto> activeExchanges) {
+        this.activeExchanges = activeExchanges;
+    }
+}
@@ -27,6 +27,9 @@ public class UserSkillDto {
 
     private Boolean isAvailable;
 
+    // Only set on proximity query results
+    private Double distanceKm;
+
     // Constructors
     public UserSkillDto() {
     }
@@ -37,6 +40,20 @@ public class UserSkillDto {
         this.skillType = skillType;
     }
 
+    // Used by UserSkillRepository's constructor-expression queries
+    public UserSkillDto(Long id, Long userId, Long skillId, String skillName, String skillCategory,
+            SkillType skillType, Integer proficiencyLevel, String description, Boolean isAvailable) {
+        this.id = id;
+        this.userId = userId;
+        this.skillId = skillId;
+        this.skillName = skillName;
+        this.skillCategory = skillCategory;
+        this.skillType = skillType;
+        this.proficiencyLevel = proficiencyLevel;
+        this.description = description;
+        this.isAvailable = isAvailable;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -117,4 +134,12 @@ public class UserSkillDto {
     public void setIsAvailable(Boolean isAvailable) {
         this.isAvailable = isAvailable;
     }
+
+    public Double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(Double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
 }
@@ -0,0 +1,217 @@
+package com.skillswap.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inbox row for the messages between two users, kept up to date as each
+ * message is stored. The pair is ordered (lower user id first) so both
+ * directions share one row.
+ */
+@Entity
+@Table(name = "conversations", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_conversations_pair", columnNames = { "pair_key" })
+}, indexes = {
+        @Index(name = "idx_conversations_low_activity", columnList = "user_low_id, last_message_at, id"),
+        @Index(name = "idx_conversations_high_activity", columnList = "user_high_id, last_message_at, id")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class Conversation {
+
+    public static final int PREVIEW_LENGTH = 140;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_low_id", nullable = false)
+    private User userLow;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_high_id", nullable = false)
+    private User userHigh;
+
+    // "low:high", so a batch can look up and lock many pairs with one IN query
+    @Column(name = "pair_key", nullable = false, length = 41)
+    private String pairKey;
+
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+
+    @Column(name = "last_sender_id")
+    private Long lastSenderId;
+
+    @Column(name = "last_message_preview", length = PREVIEW_LENGTH)
+    private String lastMessagePreview;
+
+    @Column(name = "last_message_at", nullable = false)
+    private LocalDateTime lastMessageAt;
+
+    // Messages each side has received and not yet read
+    @Column(name = "unread_low", nullable = false)
+    private int unreadLow;
+
+    @Column(name = "unread_high", nullable = false)
+    private int unreadHigh;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public Conversation() {
+    }
+
+    public Conversation(User first, User second) {
+        boolean firstIsLow = first.getId() < second.getId();
+        this.userLow = firstIsLow ? first : second;
+        this.userHigh = firstIsLow ? second : first;
+        this.pairKey = pairKey(first.getId(), second.getId());
+    }
+
+    public static String pairKey(long firstUserId, long secondUserId) {
+        return Math.min(firstUserId, secondUserId) + ":" + Math.max(firstUserId, secondUserId);
+    }
+
+    /**
+     * Counts the message as unread for its receiver and, unless a newer message
+     * got here first, makes it the conversation's last message. Concurrent
+     * senders can take the row lock in a different order than they inserted.
+     */
+    public void recordMessage(Message message) {
+        if (lastMessageAt == null || message.getCreatedAt().isAfter(lastMessageAt)
+                || (message.getCreatedAt().isEqual(lastMessageAt) && message.getId() > lastMessageId)) {
+            lastMessageId = message.getId();
+            lastSenderId = message.getSender().getId();
+            String content = message.getContent();
+            lastMessagePreview = content.length() > PREVIEW_LENGTH ? content.substring(0, PREVIEW_LENGTH) : content;
+            lastMessageAt = message.getCreatedAt();
+        }
+        if (isLow(message.getReceiver().getId())) {
+            unreadLow++;
+        } else {
+            unreadHigh++;
+        }
+    }
+
+    public void recordRead(Long readerId, int count) {
+        if (isLow(readerId)) {
+            unreadLow = Math.max(0, unreadLow - count);
+        } else {
+            unreadHigh = Math.max(0, unreadHigh - count);
+        }
+    }
+
+    public void clearUnread(Long readerId) {
+        if (isLow(readerId)) {
+            unreadLow = 0;
+        } else {
+            unreadHigh = 0;
+        }
+    }
+
+    public User partnerOf(Long userId) {
+        return isLow(userId) ? userHigh : userLow;
+    }
+
+    public int unreadFor(Long userId) {
+        return isLow(userId) ? unreadLow : unreadHigh;
+    }
+
+    private boolean isLow(Long userId) {
+        return userLow.getId().equals(userId);
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getUserLow() {
+        return userLow;
+    }
+
+    public void setUserLow(User userLow) {
+        this.userLow = userLow;
+    }
+
+    public User getUserHigh() {
+        return userHigh;
+    }
+
+    public void setUserHigh(User userHigh) {
+        this.userHigh = userHigh;
+    }
+
+    public String getPairKey() {
+        return pairKey;
+    }
+
+    public void setPairKey(String pairKey) {
+        this.pairKey = pairKey;
+    }
+
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public void setLastMessageId(Long lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+
+    public Long getLastSenderId() {
+        return lastSenderId;
+    }
+
+    public void setLastSenderId(Long lastSenderId) {
+        this.lastSenderId = lastSenderId;
+    }
+
+    public String getLastMessagePreview() {
+        return lastMessagePreview;
+    }
+
+    public void setLastMessagePreview(String lastMessagePreview) {
+        this.lastMessagePreview = lastMessagePreview;
+    }
+
+    public LocalDateTime getLastMessageAt() {
+        return lastMessageAt;
+    }
+
+    public void setLastMessageAt(LocalDateTime lastMessageAt) {
+        this.lastMessageAt = lastMessageAt;
+    }
+
+    public int getUnreadLow() {
+        return unreadLow;
+    }
+
+    public void setUnreadLow(int unreadLow) {
+        this.unreadLow = unreadLow;
+    }
+
+    public int getUnreadHigh() {
+        return unreadHigh;
+    }
+
+    public void setUnreadHigh(int unreadHigh) {
+        this.unreadHigh = unreadHigh;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,158 @@
+package com.skillswap.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * A run of archived messages from one conversation, compressed into a single
+ * payload. Each segment holds messages older than every message still in the
+ * messages table, so a conversation's segments followed by its hot messages
+ * give its whole history in order. Messages keep their read flags; the
+ * unread counts per member let readers find the segments a read must rewrite.
+ */
+@Entity
+@Table(name = "message_archive_segments", indexes = {
+        @Index(name = "idx_archive_segments_conversation", columnList = "conversation_id, first_created_at, first_message_id")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class MessageArchiveSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "conversation_id", nullable = false)
+    private Conversation conversation;
+
+    @Column(name = "first_message_id", nullable = false)
+    private Long firstMessageId;
+
+    @Column(name = "first_created_at", nullable = false)
+    private LocalDateTime firstCreatedAt;
+
+    @Column(name = "last_message_id", nullable = false)
+    private Long lastMessageId;
+
+    @Column(name = "last_created_at", nullable = false)
+    private LocalDateTime lastCreatedAt;
+
+    @Column(name = "message_count", nullable = false)
+    private int messageCount;
+
+    // Unread messages received by the conversation's lower and higher user id
+    @Column(name = "unread_low", nullable = false)
+    private int unreadLow;
+
+    @Column(name = "unread_high", nullable = false)
+    private int unreadHigh;
+
+    // Gzipped records, oldest first; see MessageArchiveCodec
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private byte[] payload;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public MessageArchiveSegment() {
+    }
+
+    public MessageArchiveSegment(Conversation conversation) {
+        this.conversation = conversation;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Conversation getConversation() {
+        return conversation;
+    }
+
+    public void setConversation(Conversation conversation) {
+        this.conversation = conversation;
+    }
+
+    public Long getFirstMessageId() {
+        return firstMessageId;
+    }
+
+    public void setFirstMessageId(Long firstMessageId) {
+        this.firstMessageId = firstMessageId;
+    }
+
+    public LocalDateTime getFirstCreatedAt() {
+        return firstCreatedAt;
+    }
+
+    public void setFirstCreatedAt(LocalDateTime firstCreatedAt) {
+        this.firstCreatedAt = firstCreatedAt;
+    }
+
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public void setLastMessageId(Long lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+
+    public LocalDateTime getLastCreatedAt() {
+        return lastCreatedAt;
+    }
+
+    public void setLastCreatedAt(LocalDateTime lastCreatedAt) {
+        this.lastCreatedAt = lastCreatedAt;
+    }
+
+    public int getMessageCount() {
+        return messageCount;
+    }
+
+    public void setMessageCount(int messageCount) {
+        this.messageCount = messageCount;
+    }
+
+    public int getUnreadLow() {
+        return unreadLow;
+    }
+
+    public void setUnreadLow(int unreadLow) {
+        this.unreadLow = unreadLow;
+    }
+
+    public int getUnreadHigh() {
+        return unreadHigh;
+    }
+
+    public void setUnreadHigh(int unreadHigh) {
+        this.unreadHigh = unreadHigh;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,43 @@
+package com.skillswap.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * One row per running instance, which ReplicaLagMonitor writes on the primary
+ * and reads back on the replica to measure replication lag. Mapped so that
+ * the schema includes it; the monitor accesses it with plain JDBC so it can
+ * pick the database.
+ */
+@Entity
+@Table(name = "replication_heartbeats")
+public class ReplicationHeartbeat {
+
+    @Id
+    @Column(name = "instance_id", length = 64)
+    private String instanceId;
+
+    // The instance's clock when the heartbeat was written, in epoch milliseconds
+    @Column(name = "beat_millis", nullable = false)
+    private Long beatMillis;
+
+    // Constructors
+    public ReplicationHeartbeat() {
+    }
+
+    // Getters and Setters
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public void setInstanceId(String instanceId) {
+        this.instanceId = instanceId;
+    }
+
+    public Long getBeatMillis() {
+        return beatMillis;
+    }
+
+    public void setBeatMillis(Long beatMillis) {
+        this.beatMillis = beatMillis;
+    }
+}
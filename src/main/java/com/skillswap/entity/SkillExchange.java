@@ -70,6 +70,11 @@ public class SkillExchange {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Both parties act on the same row; a stale write fails instead of overwriting
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Constructors
     public SkillExchange() {
     }
@@ -202,6 +207,14 @@ public class SkillExchange {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public enum ExchangeStatus {
         PENDING, // Exchange request sent, waiting for response
         ACCEPTED, // Exchange accepted by provider
@@ -0,0 +1,79 @@
+package com.skillswap.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "skill_stats")
+public class SkillStats {
+
+    @Id
+    @Column(name = "skill_id")
+    private Long skillId;
+
+    @Column(name = "offer_count", nullable = false)
+    private Long offerCount = 0L;
+
+    @Column(name = "seek_count", nullable = false)
+    private Long seekCount = 0L;
+
+    @Column(name = "available_provider_count", nullable = false)
+    private Long availableProviderCount = 0L;
+
+    @Column(name = "rebuilt_at")
+    private LocalDateTime rebuiltAt;
+
+    // Constructors
+    public SkillStats() {
+    }
+
+    public SkillStats(Long skillId) {
+        this.skillId = skillId;
+    }
+
+    // Getters and Setters
+    public Long getSkillId() {
+        return skillId;
+    }
+
+    public void setSkillId(Long skillId) {
+        this.skillId = skillId;
+    }
+
+    public Long getOfferCount() {
+        return offerCount;
+    }
+
+    public void setOfferCount(Long offerCount) {
+        this.offerCount = offerCount;
+    }
+
+    public Long getSeekCount() {
+        return seekCount;
+    }
+
+    public void setSeekCount(Long seekCount) {
+        this.seekCount = seekCount;
+    }
+
+    public Long getAvailableProviderCount() {
+        return availableProviderCount;
+    }
+
+    public void setAvailableProviderCount(Long availableProviderCount) {
+        this.availableProviderCount = availableProviderCount;
+    }
+
+    public LocalDateTime getRebuiltAt() {
+        return rebuiltAt;
+    }
+
+    public void setRebuiltAt(LocalDateTime rebuiltAt) {
+        this.rebuiltAt = rebuiltAt;
+    }
+
+    public Long getTotalCount() {
+        return offerCount + seekCount;
+    }
+}
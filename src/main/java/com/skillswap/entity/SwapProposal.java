@@ -0,0 +1,109 @@
+package com.skillswap.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(name = "swap_proposals")
+@EntityListeners(AuditingEntityListener.class)
+public class SwapProposal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Participant user ids in teaching order, starting from the lowest id
+    @Column(name = "cycle_key", unique = true, nullable = false, length = 200)
+    private String cycleKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private ProposalStatus status = ProposalStatus.PROPOSED;
+
+    @OneToMany(mappedBy = "proposal", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("position ASC")
+    private List<SwapProposalLeg> legs = new ArrayList<>();
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public SwapProposal() {
+    }
+
+    public SwapProposal(String cycleKey) {
+        this.cycleKey = cycleKey;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCycleKey() {
+        return cycleKey;
+    }
+
+    public void setCycleKey(String cycleKey) {
+        this.cycleKey = cycleKey;
+    }
+
+    public ProposalStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ProposalStatus status) {
+        this.status = status;
+    }
+
+    public List<SwapProposalLeg> getLegs() {
+        return legs;
+    }
+
+    public void setLegs(List<SwapProposalLeg> legs) {
+        this.legs = legs;
+    }
+
+    public void addLeg(SwapProposalLeg leg) {
+        leg.setProposal(this);
+        legs.add(leg);
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public enum ProposalStatus {
+        PROPOSED, // Cycle found, waiting for every participant to accept
+        ACCEPTED, // All participants accepted; exchanges were created
+        DECLINED, // A participant declined the cycle
+        EXPIRED // An offer or seek the cycle relies on was withdrawn before it completed
+    }
+}
@@ -0,0 +1,119 @@
+package com.skillswap.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+@Entity
+@Table(name = "swap_proposal_legs")
+public class SwapProposalLeg {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "proposal_id", nullable = false)
+    @NotNull
+    private SwapProposal proposal;
+
+    @Column(name = "position", nullable = false)
+    private Integer position;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "teacher_id", nullable = false)
+    @NotNull
+    private User teacher;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "learner_id", nullable = false)
+    @NotNull
+    private User learner;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "skill_id", nullable = false)
+    @NotNull
+    private Skill skill;
+
+    @Column(name = "accepted")
+    private Boolean accepted = false;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "exchange_id")
+    private SkillExchange exchange;
+
+    // Constructors
+    public SwapProposalLeg() {
+    }
+
+    public SwapProposalLeg(Integer position, User teacher, User learner, Skill skill) {
+        this.position = position;
+        this.teacher = teacher;
+        this.learner = learner;
+        this.skill = skill;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public SwapProposal getProposal() {
+        return proposal;
+    }
+
+    public void setProposal(SwapProposal proposal) {
+        this.proposal = proposal;
+    }
+
+    public Integer getPosition() {
+        return position;
+    }
+
+    public void setPosition(Integer position) {
+        this.position = position;
+    }
+
+    public User getTeacher() {
+        return teacher;
+    }
+
+    public void setTeacher(User teacher) {
+        this.teacher = teacher;
+    }
+
+    public User getLearner() {
+        return learner;
+    }
+
+    public void setLearner(User learner) {
+        this.learner = learner;
+    }
+
+    public Skill getSkill() {
+        return skill;
+    }
+
+    public void setSkill(Skill skill) {
+        this.skill = skill;
+    }
+
+    public Boolean getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(Boolean accepted) {
+        this.accepted = accepted;
+    }
+
+    public SkillExchange getExchange() {
+        return exchange;
+    }
+
+    public void setExchange(SkillExchange exchange) {
+        this.exchange = exchange;
+    }
+}
@@ -0,0 +1,111 @@
+package com.skillswap.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * A revoked token id, or a user's minimum accepted token version. Rows are only
+ * needed until the tokens they cover would have expired anyway.
+ */
+@Entity
+@Table(name = "token_revocations", indexes = {
+        @Index(name = "idx_token_revocations_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_token_revocations_created_at", columnList = "created_at")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Set when a single token is revoked (logout)
+    @Column(name = "token_id", length = 64)
+    private String tokenId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Set when all of a user's tokens below this version are revoked
+    @Column(name = "min_token_version")
+    private Integer minTokenVersion;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public TokenRevocation() {
+    }
+
+    public static TokenRevocation ofToken(String tokenId, Long userId, LocalDateTime expiresAt) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setTokenId(tokenId);
+        revocation.setUserId(userId);
+        revocation.setExpiresAt(expiresAt);
+        return revocation;
+    }
+
+    public static TokenRevocation ofUser(Long userId, Integer minTokenVersion, LocalDateTime expiresAt) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setUserId(userId);
+        revocation.setMinTokenVersion(minTokenVersion);
+        revocation.setExpiresAt(expiresAt);
+        return revocation;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Integer getMinTokenVersion() {
+        return minTokenVersion;
+    }
+
+    public void setMinTokenVersion(Integer minTokenVersion) {
+        this.minTokenVersion = minTokenVersion;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
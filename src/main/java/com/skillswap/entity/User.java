@@ -54,6 +54,13 @@ public class User {
     @Size(max = 100)
     private String location;
 
+    // Geocoded from location; null when the location is unknown to the gazetteer
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
     @Column(name = "profile_image_url", length = 200)
     @Size(max = 200)
     private String profileImageUrl;
@@ -64,6 +71,10 @@ public class User {
     @Column(name = "is_active")
     private Boolean isActive = true;
 
+    // Bumped to invalidate every token issued before; null reads as 0
+    @Column(name = "token_version")
+    private Integer tokenVersion = 0;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -164,6 +175,22 @@ public class User {
         this.location = location;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public String getProfileImageUrl() {
         return profileImageUrl;
     }
@@ -188,6 +215,14 @@ public class User {
         this.isActive = isActive;
     }
 
+    public Integer getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(Integer tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,152 @@
+package com.skillswap.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running reputation totals for one user, adjusted in the same transaction
+ * as the exchange completions and ratings they summarize. The decayed sums
+ * weight each provider rating by when its exchange completed, so their
+ * ratio is an average that favours recent exchanges; the decayed completion
+ * weight does the same for the number of completed exchanges.
+ */
+@Entity
+@Table(name = "user_reputation")
+public class UserReputation {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Ratings the user received from requesters while providing a skill
+    @Column(name = "provider_rating_sum", nullable = false)
+    private Long providerRatingSum = 0L;
+
+    @Column(name = "provider_rating_count", nullable = false)
+    private Long providerRatingCount = 0L;
+
+    // Ratings the user received from providers while requesting a skill
+    @Column(name = "requester_rating_sum", nullable = false)
+    private Long requesterRatingSum = 0L;
+
+    @Column(name = "requester_rating_count", nullable = false)
+    private Long requesterRatingCount = 0L;
+
+    @Column(name = "completed_count", nullable = false)
+    private Long completedCount = 0L;
+
+    @Column(name = "completed_decayed_weight", nullable = false)
+    private Double completedDecayedWeight = 0.0;
+
+    @Column(name = "provider_decayed_sum", nullable = false)
+    private Double providerDecayedSum = 0.0;
+
+    @Column(name = "provider_decayed_weight", nullable = false)
+    private Double providerDecayedWeight = 0.0;
+
+    // Last time verification found and fixed drift in this row
+    @Column(name = "repaired_at")
+    private LocalDateTime repairedAt;
+
+    // Constructors
+    public UserReputation() {
+    }
+
+    public UserReputation(Long userId) {
+        this.userId = userId;
+    }
+
+    public Double getAverageRatingAsProvider() {
+        return providerRatingCount > 0 ? (double) providerRatingSum / providerRatingCount : null;
+    }
+
+    public Double getAverageRatingAsRequester() {
+        return requesterRatingCount > 0 ? (double) requesterRatingSum / requesterRatingCount : null;
+    }
+
+    public Double getRecentRatingAsProvider() {
+        return providerDecayedWeight > 0 ? providerDecayedSum / providerDecayedWeight : null;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getProviderRatingSum() {
+        return providerRatingSum;
+    }
+
+    public void setProviderRatingSum(Long providerRatingSum) {
+        this.providerRatingSum = providerRatingSum;
+    }
+
+    public Long getProviderRatingCount() {
+        return providerRatingCount;
+    }
+
+    public void setProviderRatingCount(Long providerRatingCount) {
+        this.providerRatingCount = providerRatingCount;
+    }
+
+    public Long getRequesterRatingSum() {
+        return requesterRatingSum;
+    }
+
+    public void setRequesterRatingSum(Long requesterRatingSum) {
+        this.requesterRatingSum = requesterRatingSum;
+    }
+
+    public Long getRequesterRatingCount() {
+        return requesterRatingCount;
+    }
+
+    public void setRequesterRatingCount(Long requesterRatingCount) {
+        this.requesterRatingCount = requesterRatingCount;
+    }
+
+    public Long getCompletedCount() {
+        return completedCount;
+    }
+
+    public void setCompletedCount(Long completedCount) {
+        this.completedCount = completedCount;
+    }
+
+    public Double getCompletedDecayedWeight() {
+        return completedDecayedWeight;
+    }
+
+    public void setCompletedDecayedWeight(Double completedDecayedWeight) {
+        this.completedDecayedWeight = completedDecayedWeight;
+    }
+
+    public Double getProviderDecayedSum() {
+        return providerDecayedSum;
+    }
+
+    public void setProviderDecayedSum(Double providerDecayedSum) {
+        this.providerDecayedSum = providerDecayedSum;
+    }
+
+    public Double getProviderDecayedWeight() {
+        return providerDecayedWeight;
+    }
+
+    public void setProviderDecayedWeight(Double providerDecayedWeight) {
+        this.providerDecayedWeight = providerDecayedWeight;
+    }
+
+    public LocalDateTime getRepairedAt() {
+        return repairedAt;
+    }
+
+    public void setRepairedAt(LocalDateTime repairedAt) {
+        this.repairedAt = repairedAt;
+    }
+}
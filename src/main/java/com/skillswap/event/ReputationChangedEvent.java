@@ -0,0 +1,20 @@
+package com.skillswap.event;
+
+import java.util.List;
+
+/**
+ * Published by ReputationService whenever users' reputation totals change.
+ * Rankings that score users by reputation listen for it after commit.
+ */
+public class ReputationChangedEvent {
+
+    private final List<Long> userIds;
+
+    public ReputationChangedEvent(List<Long> userIds) {
+        this.userIds = List.copyOf(userIds);
+    }
+
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+}
@@ -0,0 +1,61 @@
+package com.skillswap.event;
+
+import com.skillswap.entity.UserSkill;
+import com.skillswap.entity.UserSkill.SkillType;
+
+/**
+ * Published by UserSkillService whenever a user-skill row is written. In-memory
+ * indexes listen for it after commit, so they only see durable changes.
+ */
+public class UserSkillChangedEvent {
+
+    public enum Change {
+        ADDED, UPDATED, REMOVED
+    }
+
+    private final Change change;
+    private final Long userSkillId;
+    private final Long userId;
+    private final Long skillId;
+    private final SkillType skillType;
+    private final int proficiencyLevel;
+    private final boolean available;
+
+    public UserSkillChangedEvent(Change change, UserSkill userSkill) {
+        this.change = change;
+        this.userSkillId = userSkill.getId();
+        this.userId = userSkill.getUser().getId();
+        this.skillId = userSkill.getSkill().getId();
+        this.skillType = userSkill.getSkillType();
+        this.proficiencyLevel = userSkill.getProficiencyLevel() != null ? userSkill.getProficiencyLevel() : 0;
+        this.available = Boolean.TRUE.equals(userSkill.getIsAvailable());
+    }
+
+    public Change getChange() {
+        return change;
+    }
+
+    public Long getUserSkillId() {
+        return userSkillId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getSkillId() {
+        return skillId;
+    }
+
+    public SkillType getSkillType() {
+        return skillType;
+    }
+
+    public int getProficiencyLevel() {
+        return proficiencyLevel;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+}
@@ -0,0 +1,64 @@
+package com.skillswap.exchange;
+
+import com.skillswap.entity.SkillExchange.ExchangeStatus;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The exchange state machine: each action moves an exchange from one of a
+ * fixed set of statuses to its target status, and only the listed party may
+ * take it. COMPLETED, CANCELLED and REJECTED are terminal.
+ */
+public enum ExchangeAction {
+
+    ACCEPT(ExchangeStatus.ACCEPTED, Party.PROVIDER, EnumSet.of(ExchangeStatus.PENDING)),
+    REJECT(ExchangeStatus.REJECTED, Party.PROVIDER, EnumSet.of(ExchangeStatus.PENDING)),
+    START(ExchangeStatus.IN_PROGRESS, Party.EITHER, EnumSet.of(ExchangeStatus.ACCEPTED)),
+    COMPLETE(ExchangeStatus.COMPLETED, Party.EITHER, EnumSet.of(ExchangeStatus.IN_PROGRESS)),
+    CANCEL(ExchangeStatus.CANCELLED, Party.EITHER,
+            EnumSet.of(ExchangeStatus.PENDING, ExchangeStatus.ACCEPTED, ExchangeStatus.IN_PROGRESS));
+
+    public enum Party {
+        PROVIDER, EITHER
+    }
+
+    private final ExchangeStatus target;
+    private final Party party;
+    private final Set<ExchangeStatus> from;
+
+    ExchangeAction(ExchangeStatus target, Party party, Set<ExchangeStatus> from) {
+        this.target = target;
+        this.party = party;
+        this.from = from;
+    }
+
+    public static ExchangeAction fromPath(String action) {
+        try {
+            return valueOf(action.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown exchange action: " + action);
+        }
+    }
+
+    public boolean allowsFrom(ExchangeStatus status) {
+        return from.contains(status);
+    }
+
+    public boolean allowsParty(boolean isRequester, boolean isProvider) {
+        return party == Party.PROVIDER ? isProvider : isRequester || isProvider;
+    }
+
+    public ExchangeStatus getTarget() {
+        return target;
+    }
+
+    public Party getParty() {
+        return party;
+    }
+
+    public String verb() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,69 @@
+package com.skillswap.geo;
+
+import com.skillswap.search.TextAnalyzer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Offline city lookup backed by the bundled geo/cities.csv, used to turn the
+ * free-text location users enter ("New York, USA") into coordinates.
+ */
+@Component
+public class Gazetteer {
+
+    private static final Logger log = LoggerFactory.getLogger(Gazetteer.class);
+
+    private static final String RESOURCE = "geo/cities.csv";
+
+    private final Map<String, GeoPoint> byCityAndCountry = new HashMap<>();
+    private final Map<String, GeoPoint> byCity = new HashMap<>();
+
+    @PostConstruct
+    void load() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(RESOURCE).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                GeoPoint point = new GeoPoint(Double.parseDouble(fields[2]), Double.parseDouble(fields[3]));
+                String city = TextAnalyzer.normalize(fields[0]);
+                byCityAndCountry.putIfAbsent(city + "|" + TextAnalyzer.normalize(fields[1]), point);
+                byCity.putIfAbsent(city, point);
+            }
+        }
+        log.info("Gazetteer loaded: {} cities", byCity.size());
+    }
+
+    /**
+     * Coordinates for a "City" or "City, ..., Country" location, or null when
+     * the city is not in the gazetteer.
+     */
+    public GeoPoint geocode(String location) {
+        if (location == null || location.isBlank()) {
+            return null;
+        }
+        String[] parts = location.split(",");
+        String city = TextAnalyzer.normalize(parts[0].trim());
+        if (parts.length > 1) {
+            String country = TextAnalyzer.normalize(parts[parts.length - 1].trim());
+            GeoPoint point = byCityAndCountry.get(city + "|" + country);
+            if (point != null) {
+                return point;
+            }
+        }
+        return byCity.get(city);
+    }
+}
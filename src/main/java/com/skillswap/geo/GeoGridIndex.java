@@ -0,0 +1,227 @@
+package com.skillswap.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Fixed lat/lon grid over user positions. A radius query only visits the
+ * cells overlapping the circle's bounding box, and coordinates are stored
+ * inline in each cell so the distance scan stays on primitive arrays.
+ */
+public class GeoGridIndex {
+
+    private static final double KM_PER_DEGREE = Math.toRadians(GeoPoint.EARTH_RADIUS_KM);
+
+    // Radius of the first k-nearest probe; doubled until enough users are found
+    private static final double INITIAL_PROBE_KM = 5;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+
+    private final Map<Long, Integer> userSlots = new HashMap<>();
+    private long[] userIds = new long[16];
+    private int[] cellOf = new int[16];
+    private int userCount;
+
+    private final Map<Integer, Cell> cells = new HashMap<>();
+
+    public GeoGridIndex(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180 / cellDegrees);
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    public void put(long userId, double latitude, double longitude) {
+        lock.writeLock().lock();
+        try {
+            int slot = userSlot(userId);
+            if (cellOf[slot] >= 0) {
+                cells.get(cellOf[slot]).remove(slot);
+            }
+            int cell = row(latitude) * columns + column(longitude);
+            cells.computeIfAbsent(cell, key -> new Cell()).add(slot, (float) latitude, (float) longitude);
+            cellOf[slot] = cell;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = userSlots.get(userId);
+            if (slot != null && cellOf[slot] >= 0) {
+                cells.get(cellOf[slot]).remove(slot);
+                cellOf[slot] = -1;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Users within {@code radiusKm} of the point, nearest first, at most
+     * {@code limit} of them.
+     */
+    public List<Hit> within(double latitude, double longitude, double radiusKm, int limit) {
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double widestLatitude = Math.min(89.9, Math.abs(latitude) + latSpan);
+        double lonSpan = latSpan / Math.cos(Math.toRadians(widestLatitude));
+
+        int firstRow = row(latitude - latSpan);
+        int lastRow = row(latitude + latSpan);
+        int firstColumn = column(longitude - lonSpan);
+        int columnCount = lonSpan >= 180 ? columns
+                : Math.floorMod(column(longitude + lonSpan) - firstColumn, columns) + 1;
+
+        lock.readLock().lock();
+        try {
+            // (distance bits << 32 | slot) sorts by distance without boxing
+            long[] found = new long[64];
+            int foundCount = 0;
+            for (int r = firstRow; r <= lastRow; r++) {
+                for (int c = 0; c < columnCount; c++) {
+                    Cell cell = cells.get(r * columns + (firstColumn + c) % columns);
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < cell.size; i++) {
+                        if (Math.abs(cell.latitudes[i] - latitude) > latSpan) {
+                            continue;
+                        }
+                        double distance = GeoPoint.distanceKm(latitude, longitude,
+                                cell.latitudes[i], cell.longitudes[i]);
+                        if (distance <= radiusKm) {
+                            if (foundCount == found.length) {
+                                found = Arrays.copyOf(found, foundCount * 2);
+                            }
+                            found[foundCount++] = ((long) Float.floatToIntBits((float) distance) << 32) | cell.slots[i];
+                        }
+                    }
+                }
+            }
+            Arrays.sort(found, 0, foundCount);
+            List<Hit> hits = new ArrayList<>(Math.min(limit, foundCount));
+            for (int i = 0; i < foundCount && hits.size() < limit; i++) {
+                int slot = (int) found[i];
+                hits.add(new Hit(userIds[slot], Float.intBitsToFloat((int) (found[i] >>> 32))));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code k} users nearest to the point, searched out to at most
+     * {@code maxRadiusKm}.
+     */
+    public List<Hit> nearest(double latitude, double longitude, int k, double maxRadiusKm) {
+        double radius = Math.min(INITIAL_PROBE_KM, maxRadiusKm);
+        while (true) {
+            List<Hit> hits = within(latitude, longitude, radius, k);
+            if (hits.size() >= k || radius >= maxRadiusKm) {
+                return hits;
+            }
+            radius = Math.min(radius * 2, maxRadiusKm);
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            int size = 0;
+            for (Cell cell : cells.values()) {
+                size += cell.size;
+            }
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int row(double latitude) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor((latitude + 90) / cellDegrees)));
+    }
+
+    private int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), columns);
+    }
+
+    private int userSlot(long userId) {
+        Integer slot = userSlots.get(userId);
+        if (slot != null) {
+            return slot;
+        }
+        if (userCount == userIds.length) {
+            userIds = Arrays.copyOf(userIds, userCount * 2);
+            cellOf = Arrays.copyOf(cellOf, userCount * 2);
+        }
+        userIds[userCount] = userId;
+        cellOf[userCount] = -1;
+        userSlots.put(userId, userCount);
+        return userCount++;
+    }
+
+    /**
+     * One user found by a proximity query and their distance from the query point.
+     */
+    public static final class Hit {
+
+        private final long userId;
+        private final double distanceKm;
+
+        Hit(long userId, double distanceKm) {
+            this.userId = userId;
+            this.distanceKm = distanceKm;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+    }
+
+    private static final class Cell {
+
+        private int[] slots = new int[4];
+        private float[] latitudes = new float[4];
+        private float[] longitudes = new float[4];
+        private int size;
+
+        void add(int slot, float latitude, float longitude) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                latitudes = Arrays.copyOf(latitudes, size * 2);
+                longitudes = Arrays.copyOf(longitudes, size * 2);
+            }
+            slots[size] = slot;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            size++;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    latitudes[i] = latitudes[size];
+                    longitudes[i] = longitudes[size];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.skillswap.geo;
+
+import com.skillswap.entity.User;
+import com.skillswap.repository.UserRepository;
+import com.skillswap.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a {@link GeoGridIndex} of user coordinates for radius and k-nearest
+ * queries, and geocodes locations through the offline {@link Gazetteer}.
+ */
+@Service
+public class GeoIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(GeoIndexService.class);
+
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private Gazetteer gazetteer;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${skillswap.geo.cell-degrees}")
+    private double cellDegrees;
+
+    @Value("${skillswap.geo.max-radius-km}")
+    private double maxRadiusKm;
+
+    private volatile GeoGridIndex index = new GeoGridIndex(1);
+
+    // Moves committed while a rebuild is loading; replayed onto the new index
+    private final Queue<Located> missedDuringRebuild = new ConcurrentLinkedQueue<>();
+    private volatile boolean rebuilding;
+
+    // A lock rather than synchronized: the rebuild does JDBC I/O, which would pin a virtual thread
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        rebuilding = true;
+        try {
+            // Anything queued by now has committed, so the load below reads it
+            missedDuringRebuild.clear();
+            long geocoded = backfillCoordinates();
+
+            GeoGridIndex fresh = new GeoGridIndex(cellDegrees);
+            long afterId = 0L;
+            List<UserRepository.UserCoordinates> batch;
+            do {
+                batch = userRepository.findCoordinatesAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (UserRepository.UserCoordinates user : batch) {
+                    fresh.put(user.getId(), user.getLatitude(), user.getLongitude());
+                    afterId = user.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            index = fresh;
+            replayMissed(fresh);
+            log.info("Geo index built: {} users ({} newly geocoded)", fresh.size(), geocoded);
+        } finally {
+            rebuilding = false;
+            rebuildLock.unlock();
+        }
+        replayMissed(index);
+    }
+
+    /**
+     * A replayed move carries the position its transaction committed, so
+     * replaying one the rebuild already read leaves the user where they are.
+     */
+    private void replayMissed(GeoGridIndex target) {
+        Located moved;
+        while ((moved = missedDuringRebuild.poll()) != null) {
+            moved.applyTo(target);
+        }
+    }
+
+    /**
+     * Geocodes users stored before coordinates existed, or created without
+     * going through UserService. Locations the gazetteer does not know stay
+     * without coordinates and are retried on the next rebuild.
+     */
+    private long backfillCoordinates() {
+        long geocoded = 0;
+        long afterId = 0L;
+        List<User> batch;
+        do {
+            long from = afterId;
+            batch = userRepository.findUngeocodedAfter(from, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            List<User> located = batch.stream()
+                    .filter(user -> applyCoordinates(user, user.getLocation()))
+                    .collect(Collectors.toList());
+            if (!located.isEmpty()) {
+                transactionTemplate.executeWithoutResult(tx -> userRepository.saveAll(located));
+            }
+            geocoded += located.size();
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        return geocoded;
+    }
+
+    /**
+     * Sets the user's coordinates from a location string, clearing them when
+     * it cannot be geocoded. Returns whether coordinates were found.
+     */
+    public boolean applyCoordinates(User user, String location) {
+        GeoPoint point = gazetteer.geocode(location);
+        user.setLatitude(point != null ? point.getLatitude() : null);
+        user.setLongitude(point != null ? point.getLongitude() : null);
+        return point != null;
+    }
+
+    public void indexUser(User user) {
+        long userId = user.getId();
+        Double latitude = user.getLatitude();
+        Double longitude = user.getLongitude();
+        TransactionHooks.afterCommit(() -> {
+            Located moved = new Located(userId, latitude, longitude);
+            // Queued before reading the index, so a move that misses the swap is replayed
+            if (rebuilding) {
+                missedDuringRebuild.add(moved);
+            }
+            moved.applyTo(index);
+        });
+    }
+
+    /**
+     * Resolves a {@code near} parameter, either "lat,lon" or a city name.
+     */
+    public GeoPoint resolve(String near) {
+        GeoPoint point = GeoPoint.parse(near);
+        if (point == null) {
+            point = gazetteer.geocode(near);
+        }
+        if (point == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown location: " + near);
+        }
+        return point;
+    }
+
+    /**
+     * Users within {@code radiusKm} of the point, nearest first; with no radius,
+     * the {@code limit} nearest users up to the configured maximum radius.
+     */
+    public List<GeoGridIndex.Hit> findNearby(GeoPoint center, Double radiusKm, int limit) {
+        if (radiusKm == null) {
+            return index.nearest(center.getLatitude(), center.getLongitude(), limit, maxRadiusKm);
+        }
+        return index.within(center.getLatitude(), center.getLongitude(), Math.min(radiusKm, maxRadiusKm), limit);
+    }
+
+    private static final class Located {
+
+        private final long userId;
+        private final Double latitude;
+        private final Double longitude;
+
+        Located(long userId, Double latitude, Double longitude) {
+            this.userId = userId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        void applyTo(GeoGridIndex target) {
+            if (latitude != null && longitude != null) {
+                target.put(userId, latitude, longitude);
+            } else {
+                target.remove(userId);
+            }
+        }
+    }
+}
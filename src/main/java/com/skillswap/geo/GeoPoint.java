@@ -0,0 +1,58 @@
+package com.skillswap.geo;
+
+/**
+ * A latitude/longitude pair in degrees.
+ */
+public final class GeoPoint {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final double latitude;
+    private final double longitude;
+
+    public GeoPoint(double latitude, double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Parses "lat,lon", returning null for anything else or for coordinates
+     * out of range.
+     */
+    public static GeoPoint parse(String text) {
+        String[] parts = text.split(",");
+        if (parts.length != 2) {
+            return null;
+        }
+        try {
+            double latitude = Double.parseDouble(parts[0].trim());
+            double longitude = Double.parseDouble(parts[1].trim());
+            if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+                return null;
+            }
+            return new GeoPoint(latitude, longitude);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Great-circle distance in kilometres (haversine).
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
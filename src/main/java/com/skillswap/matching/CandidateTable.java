@@ -0,0 +1,116 @@
+package com.skillswap.matching;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing table from user slot to match counters, used as scratch
+ * space for one match query so candidates are tallied without boxing.
+ */
+final class CandidateTable {
+
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] theyOffer;
+    private int[] proficiencySum;
+    private int[] theySeek;
+    private int size;
+    private int mask;
+
+    CandidateTable(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2) - 1) << 1;
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    int keyAt(int index) {
+        return keys[index];
+    }
+
+    int theyOfferAt(int index) {
+        return theyOffer[index];
+    }
+
+    int proficiencySumAt(int index) {
+        return proficiencySum[index];
+    }
+
+    int theySeekAt(int index) {
+        return theySeek[index];
+    }
+
+    void addOffer(int user, int proficiency) {
+        int index = slotFor(user, true);
+        theyOffer[index]++;
+        proficiencySum[index] += proficiency;
+    }
+
+    /**
+     * Counts a seek only for users already tallied as offering something,
+     * since a match needs both directions.
+     */
+    void addSeekIfPresent(int user) {
+        int index = slotFor(user, false);
+        if (index >= 0) {
+            theySeek[index]++;
+        }
+    }
+
+    private int slotFor(int user, boolean insert) {
+        int index = mix(user) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == user) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        if (!insert) {
+            return -1;
+        }
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+            return slotFor(user, true);
+        }
+        keys[index] = user;
+        size++;
+        return index;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldOffer = theyOffer;
+        int[] oldProficiency = proficiencySum;
+        int[] oldSeek = theySeek;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = slotFor(oldKeys[i], true);
+                theyOffer[index] = oldOffer[i];
+                proficiencySum[index] = oldProficiency[i];
+                theySeek[index] = oldSeek[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        theyOffer = new int[capacity];
+        proficiencySum = new int[capacity];
+        theySeek = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
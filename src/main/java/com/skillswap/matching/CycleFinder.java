@@ -0,0 +1,220 @@
+package com.skillswap.matching;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds bounded-length swap cycles (A teaches B, B teaches C, ..., back to A)
+ * in a {@link GraphSnapshot}. The "teaches" relation is derived per user and
+ * capped at {@code maxFanout} successors. Both phases fork-join over ranges of
+ * user slots. Each cycle is reported once, starting from its lowest slot.
+ */
+public class CycleFinder {
+
+    private static final int LEAF_SIZE = 512;
+
+    private final GraphSnapshot graph;
+    private final int maxLength;
+    private final int maxFanout;
+    private final int maxCyclesPerUser;
+
+    private final AtomicLong usersProcessed = new AtomicLong();
+    private final AtomicLong cyclesFound = new AtomicLong();
+
+    private final ThreadLocal<Scratch> scratch;
+
+    private int[][] successors;
+    private int[][] predecessors;
+
+    public CycleFinder(GraphSnapshot graph, int maxLength, int maxFanout, int maxCyclesPerUser) {
+        this.graph = graph;
+        this.maxLength = Math.max(3, Math.min(maxLength, 4));
+        this.maxFanout = maxFanout;
+        this.maxCyclesPerUser = maxCyclesPerUser;
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(graph.userCount(), maxFanout));
+    }
+
+    public long getUsersProcessed() {
+        return usersProcessed.get();
+    }
+
+    public long getCyclesFound() {
+        return cyclesFound.get();
+    }
+
+    /**
+     * Returns cycles as arrays of user slots in teaching order.
+     */
+    public List<int[]> find(ForkJoinPool pool) {
+        int users = graph.userCount();
+        successors = new int[users][];
+        pool.invoke(new SuccessorTask(0, users));
+        predecessors = invert(successors);
+        return pool.invoke(new CycleTask(0, users));
+    }
+
+    private int[] successorsOf(int user) {
+        Scratch local = scratch.get();
+        int generation = local.nextGeneration();
+        int size = 0;
+        outer:
+        for (int i = graph.offerStart(user); i < graph.offerEnd(user); i++) {
+            int skill = graph.offerSkill(i);
+            for (int j = graph.seekerStart[skill]; j < graph.seekerStart[skill + 1]; j++) {
+                int learner = graph.seekers[j];
+                if (learner != user && local.stamps[learner] != generation) {
+                    local.stamps[learner] = generation;
+                    local.buffer[size++] = learner;
+                    if (size == maxFanout) {
+                        break outer;
+                    }
+                }
+            }
+        }
+        int[] result = Arrays.copyOf(local.buffer, size);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static int[][] invert(int[][] adjacency) {
+        int[] degree = new int[adjacency.length];
+        for (int[] targets : adjacency) {
+            for (int target : targets) {
+                degree[target]++;
+            }
+        }
+        int[][] inverted = new int[adjacency.length][];
+        for (int user = 0; user < adjacency.length; user++) {
+            inverted[user] = new int[degree[user]];
+            degree[user] = 0;
+        }
+        // Sources are visited in ascending order, so every list comes out sorted
+        for (int source = 0; source < adjacency.length; source++) {
+            for (int target : adjacency[source]) {
+                inverted[target][degree[target]++] = source;
+            }
+        }
+        return inverted;
+    }
+
+    private void cyclesFrom(int start, List<int[]> out) {
+        int found = 0;
+        int[] toStart = predecessors[start];
+        if (toStart.length == 0) {
+            return;
+        }
+        for (int second : successors[start]) {
+            if (second <= start) {
+                continue;
+            }
+            // Length 3: start -> second -> third -> start
+            for (int third : successors[second]) {
+                if (third > start && third != second && contains(toStart, third)) {
+                    out.add(new int[] { start, second, third });
+                    if (++found >= maxCyclesPerUser) {
+                        return;
+                    }
+                }
+            }
+            if (maxLength < 4) {
+                continue;
+            }
+            // Length 4: start -> second -> third -> fourth -> start
+            for (int third : successors[second]) {
+                if (third <= start || third == second) {
+                    continue;
+                }
+                for (int fourth : successors[third]) {
+                    if (fourth > start && fourth != second && fourth != third && contains(toStart, fourth)) {
+                        out.add(new int[] { start, second, third, fourth });
+                        if (++found >= maxCyclesPerUser) {
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean contains(int[] sorted, int value) {
+        return Arrays.binarySearch(sorted, value) >= 0;
+    }
+
+    private final class SuccessorTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        private SuccessorTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int user = from; user < to; user++) {
+                    successors[user] = successorsOf(user);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SuccessorTask(from, mid), new SuccessorTask(mid, to));
+        }
+    }
+
+    private final class CycleTask extends RecursiveTask<List<int[]>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        private CycleTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<int[]> compute() {
+            if (to - from <= LEAF_SIZE) {
+                List<int[]> cycles = new ArrayList<>();
+                for (int user = from; user < to; user++) {
+                    cyclesFrom(user, cycles);
+                }
+                usersProcessed.addAndGet(to - from);
+                cyclesFound.addAndGet(cycles.size());
+                return cycles;
+            }
+            int mid = (from + to) >>> 1;
+            CycleTask left = new CycleTask(from, mid);
+            left.fork();
+            List<int[]> cycles = new CycleTask(mid, to).compute();
+            cycles.addAll(left.join());
+            return cycles;
+        }
+    }
+
+    private static final class Scratch {
+
+        private final int[] stamps;
+        private final int[] buffer;
+        private int generation;
+
+        private Scratch(int users, int maxFanout) {
+            this.stamps = new int[users];
+            this.buffer = new int[maxFanout];
+        }
+
+        private int nextGeneration() {
+            return ++generation;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.skillswap.matching;
+
+import java.util.Arrays;
+
+/**
+ * Immutable compressed-sparse-row copy of a {@link SkillGraph}, taken so that
+ * long-running batch jobs can traverse the graph without holding its lock.
+ * Per-user skill lists are sorted to allow binary-search intersections.
+ */
+public final class GraphSnapshot {
+
+    final long[] userIds;
+    final long[] skillIds;
+    final int[] offerStart;
+    final int[] offerSkills;
+    final int[] seekStart;
+    final int[] seekSkills;
+    final int[] seekerStart;
+    final int[] seekers;
+
+    GraphSnapshot(SkillGraph graph) {
+        int users = graph.userCount();
+        int skills = graph.skillCount();
+        userIds = new long[users];
+        skillIds = new long[skills];
+        for (int user = 0; user < users; user++) {
+            userIds[user] = graph.userId(user);
+        }
+        for (int skill = 0; skill < skills; skill++) {
+            skillIds[skill] = graph.skillId(skill);
+        }
+
+        offerStart = new int[users + 1];
+        seekStart = new int[users + 1];
+        for (int user = 0; user < users; user++) {
+            offerStart[user + 1] = offerStart[user] + graph.offersOf(user).size();
+            seekStart[user + 1] = seekStart[user] + graph.seeksOf(user).size();
+        }
+        offerSkills = new int[offerStart[users]];
+        seekSkills = new int[seekStart[users]];
+        for (int user = 0; user < users; user++) {
+            copySorted(graph.offersOf(user), offerSkills, offerStart[user]);
+            copySorted(graph.seeksOf(user), seekSkills, seekStart[user]);
+        }
+
+        seekerStart = new int[skills + 1];
+        for (int skill = 0; skill < skills; skill++) {
+            seekerStart[skill + 1] = seekerStart[skill] + graph.seekersOf(skill).size();
+        }
+        seekers = new int[seekerStart[skills]];
+        for (int skill = 0; skill < skills; skill++) {
+            copySorted(graph.seekersOf(skill), seekers, seekerStart[skill]);
+        }
+    }
+
+    public int userCount() {
+        return userIds.length;
+    }
+
+    public int skillCount() {
+        return skillIds.length;
+    }
+
+    public long userId(int user) {
+        return userIds[user];
+    }
+
+    public long skillId(int skill) {
+        return skillIds[skill];
+    }
+
+    public int offerStart(int user) {
+        return offerStart[user];
+    }
+
+    public int offerEnd(int user) {
+        return offerStart[user + 1];
+    }
+
+    public int offerSkill(int index) {
+        return offerSkills[index];
+    }
+
+    public int seekStart(int user) {
+        return seekStart[user];
+    }
+
+    public int seekEnd(int user) {
+        return seekStart[user + 1];
+    }
+
+    public int seekSkill(int index) {
+        return seekSkills[index];
+    }
+
+    public boolean seeks(int user, int skill) {
+        return Arrays.binarySearch(seekSkills, seekStart[user], seekStart[user + 1], skill) >= 0;
+    }
+
+    /**
+     * First skill (lowest slot) that {@code teacher} offers and {@code learner} seeks, or -1.
+     */
+    public int firstSharedSkill(int teacher, int learner) {
+        for (int i = offerStart[teacher]; i < offerStart[teacher + 1]; i++) {
+            if (seeks(learner, offerSkills[i])) {
+                return offerSkills[i];
+            }
+        }
+        return -1;
+    }
+
+    private static void copySorted(SkillGraph.Adjacency adjacency, int[] target, int offset) {
+        for (int i = 0; i < adjacency.size(); i++) {
+            target[offset + i] = adjacency.target(i);
+        }
+        Arrays.sort(target, offset, offset + adjacency.size());
+    }
+}
@@ -0,0 +1,241 @@
+package com.skillswap.matching;
+
+import com.skillswap.dto.MatchDto;
+import com.skillswap.entity.User;
+import com.skillswap.entity.UserReputation;
+import com.skillswap.event.UserSkillChangedEvent;
+import com.skillswap.repository.UserRepository;
+import com.skillswap.repository.UserSkillRepository;
+import com.skillswap.service.ReputationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reciprocal matching: finds users who offer something the caller seeks and
+ * seek something the caller offers, using the in-memory {@link SkillGraph}.
+ */
+@Service
+public class MatchingService {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchingService.class);
+
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    // Candidates re-ranked with ratings per requested match
+    private static final int SHORTLIST_FACTOR = 4;
+
+    private static final double PROFICIENCY_WEIGHT = 0.5;
+    private static final double RATING_WEIGHT = 0.5;
+
+    @Autowired
+    private UserSkillRepository userSkillRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReputationService reputationService;
+
+    @Value("${skillswap.matching.max-limit}")
+    private int maxLimit;
+
+    private volatile SkillGraph graph = new SkillGraph();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        SkillGraph fresh = new SkillGraph();
+        long afterId = 0L;
+        long edges = 0;
+        List<UserSkillRepository.UserSkillEdge> batch;
+        do {
+            batch = userSkillRepository.findEdgesAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (UserSkillRepository.UserSkillEdge edge : batch) {
+                fresh.loadEdge(edge.getUserId(), edge.getSkillId(), edge.getSkillType(),
+                        edge.getProficiencyLevel() != null ? edge.getProficiencyLevel() : 0,
+                        Boolean.TRUE.equals(edge.getIsAvailable()));
+                afterId = edge.getId();
+            }
+            edges += batch.size();
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        graph = fresh;
+        log.info("Skill graph built: {} users, {} skills, {} user-skill rows",
+                fresh.userCount(), fresh.skillCount(), edges);
+    }
+
+    public SkillGraph getGraph() {
+        return graph;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSkillChanged(UserSkillChangedEvent event) {
+        SkillGraph current = graph;
+        current.removeEdge(event.getUserId(), event.getSkillId(), event.getSkillType());
+        if (event.getChange() != UserSkillChangedEvent.Change.REMOVED) {
+            current.addEdge(event.getUserId(), event.getSkillId(), event.getSkillType(),
+                    event.getProficiencyLevel(), event.isAvailable());
+        }
+    }
+
+    public List<MatchDto> findMatches(Long userId, int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, maxLimit));
+        List<Candidate> shortlist = shortlist(userId, boundedLimit * SHORTLIST_FACTOR);
+        if (shortlist.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> candidateIds = shortlist.stream()
+                .map(candidate -> candidate.userId)
+                .collect(Collectors.toList());
+        Map<Long, UserReputation> reputations = reputationService.getReputations(candidateIds);
+        for (Candidate candidate : shortlist) {
+            UserReputation reputation = reputations.get(candidate.userId);
+            candidate.averageRating = reputation != null ? reputation.getAverageRatingAsProvider() : null;
+            if (candidate.averageRating != null) {
+                candidate.score += RATING_WEIGHT * candidate.averageRating / 5.0;
+            }
+        }
+        shortlist.sort(Comparator.comparingDouble((Candidate candidate) -> candidate.score).reversed()
+                .thenComparingLong(candidate -> candidate.userId));
+        List<Candidate> top = shortlist.subList(0, Math.min(boundedLimit, shortlist.size()));
+
+        Map<Long, User> users = userRepository.findAllById(top.stream()
+                        .map(candidate -> candidate.userId)
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return top.stream()
+                .filter(candidate -> users.containsKey(candidate.userId))
+                .map(candidate -> toDto(candidate, users.get(candidate.userId)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Tallies, for every user reachable through the caller's seeks, how many of
+     * those seeks they offer and how many of the caller's offers they seek, and
+     * keeps the best {@code size} reciprocal candidates by graph-only score.
+     */
+    private List<Candidate> shortlist(Long userId, int size) {
+        SkillGraph current = graph;
+        current.lock().readLock().lock();
+        try {
+            int me = current.findUser(userId);
+            if (me < 0) {
+                return new ArrayList<>();
+            }
+            SkillGraph.Adjacency mySeeks = current.seeksOf(me);
+            SkillGraph.Adjacency myOffers = current.offersOf(me);
+
+            CandidateTable table = new CandidateTable(64);
+            for (int i = 0; i < mySeeks.size(); i++) {
+                SkillGraph.Adjacency offerers = current.offerersOf(mySeeks.target(i));
+                for (int j = 0; j < offerers.size(); j++) {
+                    if (offerers.target(j) != me) {
+                        table.addOffer(offerers.target(j), offerers.weight(j));
+                    }
+                }
+            }
+            for (int i = 0; i < myOffers.size(); i++) {
+                SkillGraph.Adjacency seekers = current.seekersOf(myOffers.target(i));
+                for (int j = 0; j < seekers.size(); j++) {
+                    table.addSeekIfPresent(seekers.target(j));
+                }
+            }
+
+            PriorityQueue<Candidate> best = new PriorityQueue<>(Comparator.comparingDouble(c -> c.score));
+            for (int index = 0; index < table.capacity(); index++) {
+                int theyOffer = table.theyOfferAt(index);
+                int theySeek = table.theySeekAt(index);
+                if (theyOffer == 0 || theySeek == 0) {
+                    continue;
+                }
+                Candidate candidate = new Candidate(table.keyAt(index), current.userId(table.keyAt(index)));
+                candidate.averageProficiency = (double) table.proficiencySumAt(index) / theyOffer;
+                candidate.score = Math.min(theyOffer, theySeek) + theyOffer + theySeek
+                        + PROFICIENCY_WEIGHT * candidate.averageProficiency / 5.0;
+                best.add(candidate);
+                if (best.size() > size) {
+                    best.poll();
+                }
+            }
+
+            int[] mySeekSlots = sortedTargets(mySeeks);
+            int[] myOfferSlots = sortedTargets(myOffers);
+            List<Candidate> shortlist = new ArrayList<>(best);
+            for (Candidate candidate : shortlist) {
+                candidate.offeredSkillIds = intersect(current, current.offersOf(candidate.slot), mySeekSlots);
+                candidate.soughtSkillIds = intersect(current, current.seeksOf(candidate.slot), myOfferSlots);
+            }
+            return shortlist;
+        } finally {
+            current.lock().readLock().unlock();
+        }
+    }
+
+    private static int[] sortedTargets(SkillGraph.Adjacency adjacency) {
+        int[] targets = new int[adjacency.size()];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = adjacency.target(i);
+        }
+        Arrays.sort(targets);
+        return targets;
+    }
+
+    private static List<Long> intersect(SkillGraph graph, SkillGraph.Adjacency adjacency, int[] sortedSkills) {
+        List<Long> skillIds = new ArrayList<>();
+        for (int i = 0; i < adjacency.size(); i++) {
+            if (Arrays.binarySearch(sortedSkills, adjacency.target(i)) >= 0) {
+                skillIds.add(graph.skillId(adjacency.target(i)));
+            }
+        }
+        return skillIds;
+    }
+
+    private MatchDto toDto(Candidate candidate, User user) {
+        MatchDto dto = new MatchDto();
+        dto.setUserId(user.getId());
+        dto.setUsername(user.getUsername());
+        dto.setFirstName(user.getFirstName());
+        dto.setLastName(user.getLastName());
+        dto.setLocation(user.getLocation());
+        dto.setOfferedSkillIds(candidate.offeredSkillIds);
+        dto.setSoughtSkillIds(candidate.soughtSkillIds);
+        dto.setAverageProficiency(candidate.averageProficiency);
+        dto.setAverageRating(candidate.averageRating);
+        dto.setScore(candidate.score);
+        return dto;
+    }
+
+    private static final class Candidate {
+
+        private final int slot;
+        private final long userId;
+        private double averageProficiency;
+        private Double averageRating;
+        private double score;
+        private List<Long> offeredSkillIds;
+        private List<Long> soughtSkillIds;
+
+        private Candidate(int slot, long userId) {
+            this.slot = slot;
+            this.userId = userId;
+        }
+    }
+}
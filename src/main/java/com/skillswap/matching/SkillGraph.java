@@ -0,0 +1,232 @@
+package com.skillswap.matching;
+
+import com.skillswap.entity.UserSkill.SkillType;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bipartite user/skill graph held as primitive adjacency arrays. Users and
+ * skills are mapped to dense int slots once; every edge after that is an int
+ * in a growable array, so traversals never touch entities or boxed keys.
+ * Only available offers are kept as OFFER edges.
+ */
+public class SkillGraph {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> userSlots = new HashMap<>();
+    private final Map<Long, Integer> skillSlots = new HashMap<>();
+    private long[] userIds = new long[16];
+    private long[] skillIds = new long[16];
+    private int userCount;
+    private int skillCount;
+
+    private Adjacency[] userOffers = new Adjacency[16];
+    private Adjacency[] userSeeks = new Adjacency[16];
+    private Adjacency[] skillOfferers = new Adjacency[16];
+    private Adjacency[] skillSeekers = new Adjacency[16];
+
+    public ReadWriteLock lock() {
+        return lock;
+    }
+
+    public void addEdge(long userId, long skillId, SkillType skillType, int proficiency, boolean available) {
+        if (skillType == SkillType.OFFER && !available) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int user = userSlot(userId);
+            int skill = skillSlot(skillId);
+            if (skillType == SkillType.OFFER) {
+                userOffers[user].put(skill, proficiency);
+                skillOfferers[skill].put(user, proficiency);
+            } else {
+                userSeeks[user].put(skill, proficiency);
+                skillSeekers[skill].put(user, proficiency);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends an edge without duplicate checks or locking. Only for filling a
+     * graph that is not yet visible to readers, where rows are known unique.
+     */
+    public void loadEdge(long userId, long skillId, SkillType skillType, int proficiency, boolean available) {
+        if (skillType == SkillType.OFFER && !available) {
+            return;
+        }
+        int user = userSlot(userId);
+        int skill = skillSlot(skillId);
+        if (skillType == SkillType.OFFER) {
+            userOffers[user].append(skill, proficiency);
+            skillOfferers[skill].append(user, proficiency);
+        } else {
+            userSeeks[user].append(skill, proficiency);
+            skillSeekers[skill].append(user, proficiency);
+        }
+    }
+
+    public void removeEdge(long userId, long skillId, SkillType skillType) {
+        lock.writeLock().lock();
+        try {
+            Integer user = userSlots.get(userId);
+            Integer skill = skillSlots.get(skillId);
+            if (user == null || skill == null) {
+                return;
+            }
+            if (skillType == SkillType.OFFER) {
+                userOffers[user].remove(skill);
+                skillOfferers[skill].remove(user);
+            } else {
+                userSeeks[user].remove(skill);
+                skillSeekers[skill].remove(user);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public GraphSnapshot snapshot() {
+        lock.readLock().lock();
+        try {
+            return new GraphSnapshot(this);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Read accessors below expect the caller to hold the read lock.
+
+    public int findUser(long userId) {
+        return userSlots.getOrDefault(userId, -1);
+    }
+
+    public int userCount() {
+        return userCount;
+    }
+
+    public int skillCount() {
+        return skillCount;
+    }
+
+    public long userId(int user) {
+        return userIds[user];
+    }
+
+    public long skillId(int skill) {
+        return skillIds[skill];
+    }
+
+    public Adjacency offersOf(int user) {
+        return userOffers[user];
+    }
+
+    public Adjacency seeksOf(int user) {
+        return userSeeks[user];
+    }
+
+    public Adjacency offerersOf(int skill) {
+        return skillOfferers[skill];
+    }
+
+    public Adjacency seekersOf(int skill) {
+        return skillSeekers[skill];
+    }
+
+    private int userSlot(long userId) {
+        Integer slot = userSlots.get(userId);
+        if (slot != null) {
+            return slot;
+        }
+        if (userCount == userIds.length) {
+            int capacity = userCount * 2;
+            userIds = Arrays.copyOf(userIds, capacity);
+            userOffers = Arrays.copyOf(userOffers, capacity);
+            userSeeks = Arrays.copyOf(userSeeks, capacity);
+        }
+        userIds[userCount] = userId;
+        userOffers[userCount] = new Adjacency();
+        userSeeks[userCount] = new Adjacency();
+        userSlots.put(userId, userCount);
+        return userCount++;
+    }
+
+    private int skillSlot(long skillId) {
+        Integer slot = skillSlots.get(skillId);
+        if (slot != null) {
+            return slot;
+        }
+        if (skillCount == skillIds.length) {
+            int capacity = skillCount * 2;
+            skillIds = Arrays.copyOf(skillIds, capacity);
+            skillOfferers = Arrays.copyOf(skillOfferers, capacity);
+            skillSeekers = Arrays.copyOf(skillSeekers, capacity);
+        }
+        skillIds[skillCount] = skillId;
+        skillOfferers[skillCount] = new Adjacency();
+        skillSeekers[skillCount] = new Adjacency();
+        skillSlots.put(skillId, skillCount);
+        return skillCount++;
+    }
+
+    /**
+     * Unordered set of neighbour slots, each carrying a small weight
+     * (the proficiency level of the user-skill edge).
+     */
+    public static final class Adjacency {
+
+        private int[] targets = new int[2];
+        private byte[] weights = new byte[2];
+        private int size;
+
+        public int size() {
+            return size;
+        }
+
+        public int target(int index) {
+            return targets[index];
+        }
+
+        public int weight(int index) {
+            return weights[index];
+        }
+
+        void put(int target, int weight) {
+            for (int i = 0; i < size; i++) {
+                if (targets[i] == target) {
+                    weights[i] = (byte) weight;
+                    return;
+                }
+            }
+            append(target, weight);
+        }
+
+        void append(int target, int weight) {
+            if (size == targets.length) {
+                targets = Arrays.copyOf(targets, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            targets[size] = target;
+            weights[size] = (byte) weight;
+            size++;
+        }
+
+        void remove(int target) {
+            for (int i = 0; i < size; i++) {
+                if (targets[i] == target) {
+                    size--;
+                    targets[i] = targets[size];
+                    weights[i] = weights[size];
+                    return;
+                }
+            }
+        }
+    }
+}
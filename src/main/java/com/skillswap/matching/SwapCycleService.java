@@ -0,0 +1,350 @@
+package com.skillswap.matching;
+
+import com.skillswap.dto.CycleJobStatusDto;
+import com.skillswap.dto.SwapProposalDto;
+import com.skillswap.dto.SwapProposalLegDto;
+import com.skillswap.entity.SkillExchange;
+import com.skillswap.entity.SwapProposal;
+import com.skillswap.entity.SwapProposalLeg;
+import com.skillswap.entity.UserSkill;
+import com.skillswap.repository.SkillExchangeRepository;
+import com.skillswap.repository.SkillRepository;
+import com.skillswap.repository.SwapProposalRepository;
+import com.skillswap.repository.UserRepository;
+import com.skillswap.repository.UserSkillRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Periodically searches the skill graph for 3- and 4-way swap cycles and
+ * stores new ones as proposals. Once every participant accepts, the cycle is
+ * turned into linked SkillExchange rows, one per leg.
+ */
+@Service
+public class SwapCycleService {
+
+    private static final Logger log = LoggerFactory.getLogger(SwapCycleService.class);
+
+    private static final int PERSIST_BATCH_SIZE = 500;
+
+    @Autowired
+    private MatchingService matchingService;
+
+    @Autowired
+    private SwapProposalRepository swapProposalRepository;
+
+    @Autowired
+    private SkillExchangeRepository skillExchangeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SkillRepository skillRepository;
+
+    @Autowired
+    private UserSkillRepository userSkillRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${skillswap.cycles.max-length}")
+    private int maxLength;
+
+    @Value("${skillswap.cycles.max-fanout}")
+    private int maxFanout;
+
+    @Value("${skillswap.cycles.max-cycles-per-user}")
+    private int maxCyclesPerUser;
+
+    @Value("${skillswap.cycles.max-proposals-per-run}")
+    private int maxProposalsPerRun;
+
+    @Value("${skillswap.cycles.parallelism}")
+    private int parallelism;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile CycleFinder currentFinder;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long startNanos;
+    private volatile long finishNanos;
+    private volatile long usersTotal;
+    private volatile long proposalsCreated;
+    private Timer runTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("skillswap.cycles.users.processed", this, service -> service.getStatus().getUsersProcessed())
+                .register(meterRegistry);
+        Gauge.builder("skillswap.cycles.found", this, service -> service.getStatus().getCyclesFound())
+                .register(meterRegistry);
+        Gauge.builder("skillswap.cycles.users.per.second", this, service -> service.getStatus().getUsersPerSecond())
+                .register(meterRegistry);
+        Gauge.builder("skillswap.cycles.proposals.created", this, service -> service.proposalsCreated)
+                .register(meterRegistry);
+        runTimer = Timer.builder("skillswap.cycles.run").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${skillswap.cycles.cron}")
+    public void findAndPropose() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Swap cycle search already running; skipping this trigger");
+            return;
+        }
+        try {
+            GraphSnapshot snapshot = matchingService.getGraph().snapshot();
+            CycleFinder finder = new CycleFinder(snapshot, maxLength, maxFanout, maxCyclesPerUser);
+            currentFinder = finder;
+            usersTotal = snapshot.userCount();
+            proposalsCreated = 0;
+            startedAt = LocalDateTime.now();
+            finishedAt = null;
+            startNanos = System.nanoTime();
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+            List<int[]> cycles;
+            try {
+                cycles = finder.find(pool);
+            } finally {
+                pool.shutdown();
+            }
+            proposalsCreated = persist(snapshot, cycles);
+
+            finishNanos = System.nanoTime();
+            finishedAt = LocalDateTime.now();
+            runTimer.record(finishNanos - startNanos, TimeUnit.NANOSECONDS);
+            log.info("Swap cycle search: {} users, {} cycles, {} new proposals in {} ms", usersTotal,
+                    cycles.size(), proposalsCreated, TimeUnit.NANOSECONDS.toMillis(finishNanos - startNanos));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public CycleJobStatusDto getStatus() {
+        CycleJobStatusDto status = new CycleJobStatusDto();
+        CycleFinder finder = currentFinder;
+        status.setRunning(running.get());
+        status.setStartedAt(startedAt);
+        status.setFinishedAt(finishedAt);
+        status.setUsersTotal(usersTotal);
+        status.setProposalsCreated(proposalsCreated);
+        if (finder != null) {
+            status.setUsersProcessed(finder.getUsersProcessed());
+            status.setCyclesFound(finder.getCyclesFound());
+            long end = finishedAt != null ? finishNanos : System.nanoTime();
+            double seconds = (end - startNanos) / 1e9;
+            status.setUsersPerSecond(seconds > 0 ? finder.getUsersProcessed() / seconds : 0);
+        }
+        return status;
+    }
+
+    private long persist(GraphSnapshot snapshot, List<int[]> cycles) {
+        long created = 0;
+        for (int from = 0; from < cycles.size() && created < maxProposalsPerRun; from += PERSIST_BATCH_SIZE) {
+            Map<String, int[]> batch = new LinkedHashMap<>();
+            for (int[] cycle : cycles.subList(from, Math.min(cycles.size(), from + PERSIST_BATCH_SIZE))) {
+                batch.put(cycleKey(snapshot, cycle), cycle);
+            }
+            long remaining = maxProposalsPerRun - created;
+            Integer saved = transactionTemplate.execute(tx -> saveNewProposals(snapshot, batch, remaining));
+            created += saved != null ? saved : 0;
+        }
+        return created;
+    }
+
+    private int saveNewProposals(GraphSnapshot snapshot, Map<String, int[]> batch, long remaining) {
+        Set<String> existing = new HashSet<>(swapProposalRepository.findExistingCycleKeys(batch.keySet()));
+        List<SwapProposal> proposals = new ArrayList<>();
+        for (Map.Entry<String, int[]> entry : batch.entrySet()) {
+            if (proposals.size() >= remaining) {
+                break;
+            }
+            if (existing.contains(entry.getKey())) {
+                continue;
+            }
+            SwapProposal proposal = toProposal(snapshot, entry.getKey(), entry.getValue());
+            if (proposal != null) {
+                proposals.add(proposal);
+            }
+        }
+        swapProposalRepository.saveAll(proposals);
+        return proposals.size();
+    }
+
+    private SwapProposal toProposal(GraphSnapshot snapshot, String cycleKey, int[] cycle) {
+        SwapProposal proposal = new SwapProposal(cycleKey);
+        for (int position = 0; position < cycle.length; position++) {
+            int teacher = cycle[position];
+            int learner = cycle[(position + 1) % cycle.length];
+            int skill = snapshot.firstSharedSkill(teacher, learner);
+            if (skill < 0) {
+                return null;
+            }
+            proposal.addLeg(new SwapProposalLeg(position,
+                    userRepository.getReferenceById(snapshot.userId(teacher)),
+                    userRepository.getReferenceById(snapshot.userId(learner)),
+                    skillRepository.getReferenceById(snapshot.skillId(skill))));
+        }
+        return proposal;
+    }
+
+    private static String cycleKey(GraphSnapshot snapshot, int[] cycle) {
+        StringBuilder key = new StringBuilder();
+        for (int user : cycle) {
+            if (key.length() > 0) {
+                key.append('>');
+            }
+            key.append(snapshot.userId(user));
+        }
+        return key.toString();
+    }
+
+    @Transactional(readOnly = true)
+    public List<SwapProposalDto> getOpenProposals(Long userId) {
+        return swapProposalRepository.findByParticipantAndStatus(userId, SwapProposal.ProposalStatus.PROPOSED)
+                .stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public SwapProposalDto acceptProposal(Long proposalId, Long userId) {
+        SwapProposal proposal = lockOpenProposal(proposalId);
+        SwapProposalLeg accepted = participantLeg(proposal, userId);
+        if (!legsStillHold(proposal)) {
+            proposal.setStatus(SwapProposal.ProposalStatus.EXPIRED);
+            return convertToDto(swapProposalRepository.save(proposal));
+        }
+        accepted.setAccepted(true);
+
+        boolean allAccepted = proposal.getLegs().stream().allMatch(leg -> Boolean.TRUE.equals(leg.getAccepted()));
+        if (allAccepted) {
+            createExchanges(proposal);
+            proposal.setStatus(SwapProposal.ProposalStatus.ACCEPTED);
+        }
+        return convertToDto(swapProposalRepository.save(proposal));
+    }
+
+    @Transactional
+    public SwapProposalDto declineProposal(Long proposalId, Long userId) {
+        SwapProposal proposal = lockOpenProposal(proposalId);
+        participantLeg(proposal, userId);
+        proposal.setStatus(SwapProposal.ProposalStatus.DECLINED);
+        return convertToDto(swapProposalRepository.save(proposal));
+    }
+
+    private SwapProposal lockOpenProposal(Long proposalId) {
+        SwapProposal proposal = swapProposalRepository.findByIdForUpdate(proposalId)
+                .orElseThrow(() -> new RuntimeException("Swap proposal not found with id: " + proposalId));
+        if (proposal.getStatus() != SwapProposal.ProposalStatus.PROPOSED) {
+            throw new RuntimeException("Swap proposal is already " + proposal.getStatus());
+        }
+        return proposal;
+    }
+
+    private SwapProposalLeg participantLeg(SwapProposal proposal, Long userId) {
+        return proposal.getLegs().stream()
+                .filter(leg -> leg.getTeacher().getId().equals(userId))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("User is not a participant in this swap proposal"));
+    }
+
+    /**
+     * Whether every teacher still offers, and has available, the skill of
+     * their leg, and every learner still seeks it. The rows are locked until
+     * the transaction ends, so none can be withdrawn while the exchanges are
+     * created.
+     */
+    private boolean legsStillHold(SwapProposal proposal) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> skillIds = new HashSet<>();
+        for (SwapProposalLeg leg : proposal.getLegs()) {
+            userIds.add(leg.getTeacher().getId());
+            userIds.add(leg.getLearner().getId());
+            skillIds.add(leg.getSkill().getId());
+        }
+        Set<String> current = userSkillRepository.findByUserIdInAndSkillIdInForUpdate(userIds, skillIds).stream()
+                .filter(userSkill -> userSkill.getSkillType() == UserSkill.SkillType.SEEK
+                        || Boolean.TRUE.equals(userSkill.getIsAvailable()))
+                .map(userSkill -> legKey(userSkill.getUser().getId(), userSkill.getSkill().getId(),
+                        userSkill.getSkillType()))
+                .collect(Collectors.toSet());
+        return proposal.getLegs().stream().allMatch(leg -> {
+            Long skillId = leg.getSkill().getId();
+            return current.contains(legKey(leg.getTeacher().getId(), skillId, UserSkill.SkillType.OFFER))
+                    && current.contains(legKey(leg.getLearner().getId(), skillId, UserSkill.SkillType.SEEK));
+        });
+    }
+
+    private static String legKey(Long userId, Long skillId, UserSkill.SkillType skillType) {
+        return userId + ":" + skillId + ":" + skillType;
+    }
+
+    /**
+     * Each leg becomes an exchange where the learner requests the leg's skill
+     * and offers the skill they teach on their own leg of the cycle.
+     */
+    private void createExchanges(SwapProposal proposal) {
+        List<SwapProposalLeg> legs = proposal.getLegs();
+        for (int i = 0; i < legs.size(); i++) {
+            SwapProposalLeg leg = legs.get(i);
+            SwapProposalLeg learnersLeg = legs.get((i + 1) % legs.size());
+            SkillExchange exchange = new SkillExchange(leg.getLearner(), leg.getTeacher(), leg.getSkill(),
+                    learnersLeg.getSkill());
+            exchange.setStatus(SkillExchange.ExchangeStatus.ACCEPTED);
+            exchange.setMessage("Part of swap cycle #" + proposal.getId());
+            leg.setExchange(skillExchangeRepository.save(exchange));
+        }
+    }
+
+    private SwapProposalDto convertToDto(SwapProposal proposal) {
+        SwapProposalDto dto = new SwapProposalDto();
+        dto.setId(proposal.getId());
+        dto.setStatus(proposal.getStatus());
+        dto.setCreatedAt(proposal.getCreatedAt());
+        dto.setLegs(proposal.getLegs().stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
+    private SwapProposalLegDto convertToDto(SwapProposalLeg leg) {
+        SwapProposalLegDto dto = new SwapProposalLegDto();
+        dto.setPosition(leg.getPosition());
+        dto.setTeacherId(leg.getTeacher().getId());
+        dto.setTeacherName(leg.getTeacher().getFullName());
+        dto.setLearnerId(leg.getLearner().getId());
+        dto.setLearnerName(leg.getLearner().getFullName());
+        dto.setSkillId(leg.getSkill().getId());
+        dto.setSkillName(leg.getSkill().getName());
+        dto.setAccepted(leg.getAccepted());
+        dto.setExchangeId(leg.getExchange() != null ? leg.getExchange().getId() : null);
+        return dto;
+    }
+}
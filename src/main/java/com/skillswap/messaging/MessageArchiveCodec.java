@@ -0,0 +1,96 @@
+package com.skillswap.messaging;
+
+import com.skillswap.dto.MessageDto;
+import com.skillswap.entity.Conversation;
+import com.skillswap.entity.User;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Binary format of archive segment payloads: a version byte and a record
+ * count, then one record per message, oldest first, all gzipped. Only the
+ * sender is stored; the receiver is the other member of the conversation.
+ */
+public final class MessageArchiveCodec {
+
+    private static final int VERSION = 1;
+
+    private MessageArchiveCodec() {
+    }
+
+    /**
+     * Encodes messages of one conversation, oldest first. Decoded segments are
+     * encoded again when they are merged or their messages are read.
+     */
+    public static byte[] encode(List<MessageDto> messages) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeByte(VERSION);
+            out.writeInt(messages.size());
+            for (MessageDto message : messages) {
+                out.writeLong(message.getId());
+                out.writeLong(message.getSenderId());
+                out.writeLong(message.getCreatedAt().toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(message.getCreatedAt().getNano());
+                out.writeBoolean(Boolean.TRUE.equals(message.getIsRead()));
+                boolean hasExchange = message.getExchangeId() != null;
+                out.writeBoolean(hasExchange);
+                if (hasExchange) {
+                    out.writeLong(message.getExchangeId());
+                }
+                out.writeUTF(message.getContent());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a payload of the given conversation, oldest message first.
+     */
+    public static List<MessageDto> decode(byte[] payload, Conversation conversation) {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(payload)))) {
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported archive segment version: " + version);
+            }
+            int count = in.readInt();
+            List<MessageDto> messages = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                MessageDto dto = new MessageDto();
+                dto.setId(in.readLong());
+                User sender = memberOf(conversation, in.readLong());
+                User receiver = conversation.partnerOf(sender.getId());
+                dto.setSenderId(sender.getId());
+                dto.setSenderName(sender.getUsername());
+                dto.setReceiverId(receiver.getId());
+                dto.setReceiverName(receiver.getUsername());
+                long epochSecond = in.readLong();
+                dto.setCreatedAt(LocalDateTime.ofEpochSecond(epochSecond, in.readInt(), ZoneOffset.UTC));
+                dto.setIsRead(in.readBoolean());
+                dto.setExchangeId(in.readBoolean() ? in.readLong() : null);
+                dto.setContent(in.readUTF());
+                messages.add(dto);
+            }
+            return messages;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static User memberOf(Conversation conversation, long userId) {
+        return conversation.getUserLow().getId() == userId ? conversation.getUserLow() : conversation.getUserHigh();
+    }
+}
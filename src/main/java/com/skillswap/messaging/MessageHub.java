@@ -0,0 +1,265 @@
+package com.skillswap.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of open server-sent-event streams keyed by user, and the fan-out
+ * that pushes events to them. Each user maps to an immutable array of
+ * subscriptions that is replaced on connect and disconnect, so publishing is
+ * a map lookup and an array walk with no locking. An idle stream costs one
+ * emitter and the container's async request; nothing is queued per stream.
+ */
+@Component
+public class MessageHub {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageHub.class);
+
+    private static final Subscription[] NONE = new Subscription[0];
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${skillswap.messaging.stream-timeout-ms}")
+    private long streamTimeoutMillis;
+
+    @Value("${skillswap.messaging.max-streams-per-user}")
+    private int maxStreamsPerUser;
+
+    @Value("${skillswap.messaging.heartbeat-interval-ms}")
+    private long heartbeatIntervalMillis;
+
+    @Value("${skillswap.messaging.fan-out-queue-capacity}")
+    private int fanOutQueueCapacity;
+
+    private final Map<Long, Subscription[]> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private Counter delivered;
+    private Counter dropped;
+    private Counter groupsDropped;
+
+    // Heartbeats write to every stream, so they get their own thread rather than
+    // holding up the shared @Scheduled jobs behind slow clients
+    private ScheduledExecutorService heartbeats;
+
+    // Publishes handed off by publishLater, run one group at a time in order
+    private ThreadPoolExecutor fanOut;
+    private volatile Thread fanOutThread;
+
+    // The stream the fan-out thread is writing to, so a full backlog can tell which one holds it up
+    private volatile Subscription fanOutWriting;
+    private final AtomicBoolean backlogFull = new AtomicBoolean();
+
+    @PostConstruct
+    void start() {
+        Gauge.builder("skillswap.messaging.streams.open", openStreams, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder("skillswap.messaging.users.connected", subscriptions, Map::size)
+                .register(meterRegistry);
+        delivered = Counter.builder("skillswap.messaging.events.delivered").register(meterRegistry);
+        dropped = Counter.builder("skillswap.messaging.streams.dropped").register(meterRegistry);
+        groupsDropped = Counter.builder("skillswap.messaging.fan-out.dropped")
+                .description("Event groups dropped because the fan-out backlog was full")
+                .register(meterRegistry);
+
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "message-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMillis, heartbeatIntervalMillis,
+                TimeUnit.MILLISECONDS);
+
+        // A full backlog drops the group rather than making the caller write to a slow stream
+        fanOut = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fanOutQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "message-fan-out");
+                    thread.setDaemon(true);
+                    fanOutThread = thread;
+                    return thread;
+                }, (rejected, executor) -> dropGroup());
+        Gauge.builder("skillswap.messaging.fan-out.queued", fanOut, executor -> executor.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        heartbeats.shutdownNow();
+        fanOut.shutdown();
+        fanOut.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Opens a stream for the user. When the user already has the maximum
+     * number of streams the oldest one is closed, so a client that reconnects
+     * without closing cannot grow the registry.
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        Subscription subscription = new Subscription(userId, emitter);
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(error -> unsubscribe(subscription));
+
+        Subscription[] evicted = new Subscription[1];
+        subscriptions.compute(userId, (id, current) -> {
+            Subscription[] existing = current != null ? current : NONE;
+            if (existing.length >= maxStreamsPerUser) {
+                evicted[0] = existing[0];
+                existing = Arrays.copyOfRange(existing, 1, existing.length);
+            }
+            Subscription[] updated = Arrays.copyOf(existing, existing.length + 1);
+            updated[existing.length] = subscription;
+            return updated;
+        });
+        openStreams.incrementAndGet();
+        if (evicted[0] != null) {
+            unsubscribe(evicted[0]);
+            evicted[0].emitter.complete();
+        }
+        send(subscription, SseEmitter.event().name("ready").data(userId));
+        return emitter;
+    }
+
+    /**
+     * Pushes an event to every open stream of the user; users without a
+     * stream are skipped at the cost of one map lookup.
+     */
+    public void publish(Long userId, String eventName, Object payload) {
+        Subscription[] targets = subscriptions.get(userId);
+        if (targets == null) {
+            return;
+        }
+        boolean onFanOut = Thread.currentThread() == fanOutThread;
+        for (Subscription subscription : targets) {
+            if (onFanOut) {
+                fanOutWriting = subscription;
+            }
+            if (!send(subscription, SseEmitter.event().name(eventName).data(payload, MediaType.APPLICATION_JSON))) {
+                continue;
+            }
+            delivered.increment();
+            if (subscription.stalled) {
+                // Closed once the write that held up the backlog returns; the client reconnects and refetches
+                dropped.increment();
+                unsubscribe(subscription);
+                subscription.emitter.complete();
+            }
+        }
+        if (onFanOut) {
+            fanOutWriting = null;
+        }
+    }
+
+    /**
+     * Runs a group of {@link #publish} calls on the hub's fan-out thread, so a
+     * caller such as the ingest writer never waits on a slow stream. Groups run
+     * in the order they were handed off; with the backlog full the group is
+     * dropped and the stream holding up the fan-out thread is closed.
+     */
+    public void publishLater(Runnable publishes) {
+        fanOut.execute(() -> {
+            try {
+                publishes.run();
+            } catch (RuntimeException e) {
+                log.warn("Failed to publish events", e);
+            }
+            if (fanOut.getQueue().isEmpty()) {
+                backlogFull.set(false);
+            }
+        });
+    }
+
+    /**
+     * Runs on the publishing thread, so it only marks the stalled stream;
+     * completing it here would wait on the write it is stuck in.
+     */
+    private void dropGroup() {
+        groupsDropped.increment();
+        Subscription stalled = fanOutWriting;
+        if (stalled != null) {
+            stalled.stalled = true;
+        }
+        if (backlogFull.compareAndSet(false, true)) {
+            log.warn("Fan-out backlog full ({} groups); dropping events and closing the stream of user {}",
+                    fanOutQueueCapacity, stalled != null ? stalled.userId : null);
+        }
+    }
+
+    public int getOpenStreams() {
+        return openStreams.get();
+    }
+
+    /**
+     * Writes a comment line to every stream. Keeps idle connections open
+     * through proxies and finds streams whose client went away.
+     */
+    void heartbeat() {
+        for (Subscription[] targets : subscriptions.values()) {
+            for (Subscription subscription : targets) {
+                send(subscription, SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    private boolean send(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        try {
+            subscription.emitter.send(event);
+            return true;
+        } catch (Exception e) {
+            // Broken pipe or an already completed request; the client will reconnect
+            log.debug("Dropping stream of user {}: {}", subscription.userId, e.getMessage());
+            dropped.increment();
+            unsubscribe(subscription);
+            subscription.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        if (!subscription.open.compareAndSet(true, false)) {
+            return;
+        }
+        subscriptions.computeIfPresent(subscription.userId, (id, current) -> {
+            Subscription[] updated = Arrays.stream(current)
+                    .filter(candidate -> candidate != subscription)
+                    .toArray(Subscription[]::new);
+            return updated.length == 0 ? null : updated;
+        });
+        openStreams.decrementAndGet();
+    }
+
+    private static final class Subscription {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final AtomicBoolean open = new AtomicBoolean(true);
+        private volatile boolean stalled;
+
+        private Subscription(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.skillswap.messaging;
+
+import com.skillswap.dto.MessageDto;
+import com.skillswap.service.MessageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded queue in front of message storage. A single writer thread drains
+ * it into batches of up to {@code batch-size} messages, waiting at most
+ * {@code max-latency-ms} after the first message of a batch for more to
+ * arrive, and stores each batch in one transaction. Senders are answered
+ * when the batch holding their message has committed.
+ */
+@Component
+public class MessageIngestBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageIngestBuffer.class);
+
+    // How often an idle writer checks for shutdown
+    private static final long IDLE_POLL_MILLIS = 200;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${skillswap.messaging.ingest.batch-size}")
+    private int batchSize;
+
+    @Value("${skillswap.messaging.ingest.max-latency-ms}")
+    private long maxLatencyMillis;
+
+    @Value("${skillswap.messaging.ingest.queue-capacity}")
+    private int queueCapacity;
+
+    private BlockingQueue<MessageSubmission> queue;
+    private Thread writer;
+    private volatile boolean running;
+    private DistributionSummary batchSizes;
+    private Timer flushTimer;
+    private Counter rejected;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("skillswap.messaging.ingest.queued", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("skillswap.messaging.ingest.batch.size")
+                .description("Messages stored per batch")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("skillswap.messaging.ingest.flush")
+                .description("Time to store and commit one batch")
+                .register(meterRegistry);
+        rejected = Counter.builder("skillswap.messaging.ingest.rejected")
+                .description("Messages refused because the ingest queue was full")
+                .register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::drain, "message-ingest");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues the message for the next batch.
+     *
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public CompletableFuture<MessageDto> submit(Long senderId, MessageDto message) {
+        MessageSubmission submission = new MessageSubmission(senderId, message);
+        if (!running || !queue.offer(submission)) {
+            rejected.increment();
+            throw new RejectedExecutionException("Message ingest queue is full");
+        }
+        // stop() may have run since the check, after the writer's last drain. If the
+        // writer has not taken the submission by now, nothing will
+        if (!running && queue.remove(submission)) {
+            rejected.increment();
+            throw new RejectedExecutionException("Message ingest stopped");
+        }
+        return submission.getResult();
+    }
+
+    /**
+     * Stops taking messages and stores whatever is already queued.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        failQueued();
+    }
+
+    private void drain() {
+        List<MessageSubmission> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                MessageSubmission first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxLatencyMillis);
+                queue.drainTo(batch, batchSize - batch.size());
+                while (batch.size() < batchSize) {
+                    MessageSubmission next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // Nothing interrupts the writer in normal operation; fail what is queued and exit
+                Thread.currentThread().interrupt();
+                running = false;
+                flush(batch);
+                failQueued();
+                return;
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<MessageSubmission> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizes.record(batch.size());
+        try {
+            flushTimer.record(() -> messageService.storeAll(batch));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                log.warn("Failed to store a message", e);
+                batch.get(0).getResult().completeExceptionally(e);
+                return;
+            }
+            // One bad row rolls back the whole batch; store the rest one at a time
+            log.warn("Failed to store a batch of {} messages; retrying them one by one", batch.size(), e);
+            for (MessageSubmission submission : batch) {
+                if (!submission.getResult().isDone()) {
+                    flush(List.of(submission));
+                }
+            }
+        }
+    }
+
+    private void failQueued() {
+        RejectedExecutionException stopped = new RejectedExecutionException("Message ingest stopped");
+        MessageSubmission submission;
+        while ((submission = queue.poll()) != null) {
+            submission.getResult().completeExceptionally(stopped);
+        }
+    }
+}
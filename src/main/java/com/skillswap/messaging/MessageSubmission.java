@@ -0,0 +1,38 @@
+package com.skillswap.messaging;
+
+import com.skillswap.dto.MessageDto;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A message waiting to be stored, and the future its sender is waiting on.
+ * The future completes with the stored message once its batch has
+ * committed, or exceptionally if it was rejected or the batch failed.
+ */
+public class MessageSubmission {
+
+    private final Long senderId;
+
+    private final MessageDto message;
+
+    private final CompletableFuture<MessageDto> result = new CompletableFuture<>();
+
+    // Constructors
+    public MessageSubmission(Long senderId, MessageDto message) {
+        this.senderId = senderId;
+        this.message = message;
+    }
+
+    // Getters
+    public Long getSenderId() {
+        return senderId;
+    }
+
+    public MessageDto getMessage() {
+        return message;
+    }
+
+    public CompletableFuture<MessageDto> getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,141 @@
+package com.skillswap.messaging;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.skillswap.repository.MessageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Unread message count per user, served from memory. A user's count is
+ * seeded from the database, archived messages included, on first read and
+ * afterwards moved by the deltas of committed transactions. Users are spread
+ * over a fixed set of lock stripes: seeding holds the user's stripe while it
+ * counts, and a delta holds it from just before its transaction commits until
+ * it is applied, so a seed sees any given commit either in the database or as
+ * a delta, never both. Reads of a seeded count take no lock.
+ */
+@Component
+public class UnreadCounters {
+
+    private static final int STRIPES = 64;
+
+    private final MessageRepository messageRepository;
+    private final Cache<Long, Long> counts;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public UnreadCounters(MessageRepository messageRepository, MeterRegistry meterRegistry,
+            @Value("${skillswap.messaging.unread-counters.max-size}") long maxSize) {
+        this.messageRepository = messageRepository;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "unread-counters");
+    }
+
+    public long get(Long userId) {
+        Long count = counts.getIfPresent(userId);
+        if (count != null) {
+            return count;
+        }
+        ReentrantLock stripe = stripeOf(userId);
+        stripe.lock();
+        try {
+            count = counts.getIfPresent(userId);
+            if (count == null) {
+                count = messageRepository.countUnreadIncludingArchived(userId);
+                counts.put(userId, count);
+            }
+            return count;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    public void adjustOnCommit(Long userId, long delta) {
+        adjustOnCommit(Map.of(userId, delta));
+    }
+
+    /**
+     * Moves each user's count by its delta if the surrounding transaction
+     * commits. Counts that are not cached are left alone; they are seeded
+     * with the committed value when next read. Stripes are taken in index
+     * order, so transactions adjusting several users cannot deadlock.
+     */
+    public void adjustOnCommit(Map<Long, Long> deltas) {
+        ReentrantLock[] held = deltas.keySet().stream()
+                .map(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .map(index -> stripes[index])
+                .toArray(ReentrantLock[]::new);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lockAll(held);
+            try {
+                deltas.forEach(this::apply);
+            } finally {
+                unlockAll(held);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                lockAll(held);
+                locked = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (!locked) {
+                    return;
+                }
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        deltas.forEach(UnreadCounters.this::apply);
+                    }
+                } finally {
+                    unlockAll(held);
+                }
+            }
+        });
+    }
+
+    private void apply(Long userId, long delta) {
+        counts.asMap().computeIfPresent(userId, (id, count) -> Math.max(0, count + delta));
+    }
+
+    private ReentrantLock stripeOf(Long userId) {
+        return stripes[stripeIndex(userId)];
+    }
+
+    private int stripeIndex(Long userId) {
+        return Math.floorMod(Long.hashCode(userId), STRIPES);
+    }
+
+    private static void lockAll(ReentrantLock[] locks) {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    private static void unlockAll(ReentrantLock[] locks) {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.skillswap.pagination;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position: the sort key of the last row returned plus its id as
+ * a tie-breaker. Encoded as URL-safe base64 so clients treat it as a token.
+ */
+public final class Cursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final String sortKey;
+    private final long id;
+
+    private Cursor(String sortKey, long id) {
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    public static Cursor of(String sortKey, long id) {
+        return new Cursor(sortKey, id);
+    }
+
+    public static Cursor ofId(long id) {
+        return new Cursor("", id);
+    }
+
+    public static Cursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            return new Cursor(raw.substring(0, split), Long.parseLong(raw.substring(split + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * Id after which an ascending-by-id page starts, or 0 for the first page.
+     */
+    public static long afterId(String token) {
+        return token == null ? 0L : decode(token).getId();
+    }
+
+    public String encode() {
+        String raw = sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * The sort key as the timestamp it was encoded from, rejected like a
+     * malformed token when it is not one.
+     */
+    public LocalDateTime sortKeyAsTimestamp() {
+        try {
+            return LocalDateTime.parse(sortKey);
+        } catch (DateTimeParseException e) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * The sort key as the score it was encoded from, rejected like a
+     * malformed token when it is not one.
+     */
+    public double sortKeyAsDouble() {
+        try {
+            return Double.parseDouble(sortKey);
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    private static ResponseStatusException invalid() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
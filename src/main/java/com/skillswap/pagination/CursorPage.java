@@ -0,0 +1,60 @@
+package com.skillswap.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class CursorPage<T> {
+
+    private List<T> items;
+
+    private String nextCursor;
+
+    private boolean hasMore;
+
+    // Constructors
+    public CursorPage() {
+    }
+
+    public CursorPage(List<T> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * Builds a page from rows fetched with {@code limit + 1}: the extra row only
+     * signals that another page exists and is dropped before mapping.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit, Function<E, Cursor> cursorOf,
+            Function<List<E>, List<T>> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(pageRows.get(pageRows.size() - 1)).encode() : null;
+        return new CursorPage<>(mapper.apply(pageRows), nextCursor, hasMore);
+    }
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
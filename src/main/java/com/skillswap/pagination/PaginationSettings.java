@@ -0,0 +1,42 @@
+package com.skillswap.pagination;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PaginationSettings {
+
+    @Value("${skillswap.pagination.default-size}")
+    private int defaultSize;
+
+    @Value("${skillswap.pagination.max-size}")
+    private int maxSize;
+
+    @Value("${skillswap.pagination.legacy-lists}")
+    private boolean legacyLists;
+
+    /**
+     * With legacy lists enabled, requests that carry neither a cursor nor a
+     * limit keep receiving the old unpaginated array.
+     */
+    public boolean isLegacyRequest(String cursor, Integer limit) {
+        return legacyLists && cursor == null && limit == null;
+    }
+
+    public int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return defaultSize;
+        }
+        return Math.max(1, Math.min(limit, maxSize));
+    }
+
+    /**
+     * Fetches one row beyond the page so {@link CursorPage#of} can tell whether
+     * another page follows. Always page 0: the cursor predicate does the skipping.
+     */
+    public static Pageable fetchWindow(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+}
@@ -0,0 +1,229 @@
+package com.skillswap.ranking;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The best-scoring providers of one skill, ordered by score and then user id.
+ * At most {@code capacity} providers are held; {@link #floor} is the best
+ * provider known to have been left out, and every provider not held ranks at
+ * or below it. A change can only bring a provider in above the floor, so the
+ * held providers are always the true top of the ranking. Once removals leave
+ * fewer than the served depth above the floor, {@link #needsRefill(int)}
+ * tells the owner to reload the skill.
+ */
+public class ProviderLeaderboard {
+
+    static final Comparator<Ranked> ORDER = Comparator.comparingDouble(Ranked::getScore).reversed()
+            .thenComparingLong(Ranked::getUserId);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int capacity;
+
+    private final NavigableSet<Ranked> ranked = new TreeSet<>(ORDER);
+    private final Map<Long, Ranked> byUser = new HashMap<>();
+    private Ranked floor;
+
+    // Changes applied while a refill is loading; replayed onto the refilled board
+    private List<Ranked> missed;
+
+    public ProviderLeaderboard(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void upsert(Ranked provider) {
+        lock.writeLock().lock();
+        try {
+            place(provider);
+            if (missed != null) {
+                missed.add(provider);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            unplace(userId);
+            if (missed != null) {
+                missed.add(removal(userId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void place(Ranked provider) {
+        unplace(provider.getUserId());
+        if (floor != null && ORDER.compare(provider, floor) >= 0) {
+            // Providers below the floor may be outranked by ones that are not held
+            return;
+        }
+        ranked.add(provider);
+        byUser.put(provider.getUserId(), provider);
+        if (ranked.size() > capacity) {
+            Ranked evicted = ranked.pollLast();
+            byUser.remove(evicted.getUserId());
+            floor = evicted;
+        }
+    }
+
+    private void unplace(long userId) {
+        Ranked previous = byUser.remove(userId);
+        if (previous != null) {
+            ranked.remove(previous);
+        }
+    }
+
+    /**
+     * Whether providers were left out and fewer than {@code depth} are held,
+     * so a page could end before the real ranking does.
+     */
+    public boolean needsRefill(int depth) {
+        lock.readLock().lock();
+        try {
+            return floor != null && ranked.size() < Math.min(depth, capacity);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Starts recording changes so that {@link #finishRefill(ProviderLeaderboard)}
+     * can apply the ones that raced with loading the skill from the database.
+     */
+    public void beginRefill() {
+        lock.writeLock().lock();
+        try {
+            missed = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void cancelRefill() {
+        lock.writeLock().lock();
+        try {
+            missed = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Takes over the providers of a board loaded from the database, which
+     * must not be visible to anyone else.
+     */
+    public void finishRefill(ProviderLeaderboard loaded) {
+        lock.writeLock().lock();
+        try {
+            ranked.clear();
+            byUser.clear();
+            ranked.addAll(loaded.ranked);
+            byUser.putAll(loaded.byUser);
+            floor = loaded.floor;
+            List<Ranked> replay = missed;
+            missed = null;
+            if (replay != null) {
+                for (Ranked change : replay) {
+                    if (change.isRemoval()) {
+                        unplace(change.getUserId());
+                    } else {
+                        place(change);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code window} providers ranked after {@code after} (from the top
+     * when null), never reaching past the first {@code depth}.
+     */
+    public List<Ranked> page(Ranked after, int window, int depth) {
+        lock.readLock().lock();
+        try {
+            int skipped = after == null ? 0 : ranked.headSet(after, true).size();
+            Iterator<Ranked> it = (after == null ? ranked : ranked.tailSet(after, false)).iterator();
+            int count = Math.min(window, depth - skipped);
+            List<Ranked> page = new ArrayList<>(Math.max(count, 0));
+            while (page.size() < count && it.hasNext()) {
+                page.add(it.next());
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ranked.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static Ranked removal(long userId) {
+        return new Ranked(userId, 0L, 0, Double.NaN);
+    }
+
+    /**
+     * A provider's position in the ranking: the user, the user-skill row it
+     * was scored from and the score. A NaN score marks a removal.
+     */
+    public static final class Ranked {
+
+        private final long userId;
+        private final long userSkillId;
+        private final int proficiencyLevel;
+        private final double score;
+
+        public Ranked(long userId, long userSkillId, int proficiencyLevel, double score) {
+            this.userId = userId;
+            this.userSkillId = userSkillId;
+            this.proficiencyLevel = proficiencyLevel;
+            this.score = score;
+        }
+
+        /**
+         * A position to page from; only the score and user id take part in ordering.
+         */
+        public static Ranked position(double score, long userId) {
+            return new Ranked(userId, 0L, 0, score);
+        }
+
+        public boolean isRemoval() {
+            return Double.isNaN(score);
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        public long getUserSkillId() {
+            return userSkillId;
+        }
+
+        public int getProficiencyLevel() {
+            return proficiencyLevel;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
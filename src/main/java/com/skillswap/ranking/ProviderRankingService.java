@@ -0,0 +1,336 @@
+package com.skillswap.ranking;
+
+import com.skillswap.dto.RankedProviderDto;
+import com.skillswap.entity.User;
+import com.skillswap.entity.UserReputation;
+import com.skillswap.entity.UserSkill.SkillType;
+import com.skillswap.event.ReputationChangedEvent;
+import com.skillswap.event.UserSkillChangedEvent;
+import com.skillswap.pagination.Cursor;
+import com.skillswap.pagination.CursorPage;
+import com.skillswap.repository.UserRepository;
+import com.skillswap.repository.UserSkillRepository;
+import com.skillswap.service.ReputationService;
+import com.skillswap.util.Batches;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ranks the available providers of each skill by proficiency, provider
+ * rating and recently completed exchanges, keeping one bounded
+ * {@link ProviderLeaderboard} per skill in memory. User-skill and reputation
+ * changes rescore the affected providers after commit; a page only touches
+ * the database to load the users it returns.
+ */
+@Service
+public class ProviderRankingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProviderRankingService.class);
+
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    // Reputation changes to more users than this, such as the first verification
+    // after deploy, reload every board instead of rescoring user by user
+    private static final int RESCORE_LIMIT = 5000;
+
+    // Providers held per skill for each one served, so removals rarely force a reload
+    private static final int HELD_PER_SERVED = 2;
+
+    // Each term is scaled to [0, 1] before weighting, so scores are too
+    private static final double PROFICIENCY_WEIGHT = 0.4;
+    private static final double RATING_WEIGHT = 0.4;
+    private static final double ACTIVITY_WEIGHT = 0.2;
+
+    // Ratings are averaged with this many prior ratings of PRIOR_RATING, so one
+    // five-star exchange does not outrank a long record of good ones
+    private static final double PRIOR_RATING = 3.0;
+    private static final double PRIOR_RATING_COUNT = 2.0;
+
+    // Recent completions at which the activity term reaches half its weight
+    private static final double HALF_ACTIVITY_COMPLETIONS = 3.0;
+
+    @Autowired
+    private UserSkillRepository userSkillRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReputationService reputationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${skillswap.providers.top-k}")
+    private int topK;
+
+    private volatile Map<Long, ProviderLeaderboard> boards = new ConcurrentHashMap<>();
+
+    // Changes seen while a rebuild is loading; replayed onto the new boards
+    private final Queue<SkillChange> missedDuringRebuild = new ConcurrentLinkedQueue<>();
+    private volatile boolean rebuilding;
+
+    // Locks rather than synchronized: rebuilds and refills do JDBC I/O, which would pin a virtual thread
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    private Counter refills;
+
+    @PostConstruct
+    void registerMetrics() {
+        refills = Counter.builder("skillswap.providers.refills")
+                .description("Skills reloaded because removals left too few ranked providers in memory")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${skillswap.providers.rebuild-cron}")
+    public void rebuild() {
+        rebuildLock.lock();
+        rebuilding = true;
+        try {
+            // Anything queued by now has committed, so the load below reads it
+            missedDuringRebuild.clear();
+            Map<Long, ProviderLeaderboard> fresh = new ConcurrentHashMap<>();
+            long afterId = 0L;
+            int providers = 0;
+            List<UserSkillRepository.RankedProviderSource> batch;
+            do {
+                batch = userSkillRepository.findRankedProvidersAfter(SkillType.OFFER, afterId,
+                        PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (UserSkillRepository.RankedProviderSource source : batch) {
+                    fresh.computeIfAbsent(source.getSkillId(), id -> newBoard()).upsert(rank(source));
+                    afterId = source.getId();
+                }
+                providers += batch.size();
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            boards = fresh;
+            replayMissed(fresh);
+            log.info("Provider rankings built: {} skills, {} providers", fresh.size(), providers);
+        } finally {
+            rebuilding = false;
+            rebuildLock.unlock();
+        }
+        replayMissed(boards);
+    }
+
+    /**
+     * Changes carry the provider's full score, so replaying one the rebuild
+     * already read from the database leaves the ranking unchanged.
+     */
+    private void replayMissed(Map<Long, ProviderLeaderboard> target) {
+        SkillChange change;
+        while ((change = missedDuringRebuild.poll()) != null) {
+            apply(target, change);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSkillChanged(UserSkillChangedEvent event) {
+        if (event.getSkillType() != SkillType.OFFER) {
+            return;
+        }
+        ProviderLeaderboard.Ranked ranked;
+        if (event.getChange() != UserSkillChangedEvent.Change.REMOVED && event.isAvailable()) {
+            UserReputation reputation = reputationService.getReputations(List.of(event.getUserId()))
+                    .get(event.getUserId());
+            ranked = new ProviderLeaderboard.Ranked(event.getUserId(), event.getUserSkillId(),
+                    event.getProficiencyLevel(), score(event.getProficiencyLevel(), reputation));
+        } else {
+            ranked = ProviderLeaderboard.removal(event.getUserId());
+        }
+        record(new SkillChange(event.getSkillId(), ranked));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReputationChanged(ReputationChangedEvent event) {
+        if (event.getUserIds().size() > RESCORE_LIMIT) {
+            rebuild();
+            return;
+        }
+        for (List<Long> userIds : Batches.partition(event.getUserIds(), Batches.MAX_IN_LIST)) {
+            for (UserSkillRepository.RankedProviderSource source
+                    : userSkillRepository.findRankedProvidersByUserIdIn(userIds, SkillType.OFFER)) {
+                record(new SkillChange(source.getSkillId(), rank(source)));
+            }
+        }
+    }
+
+    /**
+     * Queues the change before reading {@code boards}: a change that finds no
+     * rebuild running reads the boards after any earlier swap, and one queued
+     * before the swap is replayed onto the new boards.
+     */
+    private void record(SkillChange change) {
+        if (rebuilding) {
+            missedDuringRebuild.add(change);
+        }
+        apply(boards, change);
+    }
+
+    private void apply(Map<Long, ProviderLeaderboard> target, SkillChange change) {
+        if (change.ranked.isRemoval()) {
+            ProviderLeaderboard board = target.get(change.skillId);
+            if (board != null) {
+                board.remove(change.ranked.getUserId());
+            }
+        } else {
+            target.computeIfAbsent(change.skillId, id -> newBoard()).upsert(change.ranked);
+        }
+    }
+
+    /**
+     * One page of a skill's providers, best first. Pages stop after the
+     * top-k providers; cursors hold the last provider's score and user id,
+     * so paging stays consistent while scores change.
+     */
+    public CursorPage<RankedProviderDto> getProviders(Long skillId, String cursor, int limit) {
+        ProviderLeaderboard board = boards.get(skillId);
+        if (board == null) {
+            return new CursorPage<>(Collections.emptyList(), null, false);
+        }
+        if (board.needsRefill(topK)) {
+            refill(skillId, board);
+        }
+        List<ProviderLeaderboard.Ranked> rows = board.page(position(cursor), limit + 1, topK);
+        return CursorPage.of(rows, limit,
+                ranked -> Cursor.of(Double.toString(ranked.getScore()), ranked.getUserId()), this::toDtos);
+    }
+
+    private void refill(Long skillId, ProviderLeaderboard board) {
+        refillLock.lock();
+        boolean finished = false;
+        try {
+            if (!board.needsRefill(topK)) {
+                return;
+            }
+            board.beginRefill();
+            ProviderLeaderboard loaded = newBoard();
+            long afterId = 0L;
+            List<UserSkillRepository.RankedProviderSource> batch;
+            do {
+                batch = userSkillRepository.findRankedProvidersBySkillIdAfter(skillId, SkillType.OFFER, afterId,
+                        PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (UserSkillRepository.RankedProviderSource source : batch) {
+                    loaded.upsert(rank(source));
+                    afterId = source.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            board.finishRefill(loaded);
+            finished = true;
+            refills.increment();
+        } finally {
+            if (!finished) {
+                board.cancelRefill();
+            }
+            refillLock.unlock();
+        }
+    }
+
+    private ProviderLeaderboard newBoard() {
+        return new ProviderLeaderboard(topK * HELD_PER_SERVED);
+    }
+
+    private static ProviderLeaderboard.Ranked position(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        Cursor decoded = Cursor.decode(cursor);
+        return ProviderLeaderboard.Ranked.position(decoded.sortKeyAsDouble(), decoded.getId());
+    }
+
+    private ProviderLeaderboard.Ranked rank(UserSkillRepository.RankedProviderSource source) {
+        int proficiency = source.getProficiencyLevel() != null ? source.getProficiencyLevel() : 0;
+        long ratingSum = source.getRatingSum() != null ? source.getRatingSum() : 0L;
+        long ratingCount = source.getRatingCount() != null ? source.getRatingCount() : 0L;
+        double decayedCompletions = source.getCompletedDecayedWeight() != null
+                ? source.getCompletedDecayedWeight() : 0.0;
+        return new ProviderLeaderboard.Ranked(source.getUserId(), source.getId(), proficiency,
+                score(proficiency, ratingSum, ratingCount, reputationService.recentCompletions(decayedCompletions)));
+    }
+
+    private double score(int proficiency, UserReputation reputation) {
+        if (reputation == null) {
+            return score(proficiency, 0L, 0L, 0.0);
+        }
+        return score(proficiency, reputation.getProviderRatingSum(), reputation.getProviderRatingCount(),
+                reputationService.recentCompletions(reputation));
+    }
+
+    static double score(int proficiency, long ratingSum, long ratingCount, double recentCompletions) {
+        double proficiencyTerm = Math.max(0, Math.min(proficiency, 5)) / 5.0;
+        double rating = (ratingSum + PRIOR_RATING * PRIOR_RATING_COUNT) / (ratingCount + PRIOR_RATING_COUNT);
+        double ratingTerm = (rating - 1.0) / 4.0;
+        double activityTerm = recentCompletions / (recentCompletions + HALF_ACTIVITY_COMPLETIONS);
+        return PROFICIENCY_WEIGHT * proficiencyTerm + RATING_WEIGHT * ratingTerm + ACTIVITY_WEIGHT * activityTerm;
+    }
+
+    private List<RankedProviderDto> toDtos(List<ProviderLeaderboard.Ranked> page) {
+        List<Long> userIds = page.stream()
+                .map(ProviderLeaderboard.Ranked::getUserId)
+                .collect(Collectors.toList());
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, UserReputation> reputations = reputationService.getReputations(userIds);
+        List<RankedProviderDto> dtos = new ArrayList<>(page.size());
+        for (ProviderLeaderboard.Ranked ranked : page) {
+            User user = users.get(ranked.getUserId());
+            if (user != null) {
+                dtos.add(toDto(ranked, user, reputations.get(ranked.getUserId())));
+            }
+        }
+        return dtos;
+    }
+
+    private RankedProviderDto toDto(ProviderLeaderboard.Ranked ranked, User user, UserReputation reputation) {
+        RankedProviderDto dto = new RankedProviderDto();
+        dto.setUserId(user.getId());
+        dto.setUsername(user.getUsername());
+        dto.setFirstName(user.getFirstName());
+        dto.setLastName(user.getLastName());
+        dto.setProfileImageUrl(user.getProfileImageUrl());
+        dto.setUserSkillId(ranked.getUserSkillId());
+        dto.setProficiencyLevel(ranked.getProficiencyLevel());
+        dto.setScore(ranked.getScore());
+        if (reputation != null) {
+            dto.setAverageRating(reputation.getAverageRatingAsProvider());
+            dto.setRatingCount(reputation.getProviderRatingCount());
+            dto.setCompletedExchangeCount(reputation.getCompletedCount());
+        }
+        return dto;
+    }
+
+    private static final class SkillChange {
+
+        private final long skillId;
+        private final ProviderLeaderboard.Ranked ranked;
+
+        SkillChange(long skillId, ProviderLeaderboard.Ranked ranked) {
+            this.skillId = skillId;
+            this.ranked = ranked;
+        }
+    }
+}
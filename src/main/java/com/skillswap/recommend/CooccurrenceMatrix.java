@@ -0,0 +1,330 @@
+package com.skillswap.recommend;
+
+import com.skillswap.entity.UserSkill.SkillType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Sparse skill-by-skill matrix counting how many users offer both skills,
+ * with each row's top-K entries precomputed for lookups. Skills and users are
+ * mapped to dense int slots; rows are {@link SparseCounts} so nothing on the
+ * counting path is boxed.
+ */
+public class CooccurrenceMatrix {
+
+    private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[0]);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int topK;
+
+    private final Map<Long, Integer> userSlots = new HashMap<>();
+    private final Map<Long, Integer> skillSlots = new HashMap<>();
+    private long[] skillIds = new long[16];
+    private int userCount;
+    private int skillCount;
+
+    private SkillSet[] userOffers = new SkillSet[16];
+    private SkillSet[] userSeeks = new SkillSet[16];
+
+    private SparseCounts[] rows = new SparseCounts[16];
+    private int[][] topSkills = new int[16][];
+    private int[][] topCounts = new int[16][];
+
+    public CooccurrenceMatrix(int topK) {
+        this.topK = topK;
+    }
+
+    /**
+     * Records a user-skill row without counting it. Only for filling a matrix
+     * that is not yet visible to readers; call {@link #computeAll()} afterwards.
+     */
+    public void loadEdge(long userId, long skillId, SkillType skillType) {
+        int user = userSlot(userId);
+        int skill = skillSlot(skillId);
+        (skillType == SkillType.OFFER ? userOffers : userSeeks)[user].append(skill);
+    }
+
+    /**
+     * Counts every row from the loaded edges, one skill per task on the common
+     * fork-join pool. Rows are symmetric, so each is computed independently
+     * from the users offering that skill.
+     */
+    public void computeAll() {
+        int[] teacherStart = new int[skillCount + 1];
+        for (int user = 0; user < userCount; user++) {
+            SkillSet offers = userOffers[user];
+            for (int i = 0; i < offers.size(); i++) {
+                teacherStart[offers.get(i) + 1]++;
+            }
+        }
+        for (int skill = 0; skill < skillCount; skill++) {
+            teacherStart[skill + 1] += teacherStart[skill];
+        }
+        int[] teachers = new int[teacherStart[skillCount]];
+        int[] fill = Arrays.copyOf(teacherStart, skillCount);
+        for (int user = 0; user < userCount; user++) {
+            SkillSet offers = userOffers[user];
+            for (int i = 0; i < offers.size(); i++) {
+                teachers[fill[offers.get(i)]++] = user;
+            }
+        }
+
+        IntStream.range(0, skillCount).parallel().forEach(skill -> {
+            rows[skill] = countRow(skill, teacherStart, teachers);
+            refreshTop(skill);
+        });
+    }
+
+    private SparseCounts countRow(int skill, int[] teacherStart, int[] teachers) {
+        int[] dense = SCRATCH.get();
+        if (dense.length < skillCount) {
+            dense = new int[skillCount];
+            SCRATCH.set(dense);
+        }
+        int[] touched = new int[16];
+        int touchedCount = 0;
+        for (int t = teacherStart[skill]; t < teacherStart[skill + 1]; t++) {
+            SkillSet offers = userOffers[teachers[t]];
+            for (int i = 0; i < offers.size(); i++) {
+                int other = offers.get(i);
+                if (other != skill && dense[other]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = other;
+                }
+            }
+        }
+        SparseCounts row = new SparseCounts(touchedCount);
+        for (int i = 0; i < touchedCount; i++) {
+            row.add(touched[i], dense[touched[i]]);
+            dense[touched[i]] = 0;
+        }
+        return row;
+    }
+
+    public void addEdge(long userId, long skillId, SkillType skillType) {
+        lock.writeLock().lock();
+        try {
+            int user = userSlot(userId);
+            int skill = skillSlot(skillId);
+            if (skillType == SkillType.SEEK) {
+                if (!userSeeks[user].contains(skill)) {
+                    userSeeks[user].append(skill);
+                }
+                return;
+            }
+            SkillSet offers = userOffers[user];
+            if (offers.contains(skill)) {
+                return;
+            }
+            adjust(skill, offers, 1);
+            offers.append(skill);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeEdge(long userId, long skillId, SkillType skillType) {
+        lock.writeLock().lock();
+        try {
+            Integer user = userSlots.get(userId);
+            Integer skill = skillSlots.get(skillId);
+            if (user == null || skill == null) {
+                return;
+            }
+            if (skillType == SkillType.SEEK) {
+                userSeeks[user].remove(skill);
+                return;
+            }
+            if (userOffers[user].remove(skill)) {
+                adjust(skill, userOffers[user], -1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void adjust(int skill, SkillSet otherOffers, int delta) {
+        for (int i = 0; i < otherOffers.size(); i++) {
+            int other = otherOffers.get(i);
+            rows[skill].add(other, delta);
+            rows[other].add(skill, delta);
+            refreshTop(other);
+        }
+        refreshTop(skill);
+    }
+
+    /**
+     * Rebuilds the top-K list of one row, ordered by count and then by slot.
+     */
+    private void refreshTop(int skill) {
+        SparseCounts row = rows[skill];
+        int[] bestSkills = new int[topK];
+        int[] bestCounts = new int[topK];
+        int size = 0;
+        for (int index = 0; index < row.capacity(); index++) {
+            int count = row.countAt(index);
+            if (count <= 0) {
+                continue;
+            }
+            int other = row.keyAt(index);
+            if (size == topK && !outranks(count, other, bestCounts[size - 1], bestSkills[size - 1])) {
+                continue;
+            }
+            int position = size < topK ? size++ : size - 1;
+            while (position > 0 && outranks(count, other, bestCounts[position - 1], bestSkills[position - 1])) {
+                bestSkills[position] = bestSkills[position - 1];
+                bestCounts[position] = bestCounts[position - 1];
+                position--;
+            }
+            bestSkills[position] = other;
+            bestCounts[position] = count;
+        }
+        topSkills[skill] = Arrays.copyOf(bestSkills, size);
+        topCounts[skill] = Arrays.copyOf(bestCounts, size);
+    }
+
+    private static boolean outranks(int count, int skill, int otherCount, int otherSkill) {
+        return count > otherCount || (count == otherCount && skill < otherSkill);
+    }
+
+    /**
+     * Skills most often offered by the same users as {@code skillId}, best first.
+     */
+    public List<Scored> related(long skillId, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer skill = skillSlots.get(skillId);
+            List<Scored> related = new ArrayList<>();
+            if (skill == null) {
+                return related;
+            }
+            int[] skills = topSkills[skill];
+            int[] counts = topCounts[skill];
+            for (int i = 0; i < skills.length && related.size() < limit; i++) {
+                related.add(new Scored(skillIds[skills[i]], counts[i]));
+            }
+            return related;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sums the top-K rows of every skill the user offers or seeks and returns
+     * the best-scoring skills they do not have yet.
+     */
+    public List<Scored> recommend(long userId, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer user = userSlots.get(userId);
+            List<Scored> recommended = new ArrayList<>();
+            if (user == null) {
+                return recommended;
+            }
+            SkillSet offers = userOffers[user];
+            SkillSet seeks = userSeeks[user];
+            SparseCounts scores = new SparseCounts(topK * (offers.size() + seeks.size()));
+            accumulate(offers, scores);
+            accumulate(seeks, scores);
+
+            for (int index = 0; index < scores.capacity(); index++) {
+                int count = scores.countAt(index);
+                int skill = scores.keyAt(index);
+                if (count > 0 && !offers.contains(skill) && !seeks.contains(skill)) {
+                    recommended.add(new Scored(skillIds[skill], count));
+                }
+            }
+            recommended.sort((a, b) -> a.count != b.count
+                    ? Integer.compare(b.count, a.count)
+                    : Long.compare(a.skillId, b.skillId));
+            return new ArrayList<>(recommended.subList(0, Math.min(limit, recommended.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void accumulate(SkillSet seeds, SparseCounts scores) {
+        for (int i = 0; i < seeds.size(); i++) {
+            int[] skills = topSkills[seeds.get(i)];
+            int[] counts = topCounts[seeds.get(i)];
+            for (int j = 0; j < skills.length; j++) {
+                scores.add(skills[j], counts[j]);
+            }
+        }
+    }
+
+    public int skillCount() {
+        return skillCount;
+    }
+
+    public int userCount() {
+        return userCount;
+    }
+
+    private int userSlot(long userId) {
+        Integer slot = userSlots.get(userId);
+        if (slot != null) {
+            return slot;
+        }
+        if (userCount == userOffers.length) {
+            int capacity = userCount * 2;
+            userOffers = Arrays.copyOf(userOffers, capacity);
+            userSeeks = Arrays.copyOf(userSeeks, capacity);
+        }
+        userOffers[userCount] = new SkillSet();
+        userSeeks[userCount] = new SkillSet();
+        userSlots.put(userId, userCount);
+        return userCount++;
+    }
+
+    private int skillSlot(long skillId) {
+        Integer slot = skillSlots.get(skillId);
+        if (slot != null) {
+            return slot;
+        }
+        if (skillCount == skillIds.length) {
+            int capacity = skillCount * 2;
+            skillIds = Arrays.copyOf(skillIds, capacity);
+            rows = Arrays.copyOf(rows, capacity);
+            topSkills = Arrays.copyOf(topSkills, capacity);
+            topCounts = Arrays.copyOf(topCounts, capacity);
+        }
+        skillIds[skillCount] = skillId;
+        rows[skillCount] = new SparseCounts(4);
+        topSkills[skillCount] = new int[0];
+        topCounts[skillCount] = new int[0];
+        skillSlots.put(skillId, skillCount);
+        return skillCount++;
+    }
+
+    /**
+     * A skill id with the number of users it was counted against.
+     */
+    public static final class Scored {
+
+        private final long skillId;
+        private final int count;
+
+        Scored(long skillId, int count) {
+            this.skillId = skillId;
+            this.count = count;
+        }
+
+        public long getSkillId() {
+            return skillId;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.skillswap.recommend;
+
+import com.skillswap.dto.RelatedSkillDto;
+import com.skillswap.dto.SkillSuggestionDto;
+import com.skillswap.event.UserSkillChangedEvent;
+import com.skillswap.repository.UserSkillRepository;
+import com.skillswap.search.SearchIndexService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * "People who teach X also teach Y": answers related-skill and recommended-skill
+ * lookups from a {@link CooccurrenceMatrix} kept in memory, so requests never
+ * query user_skills.
+ */
+@Service
+public class RelatedSkillsService {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatedSkillsService.class);
+
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    @Autowired
+    private UserSkillRepository userSkillRepository;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Value("${skillswap.related.top-k}")
+    private int topK;
+
+    private volatile CooccurrenceMatrix matrix = new CooccurrenceMatrix(1);
+
+    // Changes seen while a rebuild is loading; replayed onto the new matrix
+    private final Queue<UserSkillChangedEvent> missedDuringRebuild = new ConcurrentLinkedQueue<>();
+    private volatile boolean rebuilding;
+
+    // A lock rather than synchronized: the rebuild does JDBC I/O, which would pin a virtual thread
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${skillswap.related.rebuild-cron}")
+    public void rebuild() {
+        rebuildLock.lock();
+        rebuilding = true;
+        try {
+            // Anything queued by now has committed, so the load below reads it
+            missedDuringRebuild.clear();
+            CooccurrenceMatrix fresh = new CooccurrenceMatrix(topK);
+            long afterId = 0L;
+            List<UserSkillRepository.UserSkillEdge> batch;
+            do {
+                batch = userSkillRepository.findEdgesAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (UserSkillRepository.UserSkillEdge edge : batch) {
+                    fresh.loadEdge(edge.getUserId(), edge.getSkillId(), edge.getSkillType());
+                    afterId = edge.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            fresh.computeAll();
+
+            matrix = fresh;
+            replayMissed(fresh);
+            log.info("Skill co-occurrence built: {} skills, {} users", fresh.skillCount(), fresh.userCount());
+        } finally {
+            rebuilding = false;
+            rebuildLock.unlock();
+        }
+        replayMissed(matrix);
+    }
+
+    /**
+     * Edge updates are idempotent, so replaying a change the rebuild already
+     * read from the database leaves the counts unchanged.
+     */
+    private void replayMissed(CooccurrenceMatrix target) {
+        UserSkillChangedEvent event;
+        while ((event = missedDuringRebuild.poll()) != null) {
+            apply(target, event);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSkillChanged(UserSkillChangedEvent event) {
+        if (event.getChange() == UserSkillChangedEvent.Change.UPDATED) {
+            return;
+        }
+        // Queued before reading the matrix, so a change that misses the swap is replayed
+        if (rebuilding) {
+            missedDuringRebuild.add(event);
+        }
+        apply(matrix, event);
+    }
+
+    private static void apply(CooccurrenceMatrix target, UserSkillChangedEvent event) {
+        if (event.getChange() == UserSkillChangedEvent.Change.REMOVED) {
+            target.removeEdge(event.getUserId(), event.getSkillId(), event.getSkillType());
+        } else {
+            target.addEdge(event.getUserId(), event.getSkillId(), event.getSkillType());
+        }
+    }
+
+    public List<RelatedSkillDto> getRelatedSkills(Long skillId, int limit) {
+        return toDtos(matrix.related(skillId, boundedLimit(limit)));
+    }
+
+    public List<RelatedSkillDto> getRecommendedSkills(Long userId, int limit) {
+        return toDtos(matrix.recommend(userId, boundedLimit(limit)));
+    }
+
+    private int boundedLimit(int limit) {
+        return Math.max(1, Math.min(limit, topK));
+    }
+
+    private List<RelatedSkillDto> toDtos(List<CooccurrenceMatrix.Scored> scored) {
+        return scored.stream()
+                .map(this::toDto)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private RelatedSkillDto toDto(CooccurrenceMatrix.Scored scored) {
+        // Names come from the search index, which only holds active skills
+        SkillSuggestionDto skill = searchIndexService.describeSkill(scored.getSkillId());
+        if (skill == null) {
+            return null;
+        }
+        return new RelatedSkillDto(skill.getId(), skill.getName(), skill.getCategory(), scored.getCount());
+    }
+}
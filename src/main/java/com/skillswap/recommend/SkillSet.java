@@ -0,0 +1,46 @@
+package com.skillswap.recommend;
+
+import java.util.Arrays;
+
+/**
+ * Small unordered set of skill slots held by one user.
+ */
+final class SkillSet {
+
+    private int[] skills = new int[2];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return skills[index];
+    }
+
+    boolean contains(int skill) {
+        for (int i = 0; i < size; i++) {
+            if (skills[i] == skill) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void append(int skill) {
+        if (size == skills.length) {
+            skills = Arrays.copyOf(skills, size * 2);
+        }
+        skills[size++] = skill;
+    }
+
+    boolean remove(int skill) {
+        for (int i = 0; i < size; i++) {
+            if (skills[i] == skill) {
+                skills[i] = skills[--size];
+                return true;
+            }
+        }
+        return false;
+    }
+}
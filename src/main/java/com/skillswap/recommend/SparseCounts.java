@@ -0,0 +1,118 @@
+package com.skillswap.recommend;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from skill slot to an int count: one sparse row of the
+ * co-occurrence matrix. A count that drops to zero is deleted on the spot, and
+ * the table shrinks once it is mostly empty, so a row's memory follows its
+ * live entries however much the counts churn.
+ */
+final class SparseCounts {
+
+    private static final int EMPTY = -1;
+    private static final int MIN_CAPACITY = 4;
+
+    private int[] keys;
+    private int[] counts;
+    private int size;
+    private int mask;
+
+    SparseCounts(int expected) {
+        allocate(capacityFor(expected));
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    int keyAt(int index) {
+        return keys[index];
+    }
+
+    int countAt(int index) {
+        return counts[index];
+    }
+
+    void add(int key, int delta) {
+        int index = mix(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                counts[index] += delta;
+                if (counts[index] == 0) {
+                    removeAt(index);
+                }
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        if (delta == 0) {
+            return;
+        }
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+            add(key, delta);
+            return;
+        }
+        keys[index] = key;
+        counts[index] = delta;
+        size++;
+    }
+
+    /**
+     * Deletes the entry at {@code index}, shifting back later entries of its
+     * probe run so that every remaining key stays reachable from its home slot.
+     */
+    private void removeAt(int index) {
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+            // The entry may fill the hole unless its home lies between the hole and itself
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                counts[hole] = counts[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        counts[hole] = 0;
+        size--;
+        if (keys.length > MIN_CAPACITY && size * 8 <= keys.length) {
+            rehash(capacityFor(size));
+        }
+    }
+
+    private void grow() {
+        rehash(keys.length * 2);
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldCounts = counts;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                add(oldKeys[i], oldCounts[i]);
+            }
+        }
+    }
+
+    private static int capacityFor(int expected) {
+        return Integer.highestOneBit(Math.max(MIN_CAPACITY, expected * 2) - 1) << 1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        counts = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,51 @@
+package com.skillswap.repository;
+
+import com.skillswap.entity.Conversation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+
+       // Serializes concurrent messages in one conversation so unread counts are not lost
+       @Lock(LockModeType.PESSIMISTIC_WRITE)
+       @Query("SELECT c FROM Conversation c WHERE c.pairKey = :pairKey")
+       Optional<Conversation> findByPairKeyForUpdate(@Param("pairKey") String pairKey);
+
+       // In id order, so callers locking overlapping sets cannot deadlock
+       @Lock(LockModeType.PESSIMISTIC_WRITE)
+       @Query("SELECT c FROM Conversation c WHERE c.pairKey IN :pairKeys ORDER BY c.id")
+       List<Conversation> findByPairKeysForUpdate(@Param("pairKeys") Collection<String> pairKeys);
+
+       @Lock(LockModeType.PESSIMISTIC_WRITE)
+       @Query("SELECT c FROM Conversation c WHERE c.id = :id")
+       Optional<Conversation> findByIdForUpdate(@Param("id") Long id);
+
+       @Query("SELECT c FROM Conversation c JOIN FETCH c.userLow JOIN FETCH c.userHigh WHERE c.pairKey = :pairKey")
+       Optional<Conversation> findByPairKey(@Param("pairKey") String pairKey);
+
+       @Query("SELECT c FROM Conversation c WHERE c.pairKey IN :pairKeys")
+       List<Conversation> findByPairKeyIn(@Param("pairKeys") Collection<String> pairKeys);
+
+       @Query("SELECT c FROM Conversation c JOIN FETCH c.userLow JOIN FETCH c.userHigh " +
+                     "WHERE c.userLow.id = :userId OR c.userHigh.id = :userId " +
+                     "ORDER BY c.lastMessageAt DESC, c.id DESC")
+       List<Conversation> findRecentByUserId(@Param("userId") Long userId, Pageable pageable);
+
+       @Query("SELECT c FROM Conversation c JOIN FETCH c.userLow JOIN FETCH c.userHigh " +
+                     "WHERE (c.userLow.id = :userId OR c.userHigh.id = :userId) AND " +
+                     "(c.lastMessageAt < :beforeAt OR (c.lastMessageAt = :beforeAt AND c.id < :beforeId)) " +
+                     "ORDER BY c.lastMessageAt DESC, c.id DESC")
+       List<Conversation> findByUserIdBefore(@Param("userId") Long userId, @Param("beforeAt") LocalDateTime beforeAt,
+                     @Param("beforeId") Long beforeId, Pageable pageable);
+}
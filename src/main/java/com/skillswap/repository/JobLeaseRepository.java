@@ -0,0 +1,32 @@
+package com.skillswap.repository;
+
+import com.skillswap.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+       // Renews the owner's lease, or takes over one that has expired
+       @Modifying
+       @Query("UPDATE JobLease l SET l.owner = :owner, l.expiresAt = :expiresAt " +
+                     "WHERE l.name = :name AND (l.owner = :owner OR l.expiresAt < :now)")
+       int takeOver(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now,
+                     @Param("expiresAt") LocalDateTime expiresAt);
+
+       // Native so that a concurrent first insert fails on the key instead of being merged into
+       @Modifying
+       @Query(value = "INSERT INTO job_leases (name, owner, expires_at) VALUES (:name, :owner, :expiresAt)",
+                     nativeQuery = true)
+       int insert(@Param("name") String name, @Param("owner") String owner,
+                     @Param("expiresAt") LocalDateTime expiresAt);
+
+       @Modifying
+       @Query("UPDATE JobLease l SET l.expiresAt = :now WHERE l.name = :name AND l.owner = :owner")
+       int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,58 @@
+package com.skillswap.repository;
+
+import com.skillswap.entity.MessageArchiveSegment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MessageArchiveSegmentRepository extends JpaRepository<MessageArchiveSegment, Long> {
+
+       @Query("SELECT s FROM MessageArchiveSegment s WHERE s.conversation.id = :conversationId " +
+                     "ORDER BY s.firstCreatedAt DESC, s.firstMessageId DESC")
+       List<MessageArchiveSegment> findLatestByConversationId(@Param("conversationId") Long conversationId,
+                     Pageable pageable);
+
+       // Segments holding at least one message older than the given position, newest first
+       @Query("SELECT s FROM MessageArchiveSegment s WHERE s.conversation.id = :conversationId AND " +
+                     "(s.firstCreatedAt < :beforeCreatedAt OR " +
+                     "(s.firstCreatedAt = :beforeCreatedAt AND s.firstMessageId < :beforeId)) " +
+                     "ORDER BY s.firstCreatedAt DESC, s.firstMessageId DESC")
+       List<MessageArchiveSegment> findByConversationIdBefore(@Param("conversationId") Long conversationId,
+                     @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt, @Param("beforeId") Long beforeId,
+                     Pageable pageable);
+
+       List<MessageArchiveSegment> findByConversationIdOrderByFirstCreatedAtAscFirstMessageIdAsc(Long conversationId);
+
+       // Segments of the conversation holding messages the user has not read
+       @Query("SELECT s FROM MessageArchiveSegment s WHERE s.conversation.id = :conversationId AND " +
+                     "((s.conversation.userLow.id = :userId AND s.unreadLow > 0) OR " +
+                     "(s.conversation.userHigh.id = :userId AND s.unreadHigh > 0)) " +
+                     "ORDER BY s.firstCreatedAt ASC, s.firstMessageId ASC")
+       List<MessageArchiveSegment> findUnreadByConversationIdAndUserId(@Param("conversationId") Long conversationId,
+                     @Param("userId") Long userId);
+
+       @Query("SELECT s FROM MessageArchiveSegment s JOIN FETCH s.conversation c JOIN FETCH c.userLow " +
+                     "JOIN FETCH c.userHigh WHERE (c.userLow.id = :userId AND s.unreadLow > 0) OR " +
+                     "(c.userHigh.id = :userId AND s.unreadHigh > 0) " +
+                     "ORDER BY s.firstCreatedAt ASC, s.firstMessageId ASC")
+       List<MessageArchiveSegment> findUnreadByUserId(@Param("userId") Long userId);
+
+       @Query("SELECT DISTINCT s.conversation.id FROM MessageArchiveSegment s WHERE " +
+                     "(s.conversation.userLow.id = :userId AND s.unreadLow > 0) OR " +
+                     "(s.conversation.userHigh.id = :userId AND s.unreadHigh > 0) " +
+                     "ORDER BY s.conversation.id")
+       List<Long> findConversationIdsWithUnreadFor(@Param("userId") Long userId);
+
+       // Conversations after the given id with at least two segments small enough to be worth merging
+       @Query("SELECT s.conversation.id FROM MessageArchiveSegment s WHERE s.messageCount < :smallerThan AND " +
+                     "s.conversation.id > :afterId GROUP BY s.conversation.id HAVING COUNT(s) > 1 " +
+                     "ORDER BY s.conversation.id")
+       List<Long> findConversationIdsToCompact(@Param("smallerThan") int smallerThan, @Param("afterId") Long afterId,
+                     Pageable pageable);
+}
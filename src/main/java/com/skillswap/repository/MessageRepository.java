@@ -1,11 +1,15 @@
 package com.skillswap.repository;
 
 import com.skillswap.entity.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -18,15 +22,79 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
        @Query("SELECT m FROM Message m WHERE m.sender.id = :userId OR m.receiver.id = :userId ORDER BY m.createdAt DESC")
        List<Message> findByUserId(@Param("userId") Long userId);
 
+       @Query("SELECT m FROM Message m WHERE m.sender.id = :userId OR m.receiver.id = :userId " +
+                     "ORDER BY m.createdAt DESC, m.id DESC")
+       List<Message> findRecentByUserId(@Param("userId") Long userId, Pageable pageable);
+
+       @Query("SELECT m FROM Message m WHERE (m.sender.id = :userId OR m.receiver.id = :userId) AND " +
+                     "(m.createdAt < :beforeCreatedAt OR (m.createdAt = :beforeCreatedAt AND m.id < :beforeId)) " +
+                     "ORDER BY m.createdAt DESC, m.id DESC")
+       List<Message> findByUserIdBefore(@Param("userId") Long userId,
+                     @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt, @Param("beforeId") Long beforeId,
+                     Pageable pageable);
+
        @Query("SELECT m FROM Message m WHERE " +
                      "(m.sender.id = :user1Id AND m.receiver.id = :user2Id) OR " +
                      "(m.sender.id = :user2Id AND m.receiver.id = :user1Id) " +
                      "ORDER BY m.createdAt ASC")
        List<Message> findConversationBetweenUsers(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id);
 
+       @Query("SELECT m FROM Message m WHERE " +
+                     "((m.sender.id = :user1Id AND m.receiver.id = :user2Id) OR " +
+                     "(m.sender.id = :user2Id AND m.receiver.id = :user1Id)) " +
+                     "ORDER BY m.createdAt DESC, m.id DESC")
+       List<Message> findRecentBetweenUsers(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id,
+                     Pageable pageable);
+
+       @Query("SELECT m FROM Message m WHERE " +
+                     "((m.sender.id = :user1Id AND m.receiver.id = :user2Id) OR " +
+                     "(m.sender.id = :user2Id AND m.receiver.id = :user1Id)) AND " +
+                     "(m.createdAt < :beforeCreatedAt OR (m.createdAt = :beforeCreatedAt AND m.id < :beforeId)) " +
+                     "ORDER BY m.createdAt DESC, m.id DESC")
+       List<Message> findBetweenUsersBefore(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id,
+                     @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt, @Param("beforeId") Long beforeId,
+                     Pageable pageable);
+
+       /**
+        * Oldest messages created before the cutoff that can be archived: those
+        * with no unread message at or before them in their conversation, so
+        * each conversation only ever archives a read prefix of its history.
+        */
+       @Query("SELECT m FROM Message m JOIN FETCH m.sender JOIN FETCH m.receiver WHERE m.createdAt < :cutoff " +
+                     "ORDER BY m.createdAt ASC, m.id ASC")
+       List<Message> findArchivable(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+       // Read from the database rather than the persistence context, for rows loaded before a lock was taken
+       @Query("SELECT m.id AS id, m.isRead AS isRead FROM Message m WHERE m.id IN :ids")
+       List<ReadState> findReadStates(@Param("ids") Collection<Long> ids);
+
        Long countByReceiverIdAndIsReadFalse(Long receiverId);
 
-       @Query("SELECT DISTINCT CASE WHEN m.sender.id = :userId THEN m.receiver ELSE m.sender END " +
-                     "FROM Message m WHERE m.sender.id = :userId OR m.receiver.id = :userId")
-       List<Object> findConversationPartnersForUser(@Param("userId") Long userId);
+       // One statement, so a batch being archived is counted in exactly one of the two tiers
+       @Query(value = "SELECT (SELECT COUNT(*) FROM messages WHERE receiver_id = :userId AND is_read = false) + " +
+                     "(SELECT COALESCE(SUM(CASE WHEN c.user_low_id = :userId THEN s.unread_low ELSE s.unread_high END), 0) " +
+                     "FROM message_archive_segments s JOIN conversations c ON c.id = s.conversation_id " +
+                     "WHERE c.user_low_id = :userId OR c.user_high_id = :userId)", nativeQuery = true)
+       long countUnreadIncludingArchived(@Param("userId") Long userId);
+
+       // One set-based statement however long the conversation is
+       @Modifying
+       @Query("UPDATE Message m SET m.isRead = true " +
+                     "WHERE m.receiver.id = :receiverId AND m.sender.id = :senderId AND m.isRead = false")
+       int markReadFromSender(@Param("receiverId") Long receiverId, @Param("senderId") Long senderId);
+
+       @Modifying
+       @Query("UPDATE Message m SET m.isRead = true " +
+                     "WHERE m.id = :id AND m.receiver.id = :receiverId AND m.isRead = false")
+       int markReadIfUnread(@Param("id") Long id, @Param("receiverId") Long receiverId);
+
+       @Modifying
+       @Query("DELETE FROM Message m WHERE m.id IN :ids")
+       int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+       interface ReadState {
+              Long getId();
+
+              Boolean getIsRead();
+       }
 }
@@ -7,7 +7,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SkillExchangeRepository extends JpaRepository<SkillExchange, Long> {
@@ -24,6 +27,23 @@ public interface SkillExchangeRepository extends JpaRepository<SkillExchange, Lo
 
        List<SkillExchange> findByProviderIdAndStatus(Long providerId, ExchangeStatus status);
 
+       @Query("SELECT se FROM SkillExchange se JOIN FETCH se.requester JOIN FETCH se.provider " +
+                     "JOIN FETCH se.requestedSkill JOIN FETCH se.offeredSkill WHERE se.id = :id")
+       Optional<SkillExchange> findWithDetailsById(@Param("id") Long id);
+
+       @Query("SELECT se FROM SkillExchange se JOIN FETCH se.requester JOIN FETCH se.provider " +
+                     "JOIN FETCH se.requestedSkill JOIN FETCH se.offeredSkill " +
+                     "WHERE se.requester.id = :userId OR se.provider.id = :userId " +
+                     "ORDER BY se.createdAt DESC, se.id DESC")
+       List<SkillExchange> findWithDetailsByUserId(@Param("userId") Long userId);
+
+       @Query("SELECT se FROM SkillExchange se JOIN FETCH se.requester JOIN FETCH se.provider " +
+                     "JOIN FETCH se.requestedSkill JOIN FETCH se.offeredSkill " +
+                     "WHERE (se.requester.id = :userId OR se.provider.id = :userId) AND se.status = :status " +
+                     "ORDER BY se.createdAt DESC, se.id DESC")
+       List<SkillExchange> findWithDetailsByUserIdAndStatus(@Param("userId") Long userId,
+                     @Param("status") ExchangeStatus status);
+
        @Query("SELECT se FROM SkillExchange se WHERE " +
                      "(se.requester.id = :userId OR se.provider.id = :userId) AND " +
                      "se.status = :status")
@@ -33,14 +53,40 @@ public interface SkillExchangeRepository extends JpaRepository<SkillExchange, Lo
                      "se.requester.id = :userId AND se.status IN ('PENDING', 'ACCEPTED', 'IN_PROGRESS')")
        List<SkillExchange> findActiveExchangesForUser(@Param("userId") Long userId);
 
-       @Query("SELECT COUNT(se) FROM SkillExchange se WHERE " +
-                     "(se.requester.id = :userId OR se.provider.id = :userId) AND " +
-                     "se.status = 'COMPLETED'")
-       Long countCompletedExchangesForUser(@Param("userId") Long userId);
+       // Either side of the exchange, with everything convertToDto reads fetched in the same query
+       @Query("SELECT se FROM SkillExchange se JOIN FETCH se.requester JOIN FETCH se.provider " +
+                     "JOIN FETCH se.requestedSkill JOIN FETCH se.offeredSkill " +
+                     "WHERE (se.requester.id = :userId OR se.provider.id = :userId) " +
+                     "AND se.status IN ('PENDING', 'ACCEPTED', 'IN_PROGRESS') " +
+                     "ORDER BY se.createdAt DESC, se.id DESC")
+       List<SkillExchange> findActiveWithDetailsByUserId(@Param("userId") Long userId);
+
+       @Query("SELECT se.requester.id AS requesterId, se.provider.id AS providerId, se.status AS status, " +
+                     "se.requesterRating AS requesterRating, se.providerRating AS providerRating, " +
+                     "se.completedDate AS completedDate, se.createdAt AS createdAt FROM SkillExchange se " +
+                     "WHERE se.status = 'COMPLETED' OR se.requesterRating IS NOT NULL OR se.providerRating IS NOT NULL")
+       List<ReputationSource> findReputationSources();
+
+       @Query("SELECT se.requester.id AS requesterId, se.provider.id AS providerId, se.status AS status, " +
+                     "se.requesterRating AS requesterRating, se.providerRating AS providerRating, " +
+                     "se.completedDate AS completedDate, se.createdAt AS createdAt FROM SkillExchange se " +
+                     "WHERE (se.requester.id = :userId OR se.provider.id = :userId) AND " +
+                     "(se.status = 'COMPLETED' OR se.requesterRating IS NOT NULL OR se.providerRating IS NOT NULL)")
+       List<ReputationSource> findReputationSourcesByUserId(@Param("userId") Long userId);
+
+       interface ReputationSource {
+              Long getRequesterId();
+
+              Long getProviderId();
+
+              ExchangeStatus getStatus();
+
+              Integer getRequesterRating();
+
+              Integer getProviderRating();
 
-       @Query("SELECT AVG(se.requesterRating) FROM SkillExchange se WHERE se.provider.id = :userId AND se.requesterRating IS NOT NULL")
-       Double getAverageRatingAsProvider(@Param("userId") Long userId);
+              LocalDateTime getCompletedDate();
 
-       @Query("SELECT AVG(se.providerRating) FROM SkillExchange se WHERE se.requester.id = :userId AND se.providerRating IS NOT NULL")
-       Double getAverageRatingAsRequester(@Param("userId") Long userId);
+              LocalDateTime getCreatedAt();
+       }
 }
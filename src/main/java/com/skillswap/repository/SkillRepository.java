@@ -1,6 +1,7 @@
 package com.skillswap.repository;
 
 import com.skillswap.entity.Skill;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,17 +17,15 @@ public interface SkillRepository extends JpaRepository<Skill, Long> {
 
        List<Skill> findByCategory(String category);
 
+       List<Skill> findByCategoryAndIdGreaterThanOrderByIdAsc(String category, Long afterId, Pageable pageable);
+
        List<Skill> findByIsActiveTrue();
 
-       @Query("SELECT s FROM Skill s WHERE " +
-                     "LOWER(s.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-                     "LOWER(s.description) LIKE LOWER(CONCAT('%', :query, '%'))")
-       List<Skill> searchSkills(@Param("query") String query);
+       List<Skill> findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
 
        @Query("SELECT DISTINCT s.category FROM Skill s WHERE s.isActive = true ORDER BY s.category")
        List<String> findDistinctCategories();
 
-       @Query("SELECT s FROM Skill s WHERE s.isActive = true " +
-                     "ORDER BY (SELECT COUNT(us) FROM UserSkill us WHERE us.skill = s) DESC")
-       List<Skill> findMostPopularSkills();
+       @Query("SELECT s.id FROM Skill s")
+       List<Long> findAllIds();
 }
@@ -0,0 +1,38 @@
+package com.skillswap.repository;
+
+import com.skillswap.entity.Skill;
+import com.skillswap.entity.SkillStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SkillStatsRepository extends JpaRepository<SkillStats, Long> {
+
+       // Counters are adjusted in the database rather than read-modify-write so that
+       // concurrent writers on the same skill never lose an increment.
+       @Modifying
+       @Query("UPDATE SkillStats st SET " +
+                     "st.offerCount = st.offerCount + :offerDelta, " +
+                     "st.seekCount = st.seekCount + :seekDelta, " +
+                     "st.availableProviderCount = st.availableProviderCount + :availableDelta " +
+                     "WHERE st.skillId = :skillId")
+       int applyDelta(@Param("skillId") Long skillId, @Param("offerDelta") long offerDelta,
+                     @Param("seekDelta") long seekDelta, @Param("availableDelta") long availableDelta);
+
+       @Lock(LockModeType.PESSIMISTIC_WRITE)
+       @Query("SELECT st FROM SkillStats st WHERE st.skillId = :skillId")
+       Optional<SkillStats> findByIdForUpdate(@Param("skillId") Long skillId);
+
+       @Query("SELECT s FROM SkillStats st JOIN Skill s ON s.id = st.skillId WHERE s.isActive = true " +
+                     "ORDER BY (st.offerCount + st.seekCount) DESC, s.id ASC")
+       List<Skill> findMostPopularSkills(Pageable pageable);
+}
@@ -0,0 +1,34 @@
+package com.skillswap.repository;
+
+import com.skillswap.entity.SwapProposal;
+import com.skillswap.entity.SwapProposal.ProposalStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SwapProposalRepository extends JpaRepository<SwapProposal, Long> {
+
+       @Query("SELECT p.cycleKey FROM SwapProposal p WHERE p.cycleKey IN :cycleKeys")
+       List<String> findExistingCycleKeys(@Param("cycleKeys") Collection<String> cycleKeys);
+
+       // Serializes concurrent accepts so exactly one of them sees the last acceptance
+       @Lock(LockModeType.PESSIMISTIC_WRITE)
+       @Query("SELECT p FROM SwapProposal p WHERE p.id = :id")
+       Optional<SwapProposal> findByIdForUpdate(@Param("id") Long id);
+
+       @Query("SELECT DISTINCT p FROM SwapProposal p " +
+                     "JOIN FETCH p.legs l JOIN FETCH l.teacher JOIN FETCH l.learner JOIN FETCH l.skill " +
+                     "WHERE p.status = :status AND p.id IN " +
+                     "(SELECT leg.proposal.id FROM SwapProposalLeg leg WHERE leg.teacher.id = :userId) " +
+                     "ORDER BY p.id DESC")
+       List<SwapProposal> findByParticipantAndStatus(@Param("userId") Long userId,
+                     @Param("status") ProposalStatus status);
+}
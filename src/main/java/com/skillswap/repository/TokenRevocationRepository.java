@@ -0,0 +1,26 @@
+package com.skillswap.repository;
+
+import com.skillswap.entity.TokenRevocation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    List<TokenRevocation> findByIdGreaterThanAndExpiresAtAfterOrderByIdAsc(Long afterId, LocalDateTime now,
+            Pageable pageable);
+
+    List<TokenRevocation> findByCreatedAtGreaterThanEqualAndIdGreaterThanAndExpiresAtAfterOrderByIdAsc(
+            LocalDateTime createdSince, Long afterId, LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
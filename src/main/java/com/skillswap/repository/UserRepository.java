@@ -1,11 +1,15 @@
 package com.skillswap.repository;
 
 import com.skillswap.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +18,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id IN :ids ORDER BY u.id")
+    List<User> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
     Optional<User> findByEmail(String email);
 
     boolean existsByUsername(String username);
@@ -22,11 +30,28 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findByIsActiveTrue();
 
+    @Query("SELECT u.id FROM User u")
+    List<Long> findAllIds();
+
     List<User> findByLocationContaining(String location);
 
-    @Query("SELECT u FROM User u WHERE " +
-            "LOWER(u.username) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-            "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-            "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<User> searchUsers(@Param("query") String query);
+    List<User> findByLocationContainingAndIdGreaterThanOrderByIdAsc(String location, Long afterId, Pageable pageable);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @Query("SELECT u.id AS id, u.latitude AS latitude, u.longitude AS longitude FROM User u " +
+           "WHERE u.latitude IS NOT NULL AND u.longitude IS NOT NULL AND u.id > :afterId ORDER BY u.id")
+    List<UserCoordinates> findCoordinatesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE u.latitude IS NULL AND u.location IS NOT NULL " +
+           "AND u.id > :afterId ORDER BY u.id")
+    List<User> findUngeocodedAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    interface UserCoordinates {
+        Long getId();
+
+        Double getLatitude();
+
+        Double getLongitude();
+    }
 }
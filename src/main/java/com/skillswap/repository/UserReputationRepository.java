@@ -0,0 +1,48 @@
+package com.skillswap.repository;
+
+import com.skillswap.entity.UserReputation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserReputationRepository extends JpaRepository<UserReputation, Long> {
+
+       @Lock(LockModeType.PESSIMISTIC_WRITE)
+       @Query("SELECT r FROM UserReputation r WHERE r.userId = :userId")
+       Optional<UserReputation> findByIdForUpdate(@Param("userId") Long userId);
+
+       // Totals are adjusted in the database rather than read-modify-write so that
+       // concurrent exchanges of the same user never lose an update.
+       // Native because Hibernate 6.3 renders a double parameter in JPQL update arithmetic
+       // as an H2 cast it cannot parse
+       @Modifying
+       @Query(value = "UPDATE user_reputation SET " +
+                     "provider_rating_sum = provider_rating_sum + :rating, " +
+                     "provider_rating_count = provider_rating_count + 1, " +
+                     "provider_decayed_sum = provider_decayed_sum + :weightedRating, " +
+                     "provider_decayed_weight = provider_decayed_weight + :weight " +
+                     "WHERE user_id = :userId", nativeQuery = true)
+       int addProviderRating(@Param("userId") Long userId, @Param("rating") long rating,
+                     @Param("weightedRating") double weightedRating, @Param("weight") double weight);
+
+       @Modifying
+       @Query("UPDATE UserReputation r SET " +
+                     "r.requesterRatingSum = r.requesterRatingSum + :rating, " +
+                     "r.requesterRatingCount = r.requesterRatingCount + 1 " +
+                     "WHERE r.userId = :userId")
+       int addRequesterRating(@Param("userId") Long userId, @Param("rating") long rating);
+
+       @Modifying
+       @Query(value = "UPDATE user_reputation SET " +
+                     "completed_count = completed_count + 1, " +
+                     "completed_decayed_weight = completed_decayed_weight + :weight " +
+                     "WHERE user_id = :userId", nativeQuery = true)
+       int addCompleted(@Param("userId") Long userId, @Param("weight") double weight);
+}
@@ -1,38 +1,187 @@
 package com.skillswap.repository;
 
+import com.skillswap.dto.UserSkillDto;
 import com.skillswap.entity.UserSkill;
 import com.skillswap.entity.UserSkill.SkillType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface UserSkillRepository extends JpaRepository<UserSkill, Long> {
 
-    List<UserSkill> findByUserId(Long userId);
+    // List queries select straight into UserSkillDto, so no entity or lazy association is loaded
+    // just to be flattened; the skill's name and category come from the join
+    String DTO_SELECT = "SELECT new com.skillswap.dto.UserSkillDto(us.id, us.user.id, s.id, s.name, s.category, " +
+            "us.skillType, us.proficiencyLevel, us.description, us.isAvailable) FROM UserSkill us JOIN us.skill s ";
 
-    List<UserSkill> findByUserIdAndSkillType(Long userId, SkillType skillType);
+    @Query(DTO_SELECT + "WHERE us.user.id = :userId ORDER BY us.id")
+    List<UserSkillDto> findByUserId(@Param("userId") Long userId);
 
-    List<UserSkill> findBySkillId(Long skillId);
+    @Query(DTO_SELECT + "WHERE us.user.id = :userId AND us.id > :afterId ORDER BY us.id")
+    List<UserSkillDto> findByUserIdAfter(@Param("userId") Long userId, @Param("afterId") Long afterId,
+            Pageable pageable);
 
-    @Query("SELECT us FROM UserSkill us WHERE us.skill.id = :skillId AND us.skillType = :skillType AND us.isAvailable = true")
-    List<UserSkill> findAvailableBySkillIdAndType(@Param("skillId") Long skillId,
+    @Query(DTO_SELECT + "WHERE us.user.id = :userId AND us.skillType = :skillType ORDER BY us.id")
+    List<UserSkillDto> findByUserIdAndSkillType(@Param("userId") Long userId,
             @Param("skillType") SkillType skillType);
 
+    @Query(DTO_SELECT + "WHERE us.user.id = :userId AND us.skillType = :skillType AND us.id > :afterId " +
+            "ORDER BY us.id")
+    List<UserSkillDto> findByUserIdAndSkillTypeAfter(@Param("userId") Long userId,
+            @Param("skillType") SkillType skillType, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE s.id = :skillId ORDER BY us.id")
+    List<UserSkillDto> findBySkillId(@Param("skillId") Long skillId);
+
+    @Query(DTO_SELECT + "WHERE s.id = :skillId AND us.skillType = :skillType AND us.isAvailable = true " +
+            "ORDER BY us.id")
+    List<UserSkillDto> findAvailableBySkillIdAndType(@Param("skillId") Long skillId,
+            @Param("skillType") SkillType skillType);
+
+    @Query(DTO_SELECT + "WHERE s.id = :skillId AND us.skillType = :skillType AND us.isAvailable = true " +
+            "AND us.id > :afterId ORDER BY us.id")
+    List<UserSkillDto> findAvailableBySkillIdAndTypeAfter(@Param("skillId") Long skillId,
+            @Param("skillType") SkillType skillType, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE s.id = :skillId AND us.skillType = :skillType AND us.isAvailable = true " +
+            "AND us.user.id IN :userIds")
+    List<UserSkillDto> findAvailableBySkillIdAndTypeAndUserIdIn(@Param("skillId") Long skillId,
+            @Param("skillType") SkillType skillType, @Param("userIds") Collection<Long> userIds);
+
     @Query("SELECT us FROM UserSkill us WHERE us.user.id = :userId AND us.skill.id = :skillId AND us.skillType = :skillType")
     UserSkill findByUserAndSkillAndType(@Param("userId") Long userId, @Param("skillId") Long skillId,
             @Param("skillType") SkillType skillType);
 
     Long countBySkillIdAndSkillType(Long skillId, SkillType skillType);
 
-    @Query("SELECT us FROM UserSkill us WHERE us.skill.category = :category AND us.skillType = :skillType")
-    List<UserSkill> findByCategoryAndType(@Param("category") String category, @Param("skillType") SkillType skillType);
+    // Locked in id order so concurrent acceptances of overlapping cycles cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT us FROM UserSkill us WHERE us.user.id IN :userIds AND us.skill.id IN :skillIds ORDER BY us.id")
+    List<UserSkill> findByUserIdInAndSkillIdInForUpdate(@Param("userIds") Collection<Long> userIds,
+            @Param("skillIds") Collection<Long> skillIds);
+
+    @Query("SELECT us.skill.id AS skillId, COUNT(us) AS userCount FROM UserSkill us " +
+            "WHERE us.skill.id IN :skillIds AND us.skillType = :skillType GROUP BY us.skill.id")
+    List<SkillUserCount> countBySkillIdsAndSkillType(@Param("skillIds") Collection<Long> skillIds,
+            @Param("skillType") SkillType skillType);
+
+    @Query("SELECT us.skill.id AS skillId, " +
+            "SUM(CASE WHEN us.skillType = :offer THEN 1 ELSE 0 END) AS offerCount, " +
+            "SUM(CASE WHEN us.skillType = :seek THEN 1 ELSE 0 END) AS seekCount, " +
+            "SUM(CASE WHEN us.skillType = :offer AND us.isAvailable = true THEN 1 ELSE 0 END) AS availableProviderCount " +
+            "FROM UserSkill us GROUP BY us.skill.id")
+    List<SkillTypeCounts> countGroupedBySkill(@Param("offer") SkillType offer, @Param("seek") SkillType seek);
+
+    @Query("SELECT us.skill.id AS skillId, " +
+            "SUM(CASE WHEN us.skillType = :offer THEN 1 ELSE 0 END) AS offerCount, " +
+            "SUM(CASE WHEN us.skillType = :seek THEN 1 ELSE 0 END) AS seekCount, " +
+            "SUM(CASE WHEN us.skillType = :offer AND us.isAvailable = true THEN 1 ELSE 0 END) AS availableProviderCount " +
+            "FROM UserSkill us WHERE us.skill.id = :skillId GROUP BY us.skill.id")
+    Optional<SkillTypeCounts> countForSkill(@Param("skillId") Long skillId, @Param("offer") SkillType offer,
+            @Param("seek") SkillType seek);
+
+    @Query(DTO_SELECT + "WHERE s.category = :category AND us.skillType = :skillType ORDER BY us.id")
+    List<UserSkillDto> findByCategoryAndType(@Param("category") String category,
+            @Param("skillType") SkillType skillType);
+
+    @Query(DTO_SELECT + "WHERE s.category = :category AND us.skillType = :skillType AND us.id > :afterId " +
+            "ORDER BY us.id")
+    List<UserSkillDto> findByCategoryAndTypeAfter(@Param("category") String category,
+            @Param("skillType") SkillType skillType, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE s.id IN :skillIds AND us.skillType = :skillType ORDER BY us.id")
+    List<UserSkillDto> findBySkillIdInAndSkillType(@Param("skillIds") Collection<Long> skillIds,
+            @Param("skillType") SkillType skillType);
+
+    @Query(DTO_SELECT + "WHERE s.id IN :skillIds AND us.skillType = :skillType AND us.id > :afterId " +
+            "ORDER BY us.id")
+    List<UserSkillDto> findBySkillIdInAndSkillTypeAfter(@Param("skillIds") Collection<Long> skillIds,
+            @Param("skillType") SkillType skillType, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT us.id AS id, us.user.id AS userId, us.skill.id AS skillId, us.skillType AS skillType, " +
+            "us.proficiencyLevel AS proficiencyLevel, us.isAvailable AS isAvailable " +
+            "FROM UserSkill us WHERE us.id > :afterId ORDER BY us.id")
+    List<UserSkillEdge> findEdgesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Providers with the reputation totals they are ranked by; users without a reputation row yet
+    // come back with null totals
+    @Query("SELECT us.id AS id, us.user.id AS userId, us.skill.id AS skillId, " +
+            "us.proficiencyLevel AS proficiencyLevel, r.providerRatingSum AS ratingSum, " +
+            "r.providerRatingCount AS ratingCount, r.completedDecayedWeight AS completedDecayedWeight " +
+            "FROM UserSkill us LEFT JOIN UserReputation r ON r.userId = us.user.id " +
+            "WHERE us.skillType = :skillType AND us.isAvailable = true AND us.id > :afterId ORDER BY us.id")
+    List<RankedProviderSource> findRankedProvidersAfter(@Param("skillType") SkillType skillType,
+            @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT us.id AS id, us.user.id AS userId, us.skill.id AS skillId, " +
+            "us.proficiencyLevel AS proficiencyLevel, r.providerRatingSum AS ratingSum, " +
+            "r.providerRatingCount AS ratingCount, r.completedDecayedWeight AS completedDecayedWeight " +
+            "FROM UserSkill us LEFT JOIN UserReputation r ON r.userId = us.user.id " +
+            "WHERE us.skill.id = :skillId AND us.skillType = :skillType AND us.isAvailable = true " +
+            "AND us.id > :afterId ORDER BY us.id")
+    List<RankedProviderSource> findRankedProvidersBySkillIdAfter(@Param("skillId") Long skillId,
+            @Param("skillType") SkillType skillType, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT us.id AS id, us.user.id AS userId, us.skill.id AS skillId, " +
+            "us.proficiencyLevel AS proficiencyLevel, r.providerRatingSum AS ratingSum, " +
+            "r.providerRatingCount AS ratingCount, r.completedDecayedWeight AS completedDecayedWeight " +
+            "FROM UserSkill us LEFT JOIN UserReputation r ON r.userId = us.user.id " +
+            "WHERE us.user.id IN :userIds AND us.skillType = :skillType AND us.isAvailable = true")
+    List<RankedProviderSource> findRankedProvidersByUserIdIn(@Param("userIds") Collection<Long> userIds,
+            @Param("skillType") SkillType skillType);
+
+    interface SkillUserCount {
+        Long getSkillId();
+
+        Long getUserCount();
+    }
+
+    interface SkillTypeCounts {
+        Long getSkillId();
+
+        Long getOfferCount();
+
+        Long getSeekCount();
+
+        Long getAvailableProviderCount();
+    }
+
+    interface UserSkillEdge {
+        Long getId();
+
+        Long getUserId();
+
+        Long getSkillId();
+
+        SkillType getSkillType();
+
+        Integer getProficiencyLevel();
+
+        Boolean getIsAvailable();
+    }
+
+    interface RankedProviderSource {
+        Long getId();
+
+        Long getUserId();
+
+        Long getSkillId();
+
+        Integer getProficiencyLevel();
+
+        Long getRatingSum();
+
+        Long getRatingCount();
 
-    @Query("SELECT us FROM UserSkill us WHERE us.skillType = :skillType AND " +
-            "(LOWER(us.skill.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-            "LOWER(us.skill.description) LIKE LOWER(CONCAT('%', :query, '%')))")
-    List<UserSkill> searchByQueryAndType(@Param("query") String query, @Param("skillType") SkillType skillType);
+        Double getCompletedDecayedWeight();
+    }
 }
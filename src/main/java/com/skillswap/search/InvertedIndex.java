@@ -0,0 +1,244 @@
+package com.skillswap.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Thread-safe inverted index ranked with BM25. Term frequencies are
+ * field-weighted, and each document may carry a multiplicative boost.
+ * The last query token also matches as a prefix so results follow
+ * as-you-type input.
+ */
+public class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_MATCH_FACTOR = 0.8;
+    private static final int MAX_PREFIX_EXPANSIONS = 32;
+
+    public static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::getScore).reversed()
+            .thenComparingLong(Hit::getId);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Float>> documents = new HashMap<>();
+    private final Map<Long, Double> lengths = new HashMap<>();
+    private final Map<Long, Double> boosts = new HashMap<>();
+    private double totalLength;
+
+    public void index(long docId, Map<String, Float> termWeights) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(docId);
+            Map<String, Float> terms = new HashMap<>(termWeights);
+            double length = 0;
+            for (Map.Entry<String, Float> term : terms.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), key -> new HashMap<>()).put(docId, term.getValue());
+                length += term.getValue();
+            }
+            documents.put(docId, terms);
+            lengths.put(docId, length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long docId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(docId);
+            boosts.remove(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void setBoost(long docId, double boost) {
+        lock.writeLock().lock();
+        try {
+            boosts.put(docId, boost);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns every matching document, best first, ties broken by id.
+     */
+    public List<Hit> search(String query) {
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, Double> score : scoreUnlocked(query).entrySet()) {
+                hits.add(new Hit(score.getKey(), score.getValue()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(RANKING);
+        return hits;
+    }
+
+    public List<Hit> searchAfter(String query, Hit after, int count) {
+        return searchAfter(query, after, count, docId -> true);
+    }
+
+    /**
+     * The first {@code count} matching documents that {@code accept} lets
+     * through, ranked after {@code after} (from the top when null), best
+     * first. Only {@code count} hits are kept while scoring, so a deep page
+     * costs no more than the first one.
+     */
+    public List<Hit> searchAfter(String query, Hit after, int count, LongPredicate accept) {
+        // Worst kept hit on top, so it is the one a better hit replaces
+        PriorityQueue<Hit> best = new PriorityQueue<>(count + 1, RANKING.reversed());
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, Double> score : scoreUnlocked(query).entrySet()) {
+                if (!accept.test(score.getKey())) {
+                    continue;
+                }
+                Hit hit = new Hit(score.getKey(), score.getValue());
+                if (after != null && RANKING.compare(hit, after) <= 0) {
+                    continue;
+                }
+                if (best.size() < count) {
+                    best.add(hit);
+                } else if (count > 0 && RANKING.compare(hit, best.peek()) < 0) {
+                    best.poll();
+                    best.add(hit);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(RANKING);
+        return hits;
+    }
+
+    /**
+     * Whether any document matches the query at all.
+     */
+    public boolean matches(String query) {
+        List<String> tokens = TextAnalyzer.tokenize(query);
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                boolean found = i == tokens.size() - 1
+                        ? !postings.subMap(token, true, token + Character.MAX_VALUE, false).isEmpty()
+                        : postings.containsKey(token);
+                if (found) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Boosted BM25 score of every matching document; the caller holds the read lock.
+     */
+    private Map<Long, Double> scoreUnlocked(String query) {
+        List<String> tokens = TextAnalyzer.tokenize(query);
+        int docCount = documents.size();
+        Map<Long, Double> scores = new HashMap<>();
+        if (tokens.isEmpty() || docCount == 0) {
+            return scores;
+        }
+        double avgLength = totalLength / docCount;
+
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            boolean last = i == tokens.size() - 1;
+            if (last) {
+                int expansions = 0;
+                for (Map.Entry<String, Map<Long, Float>> term : postings
+                        .subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+                    double factor = term.getKey().equals(token) ? 1.0 : PREFIX_MATCH_FACTOR;
+                    accumulate(scores, term.getValue(), docCount, avgLength, factor);
+                    if (++expansions >= MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                }
+            } else {
+                Map<Long, Float> termPostings = postings.get(token);
+                if (termPostings != null) {
+                    accumulate(scores, termPostings, docCount, avgLength, 1.0);
+                }
+            }
+        }
+        scores.replaceAll((docId, score) -> score * boosts.getOrDefault(docId, 1.0));
+        return scores;
+    }
+
+    private void accumulate(Map<Long, Double> scores, Map<Long, Float> termPostings, int docCount,
+            double avgLength, double factor) {
+        int docFrequency = termPostings.size();
+        double idf = Math.log(1 + (docCount - docFrequency + 0.5) / (docFrequency + 0.5));
+        for (Map.Entry<Long, Float> posting : termPostings.entrySet()) {
+            double tf = posting.getValue();
+            double length = lengths.get(posting.getKey());
+            double norm = tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / avgLength));
+            scores.merge(posting.getKey(), factor * idf * norm, Double::sum);
+        }
+    }
+
+    private void removeUnlocked(long docId) {
+        Map<String, Float> terms = documents.remove(docId);
+        if (terms == null) {
+            return;
+        }
+        for (Map.Entry<String, Float> term : terms.entrySet()) {
+            Map<Long, Float> termPostings = postings.get(term.getKey());
+            if (termPostings != null) {
+                termPostings.remove(docId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term.getKey());
+                }
+            }
+        }
+        totalLength -= lengths.remove(docId);
+    }
+
+    public static class Hit {
+
+        private final long id;
+        private final double score;
+
+        public Hit(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
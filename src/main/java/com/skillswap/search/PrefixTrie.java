@@ -0,0 +1,184 @@
+package com.skillswap.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compact character trie for as-you-type completion. Children are kept in
+ * sorted parallel arrays rather than maps, and each document is reachable
+ * from the start of its full text and from the start of every later word,
+ * so "prog" completes "Java Programming".
+ */
+public class PrefixTrie {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<Long, List<String>> keysByDoc = new HashMap<>();
+
+    public void index(long docId, String text) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(docId);
+            List<String> keys = keys(text);
+            for (String key : keys) {
+                Node node = root;
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.childOrCreate(key.charAt(i));
+                }
+                node.addDoc(docId);
+            }
+            keysByDoc.put(docId, keys);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long docId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} document ids whose keys start with the
+     * prefix, in key order. Work is bounded by the prefix length plus the
+     * part of the subtree visited before the limit is reached.
+     */
+    public List<Long> complete(String prefix, int limit) {
+        String normalized = String.join(" ", TextAnalyzer.tokenize(prefix));
+        if (normalized.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < normalized.length() && node != null; i++) {
+                node = node.child(normalized.charAt(i));
+            }
+            Set<Long> results = new LinkedHashSet<>();
+            if (node != null) {
+                collect(node, results, limit);
+            }
+            return new ArrayList<>(results);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collect(Node node, Set<Long> results, int limit) {
+        for (int i = 0; i < node.docCount && results.size() < limit; i++) {
+            results.add(node.docs[i]);
+        }
+        for (int i = 0; i < node.childCount && results.size() < limit; i++) {
+            collect(node.children[i], results, limit);
+        }
+    }
+
+    private void removeUnlocked(long docId) {
+        List<String> keys = keysByDoc.remove(docId);
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            remove(root, key, 0, docId);
+        }
+    }
+
+    private boolean remove(Node node, String key, int depth, long docId) {
+        if (depth == key.length()) {
+            node.removeDoc(docId);
+        } else {
+            Node child = node.child(key.charAt(depth));
+            if (child != null && remove(child, key, depth + 1, docId)) {
+                node.removeChild(key.charAt(depth));
+            }
+        }
+        return node.docCount == 0 && node.childCount == 0;
+    }
+
+    private static List<String> keys(String text) {
+        List<String> tokens = TextAnalyzer.tokenize(text);
+        List<String> keys = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            keys.add(String.join(" ", tokens.subList(i, tokens.size())));
+        }
+        return keys;
+    }
+
+    private static final class Node {
+
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private int childCount;
+        private long[] docs = new long[0];
+        private int docCount;
+
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            if (childCount == labels.length) {
+                int capacity = Math.max(2, childCount * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(labels, insertAt, labels, insertAt + 1, childCount - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, childCount - insertAt);
+            Node child = new Node();
+            labels[insertAt] = label;
+            children[insertAt] = child;
+            childCount++;
+            return child;
+        }
+
+        void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(labels, index + 1, labels, index, childCount - index - 1);
+            System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+
+        void addDoc(long docId) {
+            for (int i = 0; i < docCount; i++) {
+                if (docs[i] == docId) {
+                    return;
+                }
+            }
+            if (docCount == docs.length) {
+                docs = Arrays.copyOf(docs, Math.max(1, docCount * 2));
+            }
+            docs[docCount++] = docId;
+        }
+
+        void removeDoc(long docId) {
+            for (int i = 0; i < docCount; i++) {
+                if (docs[i] == docId) {
+                    docs[i] = docs[--docCount];
+                    return;
+                }
+            }
+        }
+    }
+}
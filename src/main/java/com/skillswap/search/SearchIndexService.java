@@ -0,0 +1,395 @@
+package com.skillswap.search;
+
+import com.skillswap.dto.SkillSuggestionDto;
+import com.skillswap.entity.Skill;
+import com.skillswap.entity.User;
+import com.skillswap.entity.UserSkill;
+import com.skillswap.event.UserSkillChangedEvent;
+import com.skillswap.pagination.Cursor;
+import com.skillswap.repository.SkillRepository;
+import com.skillswap.repository.UserRepository;
+import com.skillswap.repository.UserSkillRepository;
+import com.skillswap.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * Owns the in-memory full-text indexes over skills and users. Indexes are
+ * built at startup and kept current by the services that write the entities.
+ */
+@Service
+public class SearchIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexService.class);
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float USERNAME_WEIGHT = 2f;
+    private static final float PERSON_NAME_WEIGHT = 1f;
+
+    @Autowired
+    private SkillRepository skillRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSkillRepository userSkillRepository;
+
+    @Value("${skillswap.search.popularity-weight}")
+    private double popularityWeight;
+
+    @Value("${skillswap.search.min-trigram-similarity}")
+    private double minTrigramSimilarity;
+
+    private static final int STRIPES = 64;
+
+    // Offers per skill, each set from a count of the committed rows rather than a delta
+    private final Map<Long, Long> skillOfferCounts = new ConcurrentHashMap<>();
+
+    // Recounts of one skill are serialized so an older count never overwrites a newer one
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    private volatile Indexes indexes = new Indexes(0.3);
+
+    // Changes committed while a rebuild is loading; replayed onto the new indexes
+    private final Queue<Change> missedDuringRebuild = new ConcurrentLinkedQueue<>();
+    private final Set<Long> recountedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    // A lock rather than synchronized: the rebuild does JDBC I/O, which would pin a virtual thread
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public SearchIndexService() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        rebuilding = true;
+        try {
+            // Anything queued by now has committed, so the load below reads it
+            missedDuringRebuild.clear();
+            recountedDuringRebuild.clear();
+
+            Map<Long, Long> offerCounts = new HashMap<>();
+            userSkillRepository.countGroupedBySkill(UserSkill.SkillType.OFFER, UserSkill.SkillType.SEEK)
+                    .forEach(counts -> offerCounts.put(counts.getSkillId(), counts.getOfferCount()));
+
+            Indexes fresh = new Indexes(minTrigramSimilarity);
+            long afterId = 0L;
+            List<Skill> skillBatch;
+            do {
+                skillBatch = skillRepository.findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(
+                        afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (Skill skill : skillBatch) {
+                    fresh.putSkill(skill.getId(), skillTerms(skill), skill.getName(), toSuggestion(skill),
+                            popularityBoost(offerCounts.getOrDefault(skill.getId(), 0L)));
+                    afterId = skill.getId();
+                }
+            } while (skillBatch.size() == REBUILD_BATCH_SIZE);
+
+            afterId = 0L;
+            List<User> userBatch;
+            do {
+                userBatch = userRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (User user : userBatch) {
+                    fresh.users.index(user.getId(), userTerms(user));
+                    afterId = user.getId();
+                }
+            } while (userBatch.size() == REBUILD_BATCH_SIZE);
+
+            reconcileOfferCounts(offerCounts);
+            indexes = fresh;
+            replayMissed(fresh);
+            log.info("Search indexes built: {} skills, {} users", fresh.skills.size(), fresh.users.size());
+        } finally {
+            rebuilding = false;
+            rebuildLock.unlock();
+        }
+        replayMissed(indexes);
+    }
+
+    /**
+     * Updates the offer counts key by key rather than replacing the map, so
+     * a skill recounted after the load above keeps its newer count.
+     */
+    private void reconcileOfferCounts(Map<Long, Long> offerCounts) {
+        Set<Long> skillIds = new HashSet<>(offerCounts.keySet());
+        skillIds.addAll(skillOfferCounts.keySet());
+        for (Long skillId : skillIds) {
+            ReentrantLock stripe = stripeOf(skillId);
+            stripe.lock();
+            try {
+                if (recountedDuringRebuild.contains(skillId)) {
+                    continue;
+                }
+                Long offers = offerCounts.get(skillId);
+                if (offers != null) {
+                    skillOfferCounts.put(skillId, offers);
+                } else {
+                    skillOfferCounts.remove(skillId);
+                }
+            } finally {
+                stripe.unlock();
+            }
+        }
+    }
+
+    /**
+     * Every change carries the state its transaction committed, and a boost
+     * is read from the offer counts when it is applied, so replaying one the
+     * rebuild already read leaves the indexes as they are.
+     */
+    private void replayMissed(Indexes target) {
+        Change change;
+        while ((change = missedDuringRebuild.poll()) != null) {
+            change.applyTo(target);
+        }
+    }
+
+    private void apply(Change change) {
+        // Queued before reading the indexes, so a change that misses the swap is replayed
+        if (rebuilding) {
+            missedDuringRebuild.add(change);
+        }
+        change.applyTo(indexes);
+    }
+
+    public void indexSkill(Skill skill) {
+        long skillId = skill.getId();
+        boolean active = Boolean.TRUE.equals(skill.getIsActive());
+        Map<String, Float> terms = skillTerms(skill);
+        String name = skill.getName();
+        SkillSuggestionDto suggestion = toSuggestion(skill);
+        TransactionHooks.afterCommit(() -> apply(active
+                ? target -> target.putSkill(skillId, terms, name, suggestion, boostOf(skillId))
+                : target -> target.removeSkill(skillId)));
+    }
+
+    public void indexUser(User user) {
+        long userId = user.getId();
+        Map<String, Float> terms = userTerms(user);
+        TransactionHooks.afterCommit(() -> apply(target -> target.users.index(userId, terms)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSkillChanged(UserSkillChangedEvent event) {
+        if (event.getSkillType() != UserSkill.SkillType.OFFER
+                || event.getChange() == UserSkillChangedEvent.Change.UPDATED) {
+            return;
+        }
+        long skillId = event.getSkillId();
+        ReentrantLock stripe = stripeOf(skillId);
+        stripe.lock();
+        try {
+            // A recount rather than +1/-1, so replaying it or racing a rebuild cannot count an offer twice
+            skillOfferCounts.put(skillId,
+                    userSkillRepository.countBySkillIdAndSkillType(skillId, UserSkill.SkillType.OFFER));
+            if (rebuilding) {
+                recountedDuringRebuild.add(skillId);
+            }
+            apply(target -> target.skills.setBoost(skillId, boostOf(skillId)));
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    public List<InvertedIndex.Hit> searchSkills(String query) {
+        return indexes.skills.search(query);
+    }
+
+    /**
+     * Skill hits in the given category, or in any when it is null.
+     */
+    public List<InvertedIndex.Hit> searchSkills(String query, String category) {
+        return inCategory(indexes.skills.search(query), category);
+    }
+
+    /**
+     * The page of skill hits after {@code cursor}, at most {@code limit + 1}
+     * of them so the caller can tell whether another page follows. A
+     * category narrows the ranking before it is paged.
+     */
+    public List<InvertedIndex.Hit> searchSkillsAfter(String query, String category, String cursor, int limit) {
+        Indexes current = indexes;
+        LongPredicate accept = category == null ? skillId -> true : skillId -> current.isInCategory(skillId, category);
+        return current.skills.searchAfter(query, positionOf(cursor), limit + 1, accept);
+    }
+
+    public boolean hasSkillMatches(String query) {
+        return indexes.skills.matches(query);
+    }
+
+    /**
+     * Skills whose names are similar to the query despite typos, best first.
+     */
+    public List<InvertedIndex.Hit> fuzzySearchSkills(String query, String category) {
+        return inCategory(indexes.trigrams.search(query), category);
+    }
+
+    private List<InvertedIndex.Hit> inCategory(List<InvertedIndex.Hit> hits, String category) {
+        if (category == null) {
+            return hits;
+        }
+        Indexes current = indexes;
+        return hits.stream()
+                .filter(hit -> current.isInCategory(hit.getId(), category))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Completion for as-you-type input, answered entirely from memory.
+     */
+    public List<SkillSuggestionDto> suggestSkills(String prefix, int limit) {
+        Indexes current = indexes;
+        return current.trie.complete(prefix, limit).stream()
+                .map(current.suggestions::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Id, name and category of an active skill, or null if it is not indexed.
+     */
+    public SkillSuggestionDto describeSkill(Long skillId) {
+        return indexes.suggestions.get(skillId);
+    }
+
+    public List<InvertedIndex.Hit> searchUsers(String query) {
+        return indexes.users.search(query);
+    }
+
+    public List<InvertedIndex.Hit> searchUsersAfter(String query, String cursor, int limit) {
+        return indexes.users.searchAfter(query, positionOf(cursor), limit + 1);
+    }
+
+    /**
+     * Hits of an already ranked list that rank after {@code cursor}, at most
+     * {@code limit + 1} of them so the caller can tell whether another page follows.
+     */
+    public static List<InvertedIndex.Hit> pageAfter(List<InvertedIndex.Hit> hits, String cursor, int limit) {
+        int start = 0;
+        InvertedIndex.Hit after = positionOf(cursor);
+        if (after != null) {
+            int found = Collections.binarySearch(hits, after, InvertedIndex.RANKING);
+            start = found >= 0 ? found + 1 : -found - 1;
+        }
+        return new ArrayList<>(hits.subList(start, Math.min(hits.size(), start + limit + 1)));
+    }
+
+    public static Cursor cursorOf(InvertedIndex.Hit hit) {
+        return Cursor.of(Double.toString(hit.getScore()), hit.getId());
+    }
+
+    private static InvertedIndex.Hit positionOf(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        Cursor position = Cursor.decode(cursor);
+        return new InvertedIndex.Hit(position.getId(), position.sortKeyAsDouble());
+    }
+
+    private ReentrantLock stripeOf(long skillId) {
+        return stripes[Math.floorMod(Long.hashCode(skillId), STRIPES)];
+    }
+
+    private double boostOf(long skillId) {
+        return popularityBoost(skillOfferCounts.getOrDefault(skillId, 0L));
+    }
+
+    private double popularityBoost(long offerCount) {
+        return 1 + popularityWeight * Math.log1p(Math.max(0, offerCount));
+    }
+
+    private static SkillSuggestionDto toSuggestion(Skill skill) {
+        return new SkillSuggestionDto(skill.getId(), skill.getName(), skill.getCategory());
+    }
+
+    private static Map<String, Float> skillTerms(Skill skill) {
+        Map<String, Float> terms = new HashMap<>();
+        TextAnalyzer.addTerms(terms, skill.getName(), NAME_WEIGHT);
+        TextAnalyzer.addTerms(terms, skill.getCategory(), CATEGORY_WEIGHT);
+        TextAnalyzer.addTerms(terms, skill.getDescription(), DESCRIPTION_WEIGHT);
+        return terms;
+    }
+
+    private static Map<String, Float> userTerms(User user) {
+        Map<String, Float> terms = new HashMap<>();
+        TextAnalyzer.addTerms(terms, user.getUsername(), USERNAME_WEIGHT);
+        TextAnalyzer.addTerms(terms, user.getFirstName(), PERSON_NAME_WEIGHT);
+        TextAnalyzer.addTerms(terms, user.getLastName(), PERSON_NAME_WEIGHT);
+        return terms;
+    }
+
+    private interface Change {
+
+        void applyTo(Indexes target);
+    }
+
+    /**
+     * The skill and user indexes swapped together by a rebuild, so a reader
+     * never sees the skills of one build with the suggestions of another.
+     */
+    private static final class Indexes {
+
+        private final InvertedIndex skills = new InvertedIndex();
+        private final InvertedIndex users = new InvertedIndex();
+        private final TrigramIndex trigrams;
+        private final PrefixTrie trie = new PrefixTrie();
+        private final Map<Long, SkillSuggestionDto> suggestions = new ConcurrentHashMap<>();
+
+        Indexes(double minTrigramSimilarity) {
+            this.trigrams = new TrigramIndex(minTrigramSimilarity);
+        }
+
+        void putSkill(long skillId, Map<String, Float> terms, String name, SkillSuggestionDto suggestion,
+                      double boost) {
+            skills.index(skillId, terms);
+            skills.setBoost(skillId, boost);
+            trigrams.index(skillId, name);
+            trie.index(skillId, name);
+            suggestions.put(skillId, suggestion);
+        }
+
+        void removeSkill(long skillId) {
+            skills.remove(skillId);
+            trigrams.remove(skillId);
+            trie.remove(skillId);
+            suggestions.remove(skillId);
+        }
+
+        boolean isInCategory(long skillId, String category) {
+            SkillSuggestionDto skill = suggestions.get(skillId);
+            return skill != null && category.equals(skill.getCategory());
+        }
+    }
+}
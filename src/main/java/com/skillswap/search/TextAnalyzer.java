@@ -0,0 +1,49 @@
+package com.skillswap.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenizes text for the search indexes: accents are stripped, case is folded
+ * and anything that is not a letter or digit separates tokens.
+ */
+public final class TextAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private TextAnalyzer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalize(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Adds each token of {@code text} to {@code termWeights}, weighting every
+     * occurrence by the importance of the field it came from.
+     */
+    public static void addTerms(Map<String, Float> termWeights, String text, float fieldWeight) {
+        for (String token : tokenize(text)) {
+            termWeights.merge(token, fieldWeight, Float::sum);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.skillswap.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant word matching. Every indexed word is split into padded
+ * trigrams (as pg_trgm does) and query tokens are compared against
+ * candidate words with the Dice coefficient, so "pyhton" still finds
+ * "python" and "spansh" finds "spanish".
+ */
+public class TrigramIndex {
+
+    private static final Comparator<InvertedIndex.Hit> RANKING = Comparator
+            .comparingDouble(InvertedIndex.Hit::getScore).reversed()
+            .thenComparingLong(InvertedIndex.Hit::getId);
+
+    private final double minSimilarity;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Set<String>> wordsByTrigram = new HashMap<>();
+    private final Map<String, Set<Long>> docsByWord = new HashMap<>();
+    private final Map<Long, Set<String>> wordsByDoc = new HashMap<>();
+
+    public TrigramIndex(double minSimilarity) {
+        this.minSimilarity = minSimilarity;
+    }
+
+    public void index(long docId, String text) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(docId);
+            Set<String> words = new LinkedHashSet<>(TextAnalyzer.tokenize(text));
+            for (String word : words) {
+                Set<Long> docs = docsByWord.computeIfAbsent(word, key -> new HashSet<>());
+                if (docs.isEmpty()) {
+                    for (String trigram : trigrams(word)) {
+                        wordsByTrigram.computeIfAbsent(trigram, key -> new HashSet<>()).add(word);
+                    }
+                }
+                docs.add(docId);
+            }
+            wordsByDoc.put(docId, words);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long docId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Scores each document by the mean, over query tokens, of the best Dice
+     * similarity between that token and any word of the document.
+     */
+    public List<InvertedIndex.Hit> search(String query) {
+        List<String> tokens = TextAnalyzer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = new HashMap<>();
+            for (String token : tokens) {
+                Set<String> tokenTrigrams = trigrams(token);
+                Map<String, Integer> shared = new HashMap<>();
+                for (String trigram : tokenTrigrams) {
+                    Set<String> words = wordsByTrigram.get(trigram);
+                    if (words != null) {
+                        for (String word : words) {
+                            shared.merge(word, 1, Integer::sum);
+                        }
+                    }
+                }
+
+                Map<Long, Double> best = new HashMap<>();
+                for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+                    int wordTrigrams = trigrams(candidate.getKey()).size();
+                    double similarity = 2.0 * candidate.getValue() / (tokenTrigrams.size() + wordTrigrams);
+                    if (similarity >= minSimilarity) {
+                        for (Long docId : docsByWord.get(candidate.getKey())) {
+                            best.merge(docId, similarity, Math::max);
+                        }
+                    }
+                }
+                best.forEach((docId, similarity) -> scores.merge(docId, similarity, Double::sum));
+            }
+
+            List<InvertedIndex.Hit> hits = new ArrayList<>(scores.size());
+            scores.forEach((docId, score) -> hits.add(new InvertedIndex.Hit(docId, score / tokens.size())));
+            hits.sort(RANKING);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeUnlocked(long docId) {
+        Set<String> words = wordsByDoc.remove(docId);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            Set<Long> docs = docsByWord.get(word);
+            docs.remove(docId);
+            if (docs.isEmpty()) {
+                docsByWord.remove(word);
+                for (String trigram : trigrams(word)) {
+                    Set<String> trigramWords = wordsByTrigram.get(trigram);
+                    trigramWords.remove(word);
+                    if (trigramWords.isEmpty()) {
+                        wordsByTrigram.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Distinct trigrams of the word padded with two leading blanks and one
+     * trailing blank.
+     */
+    static Set<String> trigrams(String word) {
+        String padded = "  " + word + " ";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+}
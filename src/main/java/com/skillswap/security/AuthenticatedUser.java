@@ -0,0 +1,33 @@
+package com.skillswap.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Principal that also carries the user's id and current token version, so it
+ * can be written into and rebuilt from token claims.
+ */
+public class AuthenticatedUser extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final int tokenVersion;
+
+    public AuthenticatedUser(Long id, String username, String password, boolean enabled, int tokenVersion,
+            Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.id = id;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+}
@@ -1,12 +1,16 @@
 package com.skillswap.security;
 
 import com.skillswap.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,38 +18,50 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     @Autowired
-    private JwtUtil jwtUtil;
+    private JwtVerifier jwtVerifier;
     
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private PrincipalCache principalCache;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         
         final String authorizationHeader = request.getHeader("Authorization");
         
-        String username = null;
-        String jwt = null;
+        // Signature and expiry are checked once here; the claims are then trusted
+        Claims claims = null;
         
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
+                claims = jwtVerifier.verify(authorizationHeader.substring(7));
+            } catch (JwtException | IllegalArgumentException e) {
                 logger.error("Unable to get JWT Token or JWT Token has expired");
             }
         }
         
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userService.loadUserByUsername(username);
+        if (claims != null && claims.getSubject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = claims.get(JwtUtil.USER_ID_CLAIM) != null
+                    ? principalFromClaims(claims)
+                    // Tokens issued before claims carried the user id
+                    : principalCache.get(claims.getSubject(), userService::loadUserByUsername);
             
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (userDetails != null && userDetails.isEnabled()) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -55,4 +71,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
+    
+    /**
+     * Builds the principal from the token alone; returns null if it was revoked.
+     */
+    private UserDetails principalFromClaims(Claims claims) {
+        if (tokenRevocationService.isRevoked(claims)) {
+            return null;
+        }
+        Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Number.class).longValue();
+        Number version = claims.get(JwtUtil.TOKEN_VERSION_CLAIM, Number.class);
+        int tokenVersion = version != null ? version.intValue() : 0;
+        List<?> roles = claims.get(JwtUtil.ROLES_CLAIM, List.class);
+        List<GrantedAuthority> authorities = roles == null ? Collections.emptyList() : roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.toString()))
+                .collect(Collectors.toList());
+        return new AuthenticatedUser(userId, claims.getSubject(), "", true, tokenVersion, authorities);
+    }
 }
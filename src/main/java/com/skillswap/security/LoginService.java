@@ -0,0 +1,155 @@
+package com.skillswap.security;
+
+import com.skillswap.dto.UserDto;
+import com.skillswap.entity.User;
+import com.skillswap.repository.UserRepository;
+import com.skillswap.service.UserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verifies passwords on a small dedicated pool so BCrypt work during a login
+ * burst cannot occupy the web server's request threads. When the pool and its
+ * queue are full, new logins are refused immediately instead of waiting.
+ */
+@Service
+public class LoginService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ThreadPoolExecutor executor;
+    private final ExecutorService monitoredExecutor;
+    private final Counter rejected;
+
+    // Hash checked for unknown usernames so they take as long as wrong passwords
+    private volatile String dummyHash;
+
+    public LoginService(MeterRegistry meterRegistry,
+            @Value("${skillswap.security.login.threads}") int threads,
+            @Value("${skillswap.security.login.queue-capacity}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.monitoredExecutor = ExecutorServiceMetrics.monitor(meterRegistry, executor, "login");
+        this.rejected = Counter.builder("skillswap.login.rejected")
+                .description("Logins refused because the login pool was saturated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts verifying the credentials on the login pool.
+     *
+     * @throws RejectedExecutionException if the pool's queue is full
+     */
+    public CompletableFuture<LoginResult> login(String username, String password) {
+        try {
+            return CompletableFuture.supplyAsync(() -> authenticate(username, password), monitoredExecutor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    private LoginResult authenticate(String username, String password) {
+        User user = username != null ? userRepository.findByUsername(username).orElse(null) : null;
+        if (user == null || password == null) {
+            passwordEncoder.matches(password != null ? password : "", dummyHash());
+            throw new BadCredentialsException("Bad credentials");
+        }
+        if (!passwordEncoder.matches(password, user.getPassword())) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        if (!Boolean.TRUE.equals(user.getIsActive())) {
+            throw new DisabledException("User is disabled");
+        }
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            rehash(user.getId(), password);
+        }
+
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getUsername(), "", true,
+                user.getTokenVersion() != null ? user.getTokenVersion() : 0,
+                AuthorityUtils.createAuthorityList("ROLE_USER"));
+        return new LoginResult(jwtUtil.generateToken(principal), userService.convertToDto(user));
+    }
+
+    /**
+     * Re-encodes the password with the configured cost while the plain text is
+     * at hand, so raising the BCrypt strength applies to existing users over time.
+     */
+    private void rehash(Long userId, String password) {
+        String upgraded = passwordEncoder.encode(password);
+        transactionTemplate.executeWithoutResult(tx -> userRepository.findById(userId)
+                .ifPresent(user -> user.setPassword(upgraded)));
+    }
+
+    private String dummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode("dummy-password");
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public static final class LoginResult {
+
+        private final String token;
+        private final UserDto user;
+
+        LoginResult(String token, UserDto user) {
+            this.token = token;
+            this.user = user;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public UserDto getUser() {
+            return user;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.skillswap.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded, time-limited cache of the principals JwtAuthenticationFilter builds
+ * for each request, so an authenticated call does not need a user lookup.
+ * Entries hold no password hash; login still goes through the database.
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache<String, UserDetails> cache;
+
+    public PrincipalCache(MeterRegistry meterRegistry,
+            @Value("${skillswap.security.principal-cache.max-size}") long maxSize,
+            @Value("${skillswap.security.principal-cache.ttl}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals");
+    }
+
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        return cache.get(username, key -> withoutPassword(loader.apply(key)));
+    }
+
+    /**
+     * Drops the cached principal so the next request reloads it; call after
+     * the user's account or authorities change.
+     */
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    private static UserDetails withoutPassword(UserDetails details) {
+        if (details instanceof AuthenticatedUser user) {
+            return new AuthenticatedUser(user.getId(), user.getUsername(), "", user.isEnabled(),
+                    user.getTokenVersion(), user.getAuthorities());
+        }
+        return new User(details.getUsername(), "", details.isEnabled(), details.isAccountNonExpired(),
+                details.isCredentialsNonExpired(), details.isAccountNonLocked(), details.getAuthorities());
+    }
+}
@@ -0,0 +1,172 @@
+package com.skillswap.security;
+
+import com.skillswap.entity.TokenRevocation;
+import com.skillswap.repository.TokenRevocationRepository;
+import com.skillswap.util.TransactionHooks;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory view of token_revocations, consulted on every authenticated request.
+ * Loaded at startup and then polled for new rows, so a logout on one instance
+ * is honoured by the others within one poll interval. Ids are assigned at insert
+ * but become visible at commit, so each poll re-reads an overlapping window of
+ * recently created rows instead of resuming after the highest id seen.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Value("${jwt.expiration}")
+    private Long expiration;
+
+    // Longer than any revoking transaction plus the clock skew between instances
+    @Value("${skillswap.security.revocation-poll-overlap-ms}")
+    private long pollOverlapMs;
+
+    // Token id -> expiry (epoch millis); entries are dropped once the token would have expired
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<Long, VersionFloor> minTokenVersions = new ConcurrentHashMap<>();
+
+    // Rows already applied that are still inside the poll window, by id -> created at
+    private final Map<Long, LocalDateTime> appliedIds = new HashMap<>();
+    private LocalDateTime lastPollStartedAt;
+
+    // A lock rather than synchronized: polling does JDBC I/O, which would pin a virtual thread
+    private final ReentrantLock pollLock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        poll();
+        log.info("Token revocations loaded: {} tokens, {} users", revokedTokens.size(), minTokenVersions.size());
+    }
+
+    @Scheduled(fixedDelayString = "${skillswap.security.revocation-poll-interval-ms}",
+            initialDelayString = "${skillswap.security.revocation-poll-interval-ms}")
+    public void poll() {
+        pollLock.lock();
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            LocalDateTime since = lastPollStartedAt != null
+                    ? lastPollStartedAt.minusNanos(pollOverlapMs * 1_000_000) : null;
+            long afterId = 0L;
+            List<TokenRevocation> batch;
+            do {
+                PageRequest page = PageRequest.of(0, LOAD_BATCH_SIZE);
+                batch = since == null
+                        ? tokenRevocationRepository.findByIdGreaterThanAndExpiresAtAfterOrderByIdAsc(
+                                afterId, startedAt, page)
+                        : tokenRevocationRepository.findByCreatedAtGreaterThanEqualAndIdGreaterThanAndExpiresAtAfterOrderByIdAsc(
+                                since, afterId, startedAt, page);
+                for (TokenRevocation revocation : batch) {
+                    if (appliedIds.put(revocation.getId(), revocation.getCreatedAt()) == null) {
+                        apply(revocation);
+                    }
+                    afterId = revocation.getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+            if (since != null) {
+                appliedIds.values().removeIf(createdAt -> createdAt.isBefore(since));
+            }
+            lastPollStartedAt = startedAt;
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    @Scheduled(cron = "${skillswap.security.revocation-purge-cron}")
+    @Transactional
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+        minTokenVersions.values().removeIf(floor -> floor.expiresAt < now);
+        int deleted = tokenRevocationRepository.deleteExpired(LocalDateTime.now());
+        log.debug("Purged {} expired token revocations", deleted);
+    }
+
+    public boolean isRevoked(Claims claims) {
+        Number userId = claims.get(JwtUtil.USER_ID_CLAIM, Number.class);
+        Number version = claims.get(JwtUtil.TOKEN_VERSION_CLAIM, Number.class);
+        return isRevoked(claims.getId(), userId != null ? userId.longValue() : null,
+                version != null ? version.intValue() : 0);
+    }
+
+    public boolean isRevoked(String tokenId, Long userId, int tokenVersion) {
+        if (tokenId != null && revokedTokens.containsKey(tokenId)) {
+            return true;
+        }
+        VersionFloor floor = userId != null ? minTokenVersions.get(userId) : null;
+        return floor != null && tokenVersion < floor.minVersion;
+    }
+
+    @Transactional
+    public void revokeToken(String tokenId, Long userId, Date expiresAt) {
+        TokenRevocation revocation = tokenRevocationRepository.save(TokenRevocation.ofToken(tokenId, userId,
+                LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault())));
+        TransactionHooks.afterCommit(() -> apply(revocation));
+    }
+
+    /**
+     * Rejects every token of the user issued below {@code minTokenVersion}. The
+     * row outlives the longest token lifetime, after which it is no longer needed.
+     */
+    @Transactional
+    public void revokeAllForUser(Long userId, int minTokenVersion) {
+        TokenRevocation revocation = tokenRevocationRepository.save(TokenRevocation.ofUser(userId, minTokenVersion,
+                LocalDateTime.now().plusNanos(expiration * 1_000_000)));
+        TransactionHooks.afterCommit(() -> apply(revocation));
+    }
+
+    private void apply(TokenRevocation revocation) {
+        long expiresAt = revocation.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (revocation.getTokenId() != null) {
+            revokedTokens.put(revocation.getTokenId(), expiresAt);
+        }
+        if (revocation.getMinTokenVersion() != null) {
+            minTokenVersions.merge(revocation.getUserId(),
+                    new VersionFloor(revocation.getMinTokenVersion(), expiresAt), VersionFloor::max);
+        }
+    }
+
+    /**
+     * A user's minimum token version, kept until every token it rejects has expired.
+     */
+    private static final class VersionFloor {
+
+        private final int minVersion;
+        private final long expiresAt;
+
+        VersionFloor(int minVersion, long expiresAt) {
+            this.minVersion = minVersion;
+            this.expiresAt = expiresAt;
+        }
+
+        static VersionFloor max(VersionFloor a, VersionFloor b) {
+            return new VersionFloor(Math.max(a.minVersion, b.minVersion), Math.max(a.expiresAt, b.expiresAt));
+        }
+    }
+}
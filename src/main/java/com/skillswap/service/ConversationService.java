@@ -0,0 +1,150 @@
+package com.skillswap.service;
+
+import com.skillswap.dto.ConversationDto;
+import com.skillswap.entity.Conversation;
+import com.skillswap.entity.Message;
+import com.skillswap.entity.User;
+import com.skillswap.pagination.Cursor;
+import com.skillswap.pagination.CursorPage;
+import com.skillswap.pagination.PaginationSettings;
+import com.skillswap.repository.ConversationRepository;
+import com.skillswap.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the conversations read model. Writes join the caller's
+ * transaction, so a conversation row changes if and only if the message
+ * change that caused it commits.
+ */
+@Service
+public class ConversationService {
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Applies each message to its conversation, creating conversations for
+     * new pairs, and returns the conversation of each message in input order.
+     * All conversations of the batch are locked with one query.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Conversation> recordMessages(List<Message> messages) {
+        Set<String> pairKeys = messages.stream()
+                .map(ConversationService::pairKeyOf)
+                .collect(Collectors.toSet());
+        Map<String, Conversation> conversations = lockByPairKey(pairKeys);
+        if (conversations.size() < pairKeys.size()) {
+            // First messages between some pairs: concurrent first messages queue on the
+            // lower user's row, and all but the first then find the new conversation
+            Set<Long> userLowIds = new TreeSet<>();
+            List<String> missing = new ArrayList<>();
+            for (Message message : messages) {
+                String pairKey = pairKeyOf(message);
+                if (!conversations.containsKey(pairKey)) {
+                    missing.add(pairKey);
+                    userLowIds.add(Math.min(message.getSender().getId(), message.getReceiver().getId()));
+                }
+            }
+            userRepository.findAllByIdForUpdate(userLowIds);
+            conversations.putAll(lockByPairKey(missing));
+        }
+
+        List<Conversation> result = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            Conversation conversation = conversations.computeIfAbsent(pairKeyOf(message),
+                    pairKey -> new Conversation(message.getSender(), message.getReceiver()));
+            conversation.recordMessage(message);
+            if (conversation.getId() == null) {
+                conversationRepository.save(conversation);
+            }
+            result.add(conversation);
+        }
+        return result;
+    }
+
+    private Map<String, Conversation> lockByPairKey(Collection<String> pairKeys) {
+        return conversationRepository.findByPairKeysForUpdate(pairKeys).stream()
+                .collect(Collectors.toMap(Conversation::getPairKey, Function.identity()));
+    }
+
+    private static String pairKeyOf(Message message) {
+        return Conversation.pairKey(message.getSender().getId(), message.getReceiver().getId());
+    }
+
+    /**
+     * Locks the conversation between the two users, returning null if they
+     * have never exchanged messages.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Conversation lockConversation(Long userId, Long partnerId) {
+        return conversationRepository.findByPairKeyForUpdate(Conversation.pairKey(userId, partnerId))
+                .orElse(null);
+    }
+
+    /**
+     * Zeroes the reader's unread count in their conversation with the partner,
+     * returning the conversation, or null if they have never exchanged messages.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Conversation recordConversationRead(Long readerId, Long partnerId) {
+        Conversation conversation = conversationRepository
+                .findByPairKeyForUpdate(Conversation.pairKey(readerId, partnerId))
+                .orElse(null);
+        if (conversation != null) {
+            conversation.clearUnread(readerId);
+        }
+        return conversation;
+    }
+
+    /**
+     * The user's conversations, most recent activity first. Reads only
+     * conversation rows, so the cost does not grow with message history.
+     */
+    public CursorPage<ConversationDto> getConversations(Long userId, String cursor, int limit) {
+        List<Conversation> conversations;
+        if (cursor == null) {
+            conversations = conversationRepository.findRecentByUserId(userId, PaginationSettings.fetchWindow(limit));
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            conversations = conversationRepository.findByUserIdBefore(userId,
+                    position.sortKeyAsTimestamp(), position.getId(),
+                    PaginationSettings.fetchWindow(limit));
+        }
+        return CursorPage.of(conversations, limit,
+                conversation -> Cursor.of(conversation.getLastMessageAt().toString(), conversation.getId()),
+                rows -> rows.stream()
+                        .map(conversation -> convertToDto(conversation, userId))
+                        .collect(Collectors.toList()));
+    }
+
+    public ConversationDto convertToDto(Conversation conversation, Long userId) {
+        User partner = conversation.partnerOf(userId);
+        ConversationDto dto = new ConversationDto();
+        dto.setId(conversation.getId());
+        dto.setPartnerId(partner.getId());
+        dto.setPartnerUsername(partner.getUsername());
+        dto.setPartnerFirstName(partner.getFirstName());
+        dto.setPartnerLastName(partner.getLastName());
+        dto.setLastMessageId(conversation.getLastMessageId());
+        dto.setLastSenderId(conversation.getLastSenderId());
+        dto.setLastMessagePreview(conversation.getLastMessagePreview());
+        dto.setLastMessageAt(conversation.getLastMessageAt());
+        dto.setUnreadCount(conversation.unreadFor(userId));
+        return dto;
+    }
+}
@@ -0,0 +1,238 @@
+package com.skillswap.service;
+
+import com.skillswap.dto.SkillExchangeDto;
+import com.skillswap.entity.Skill;
+import com.skillswap.entity.SkillExchange;
+import com.skillswap.entity.SkillExchange.ExchangeStatus;
+import com.skillswap.entity.User;
+import com.skillswap.exchange.ExchangeAction;
+import com.skillswap.repository.SkillExchangeRepository;
+import com.skillswap.repository.SkillRepository;
+import com.skillswap.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Exchange lifecycle. Every change re-reads the exchange, checks it against
+ * {@link ExchangeAction} and writes it back under its {@code @Version}; a
+ * write that lost a race is retried from the re-read, with jittered
+ * exponential backoff, up to {@code max-attempts} times. Retries therefore
+ * re-validate against the winner's state and can never apply a transition
+ * that has become illegal. Completions and ratings adjust the parties'
+ * reputation in the same transaction, after the exchange write succeeded.
+ */
+@Service
+public class ExchangeService {
+
+    @Autowired
+    private SkillExchangeRepository skillExchangeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SkillRepository skillRepository;
+
+    @Autowired
+    private ReputationService reputationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${skillswap.exchanges.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${skillswap.exchanges.retry-backoff-ms}")
+    private long retryBackoffMillis;
+
+    private Counter retries;
+    private Counter conflicts;
+
+    @PostConstruct
+    void registerMetrics() {
+        retries = Counter.builder("skillswap.exchanges.retries")
+                .description("Exchange writes retried after losing an optimistic-lock race")
+                .register(meterRegistry);
+        conflicts = Counter.builder("skillswap.exchanges.conflicts")
+                .description("Exchange writes that lost every attempt")
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    public SkillExchangeDto createExchange(Long requesterId, SkillExchangeDto exchangeDto) {
+        if (requesterId.equals(exchangeDto.getProviderId())) {
+            throw new RuntimeException("Cannot request an exchange with yourself");
+        }
+        User requester = userRepository.findById(requesterId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + requesterId));
+        User provider = userRepository.findById(exchangeDto.getProviderId())
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + exchangeDto.getProviderId()));
+        Skill requestedSkill = skillRepository.findById(exchangeDto.getRequestedSkillId())
+                .orElseThrow(() -> new RuntimeException(
+                        "Skill not found with id: " + exchangeDto.getRequestedSkillId()));
+        Skill offeredSkill = skillRepository.findById(exchangeDto.getOfferedSkillId())
+                .orElseThrow(() -> new RuntimeException(
+                        "Skill not found with id: " + exchangeDto.getOfferedSkillId()));
+
+        SkillExchange exchange = new SkillExchange(requester, provider, requestedSkill, offeredSkill);
+        exchange.setMessage(exchangeDto.getMessage());
+        exchange.setScheduledDate(exchangeDto.getScheduledDate());
+        return convertToDto(skillExchangeRepository.save(exchange));
+    }
+
+    public SkillExchangeDto getExchange(Long id, Long userId) {
+        SkillExchange exchange = skillExchangeRepository.findWithDetailsById(id)
+                .orElseThrow(() -> new RuntimeException("Skill exchange not found with id: " + id));
+        if (!isParty(exchange, userId)) {
+            throw new RuntimeException("Only the requester or provider can view this exchange");
+        }
+        return convertToDto(exchange);
+    }
+
+    public List<SkillExchangeDto> getExchangesForUser(Long userId, ExchangeStatus status) {
+        List<SkillExchange> exchanges = status == null
+                ? skillExchangeRepository.findWithDetailsByUserId(userId)
+                : skillExchangeRepository.findWithDetailsByUserIdAndStatus(userId, status);
+        return exchanges.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    public SkillExchangeDto transition(Long id, Long userId, ExchangeAction action) {
+        return withRetry(() -> transactionTemplate.execute(tx -> applyTransition(id, userId, action)));
+    }
+
+    /**
+     * Records the caller's 1-5 rating of the other party on a completed
+     * exchange. Each party rates once; both can rate at the same time without
+     * one rating overwriting the other.
+     */
+    public SkillExchangeDto rate(Long id, Long userId, Integer rating, String feedback) {
+        if (rating == null || rating < 1 || rating > 5) {
+            throw new RuntimeException("Rating must be between 1 and 5");
+        }
+        if (feedback != null && feedback.length() > 1000) {
+            throw new RuntimeException("Feedback must be at most 1000 characters");
+        }
+        return withRetry(() -> transactionTemplate.execute(tx -> applyRating(id, userId, rating, feedback)));
+    }
+
+    private SkillExchangeDto applyTransition(Long id, Long userId, ExchangeAction action) {
+        SkillExchange exchange = findExchange(id);
+        boolean isRequester = exchange.getRequester().getId().equals(userId);
+        boolean isProvider = exchange.getProvider().getId().equals(userId);
+        if (!action.allowsParty(isRequester, isProvider)) {
+            throw new RuntimeException(action.getParty() == ExchangeAction.Party.PROVIDER
+                    ? "Only the provider can " + action.verb() + " this exchange"
+                    : "Only the requester or provider can " + action.verb() + " this exchange");
+        }
+        if (!action.allowsFrom(exchange.getStatus())) {
+            throw new RuntimeException("Cannot " + action.verb() + " an exchange that is " + exchange.getStatus());
+        }
+        exchange.setStatus(action.getTarget());
+        if (action == ExchangeAction.COMPLETE) {
+            exchange.setCompletedDate(LocalDateTime.now());
+        }
+        SkillExchange saved = skillExchangeRepository.saveAndFlush(exchange);
+        if (action == ExchangeAction.COMPLETE) {
+            reputationService.recordCompleted(saved);
+        }
+        return convertToDto(saved);
+    }
+
+    private SkillExchangeDto applyRating(Long id, Long userId, Integer rating, String feedback) {
+        SkillExchange exchange = findExchange(id);
+        if (exchange.getStatus() != ExchangeStatus.COMPLETED) {
+            throw new RuntimeException("Only completed exchanges can be rated");
+        }
+        boolean byRequester = exchange.getRequester().getId().equals(userId);
+        if (byRequester) {
+            if (exchange.getRequesterRating() != null) {
+                throw new RuntimeException("You have already rated this exchange");
+            }
+            exchange.setRequesterRating(rating);
+            exchange.setRequesterFeedback(feedback);
+        } else if (exchange.getProvider().getId().equals(userId)) {
+            if (exchange.getProviderRating() != null) {
+                throw new RuntimeException("You have already rated this exchange");
+            }
+            exchange.setProviderRating(rating);
+            exchange.setProviderFeedback(feedback);
+        } else {
+            throw new RuntimeException("Only the requester or provider can rate this exchange");
+        }
+        SkillExchange saved = skillExchangeRepository.saveAndFlush(exchange);
+        reputationService.recordRating(saved, byRequester, rating);
+        return convertToDto(saved);
+    }
+
+    private <T> T withRetry(Supplier<T> write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return write.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    conflicts.increment();
+                    throw e;
+                }
+                retries.increment();
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(retryBackoffMillis << attempt) + 1);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private SkillExchange findExchange(Long id) {
+        return skillExchangeRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Skill exchange not found with id: " + id));
+    }
+
+    private boolean isParty(SkillExchange exchange, Long userId) {
+        return exchange.getRequester().getId().equals(userId) || exchange.getProvider().getId().equals(userId);
+    }
+
+    public SkillExchangeDto convertToDto(SkillExchange exchange) {
+        SkillExchangeDto dto = new SkillExchangeDto();
+        dto.setId(exchange.getId());
+        dto.setRequesterId(exchange.getRequester().getId());
+        dto.setProviderId(exchange.getProvider().getId());
+        dto.setRequestedSkillId(exchange.getRequestedSkill().getId());
+        dto.setOfferedSkillId(exchange.getOfferedSkill().getId());
+        dto.setRequesterName(exchange.getRequester().getUsername());
+        dto.setProviderName(exchange.getProvider().getUsername());
+        dto.setRequestedSkillName(exchange.getRequestedSkill().getName());
+        dto.setOfferedSkillName(exchange.getOfferedSkill().getName());
+        dto.setStatus(exchange.getStatus());
+        dto.setMessage(exchange.getMessage());
+        dto.setRequesterRating(exchange.getRequesterRating());
+        dto.setProviderRating(exchange.getProviderRating());
+        dto.setRequesterFeedback(exchange.getRequesterFeedback());
+        dto.setProviderFeedback(exchange.getProviderFeedback());
+        dto.setScheduledDate(exchange.getScheduledDate());
+        dto.setCompletedDate(exchange.getCompletedDate());
+        dto.setCreatedAt(exchange.getCreatedAt());
+        dto.setUpdatedAt(exchange.getUpdatedAt());
+        dto.setVersion(exchange.getVersion());
+        return dto;
+    }
+}
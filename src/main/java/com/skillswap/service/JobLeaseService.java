@@ -0,0 +1,56 @@
+package com.skillswap.service;
+
+import com.skillswap.repository.JobLeaseRepository;
+import com.skillswap.util.InstanceId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Leases in job_leases that keep a scheduled job to one instance at a time
+ * when several share the database. Each call commits on its own, so a lease
+ * is visible to other instances as soon as it is taken.
+ */
+@Service
+public class JobLeaseService {
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Takes the lease for {@code duration}, or extends it if this instance
+     * already holds it. Returns false if another instance holds it.
+     */
+    public boolean tryAcquire(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(duration);
+        Integer taken = transactionTemplate.execute(tx ->
+                jobLeaseRepository.takeOver(name, InstanceId.get(), now, expiresAt));
+        if (taken != null && taken > 0) {
+            return true;
+        }
+        if (jobLeaseRepository.existsById(name)) {
+            return false;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx ->
+                    jobLeaseRepository.insert(name, InstanceId.get(), expiresAt));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Held by another instance, or taken by one that got here first
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        transactionTemplate.executeWithoutResult(tx ->
+                jobLeaseRepository.release(name, InstanceId.get(), LocalDateTime.now()));
+    }
+}
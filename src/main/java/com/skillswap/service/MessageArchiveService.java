@@ -0,0 +1,414 @@
+package com.skillswap.service;
+
+import com.skillswap.dto.MessageDto;
+import com.skillswap.entity.Conversation;
+import com.skillswap.entity.Message;
+import com.skillswap.entity.MessageArchiveSegment;
+import com.skillswap.messaging.MessageArchiveCodec;
+import com.skillswap.repository.ConversationRepository;
+import com.skillswap.repository.MessageArchiveSegmentRepository;
+import com.skillswap.repository.MessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Moves messages older than {@code max-age-days}, read or not, out of the
+ * messages table into compressed per-conversation segments. Messages are
+ * taken oldest first, one transaction per batch, so every archived message is
+ * older than every message still in the table. Unread messages keep their
+ * flag and each segment counts them per member, so unread counts and
+ * mark-read cover both tiers. A lease keeps a run to one instance, and each
+ * run ends by merging small segments.
+ */
+@Service
+public class MessageArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageArchiveService.class);
+
+    private static final String LEASE = "message-archive";
+
+    private static final int COMPACT_PAGE_SIZE = 100;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private MessageArchiveSegmentRepository segmentRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Value("${skillswap.messaging.archive.max-age-days}")
+    private int maxAgeDays;
+
+    @Value("${skillswap.messaging.archive.batch-size}")
+    private int batchSize;
+
+    @Value("${skillswap.messaging.archive.segment-size}")
+    private int segmentSize;
+
+    // Renewed before every batch, so only a stalled instance loses it
+    @Value("${skillswap.messaging.archive.lease-ms}")
+    private long leaseMillis;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private Counter archivedMessages;
+    private Counter archivedBytes;
+    private Timer runTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        archivedMessages = Counter.builder("skillswap.messaging.archive.messages")
+                .description("Messages moved to archive segments")
+                .register(meterRegistry);
+        archivedBytes = Counter.builder("skillswap.messaging.archive.bytes")
+                .description("Compressed bytes written to archive segments")
+                .register(meterRegistry);
+        runTimer = Timer.builder("skillswap.messaging.archive.run").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${skillswap.messaging.archive.cron}")
+    public void archive() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Message archiving already running; skipping this trigger");
+            return;
+        }
+        try {
+            if (!renewLease()) {
+                log.info("Message archiving holds its lease on another instance; skipping this trigger");
+                return;
+            }
+            try {
+                runTimer.record(() -> {
+                    archiveOlderThan(LocalDateTime.now().minusDays(maxAgeDays));
+                    compact();
+                });
+            } finally {
+                jobLeaseService.release(LEASE);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Archives every message created before the cutoff and returns how many
+     * were moved. Stops early if another instance takes over the lease.
+     */
+    public long archiveOlderThan(LocalDateTime cutoff) {
+        long total = 0;
+        while (renewLease()) {
+            Integer archived = transactionTemplate.execute(tx -> archiveBatch(cutoff));
+            if (archived == null || archived == 0) {
+                break;
+            }
+            total += archived;
+        }
+        log.info("Archived {} messages created before {}", total, cutoff);
+        return total;
+    }
+
+    /**
+     * Merges runs of neighbouring segments of a conversation while the merged
+     * segment stays within {@code segment-size}. Each batch writes a segment per
+     * conversation it touches, so a conversation archiving a few messages a
+     * day would otherwise gather hundreds of tiny segments. Returns how many
+     * segments were merged away.
+     */
+    public long compact() {
+        long removed = 0;
+        long afterId = 0L;
+        List<Long> conversationIds;
+        do {
+            conversationIds = segmentRepository.findConversationIdsToCompact(segmentSize / 2, afterId,
+                    PageRequest.of(0, COMPACT_PAGE_SIZE));
+            for (Long conversationId : conversationIds) {
+                if (!renewLease()) {
+                    return removed;
+                }
+                Integer merged = transactionTemplate.execute(tx -> compactConversation(conversationId));
+                removed += merged != null ? merged : 0;
+                afterId = conversationId;
+            }
+        } while (conversationIds.size() == COMPACT_PAGE_SIZE);
+        if (removed > 0) {
+            log.info("Merged away {} small archive segments", removed);
+        }
+        return removed;
+    }
+
+    private boolean renewLease() {
+        return jobLeaseService.tryAcquire(LEASE, Duration.ofMillis(leaseMillis));
+    }
+
+    /**
+     * Appends archived messages of the conversation that are older than the
+     * given position (or the newest ones, if it is null) to {@code rows},
+     * newest first, until {@code rows} holds {@code window} messages.
+     * Segments are fetched and decoded one at a time, only as far as needed.
+     */
+    public void appendArchived(Long userId, Long otherUserId, LocalDateTime beforeCreatedAt, Long beforeId,
+            List<MessageDto> rows, int window) {
+        Conversation conversation = conversationRepository.findByPairKey(Conversation.pairKey(userId, otherUserId))
+                .orElse(null);
+        if (conversation == null) {
+            return;
+        }
+        while (rows.size() < window) {
+            List<MessageArchiveSegment> segments = beforeCreatedAt == null
+                    ? segmentRepository.findLatestByConversationId(conversation.getId(), PageRequest.of(0, 1))
+                    : segmentRepository.findByConversationIdBefore(conversation.getId(), beforeCreatedAt, beforeId,
+                            PageRequest.of(0, 1));
+            if (segments.isEmpty()) {
+                return;
+            }
+            MessageArchiveSegment segment = segments.get(0);
+            List<MessageDto> archived = MessageArchiveCodec.decode(segment.getPayload(), conversation);
+            for (int i = archived.size() - 1; i >= 0 && rows.size() < window; i--) {
+                MessageDto message = archived.get(i);
+                if (beforeCreatedAt == null || isBefore(message, beforeCreatedAt, beforeId)) {
+                    rows.add(message);
+                }
+            }
+            beforeCreatedAt = segment.getFirstCreatedAt();
+            beforeId = segment.getFirstMessageId();
+        }
+    }
+
+    /**
+     * Archived messages the user received and has not read, oldest first.
+     * Only segments counting an unread message for the user are decoded.
+     */
+    public List<MessageDto> getArchivedUnread(Long userId) {
+        List<MessageDto> unread = new ArrayList<>();
+        for (MessageArchiveSegment segment : segmentRepository.findUnreadByUserId(userId)) {
+            MessageArchiveCodec.decode(segment.getPayload(), segment.getConversation()).stream()
+                    .filter(message -> isUnreadBy(message, userId))
+                    .forEach(unread::add);
+        }
+        return unread;
+    }
+
+    /**
+     * Marks one archived message read by its receiver, returning it, or null
+     * if the receiver has no such unread message in the archive. Locks each
+     * conversation it looks in.
+     */
+    public MessageDto markRead(Long messageId, Long readerId) {
+        for (Long conversationId : segmentRepository.findConversationIdsWithUnreadFor(readerId)) {
+            Conversation conversation = conversationRepository.findByIdForUpdate(conversationId).orElse(null);
+            MessageDto read = conversation != null ? markRead(conversation, messageId, readerId) : null;
+            if (read != null) {
+                return read;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Marks one archived message of a conversation the caller has locked.
+     */
+    public MessageDto markRead(Conversation conversation, Long messageId, Long readerId) {
+        for (MessageArchiveSegment segment : segmentRepository
+                .findUnreadByConversationIdAndUserId(conversation.getId(), readerId)) {
+            List<MessageDto> messages = MessageArchiveCodec.decode(segment.getPayload(), conversation);
+            for (MessageDto message : messages) {
+                if (message.getId().equals(messageId) && isUnreadBy(message, readerId)) {
+                    message.setIsRead(true);
+                    store(segment, messages);
+                    return message;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Marks every archived message the reader received in a conversation the
+     * caller has locked, returning how many were unread.
+     */
+    public int markConversationRead(Conversation conversation, Long readerId) {
+        int marked = 0;
+        for (MessageArchiveSegment segment : segmentRepository
+                .findUnreadByConversationIdAndUserId(conversation.getId(), readerId)) {
+            List<MessageDto> messages = MessageArchiveCodec.decode(segment.getPayload(), conversation);
+            for (MessageDto message : messages) {
+                if (isUnreadBy(message, readerId)) {
+                    message.setIsRead(true);
+                    marked++;
+                }
+            }
+            store(segment, messages);
+        }
+        return marked;
+    }
+
+    private static boolean isUnreadBy(MessageDto message, Long userId) {
+        return userId.equals(message.getReceiverId()) && !Boolean.TRUE.equals(message.getIsRead());
+    }
+
+    private static boolean isBefore(MessageDto message, LocalDateTime createdAt, Long id) {
+        return message.getCreatedAt().isBefore(createdAt)
+                || (message.getCreatedAt().isEqual(createdAt) && message.getId() < id);
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Message> messages = messageRepository.findArchivable(cutoff, PageRequest.of(0, batchSize));
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        Map<String, List<Message>> byPair = messages.stream()
+                .collect(Collectors.groupingBy(
+                        message -> Conversation.pairKey(message.getSender().getId(), message.getReceiver().getId()),
+                        LinkedHashMap::new, Collectors.toList()));
+        // Mark-read locks the conversation before it updates messages, so once these locks are
+        // held the read flags read below are final, and rows another run archived are gone
+        Map<String, Conversation> conversations = conversationRepository.findByPairKeysForUpdate(byPair.keySet())
+                .stream()
+                .collect(Collectors.toMap(Conversation::getPairKey, Function.identity()));
+        Map<Long, Boolean> readStates = messageRepository.findReadStates(messages.stream()
+                        .map(Message::getId)
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(MessageRepository.ReadState::getId,
+                        state -> Boolean.TRUE.equals(state.getIsRead())));
+
+        List<MessageArchiveSegment> segments = new ArrayList<>();
+        List<Long> archivedIds = new ArrayList<>();
+        for (Map.Entry<String, List<Message>> pair : byPair.entrySet()) {
+            Conversation conversation = conversations.get(pair.getKey());
+            if (conversation == null) {
+                // Only messages stored before the conversations read model existed; left in place
+                log.warn("No conversation for pair {}; not archiving {} messages", pair.getKey(),
+                        pair.getValue().size());
+                continue;
+            }
+            List<MessageDto> history = pair.getValue().stream()
+                    .filter(message -> readStates.containsKey(message.getId()))
+                    .map(message -> toArchived(message, readStates.get(message.getId())))
+                    .collect(Collectors.toList());
+            for (int from = 0; from < history.size(); from += segmentSize) {
+                List<MessageDto> chunk = history.subList(from, Math.min(history.size(), from + segmentSize));
+                MessageArchiveSegment segment = new MessageArchiveSegment(conversation);
+                store(segment, chunk);
+                segments.add(segment);
+                chunk.forEach(message -> archivedIds.add(message.getId()));
+            }
+        }
+        if (archivedIds.isEmpty()) {
+            return 0;
+        }
+        segmentRepository.saveAll(segments);
+        messageRepository.deleteByIdIn(archivedIds);
+        archivedMessages.increment(archivedIds.size());
+        archivedBytes.increment(segments.stream().mapToLong(segment -> segment.getPayload().length).sum());
+        return archivedIds.size();
+    }
+
+    private int compactConversation(Long conversationId) {
+        Conversation conversation = conversationRepository.findByIdForUpdate(conversationId).orElse(null);
+        if (conversation == null) {
+            return 0;
+        }
+        int removed = 0;
+        List<MessageArchiveSegment> run = new ArrayList<>();
+        int runSize = 0;
+        for (MessageArchiveSegment segment : segmentRepository
+                .findByConversationIdOrderByFirstCreatedAtAscFirstMessageIdAsc(conversationId)) {
+            if (runSize + segment.getMessageCount() > segmentSize) {
+                removed += merge(conversation, run);
+                run.clear();
+                runSize = 0;
+            }
+            run.add(segment);
+            runSize += segment.getMessageCount();
+        }
+        return removed + merge(conversation, run);
+    }
+
+    /**
+     * Rewrites the first segment of the run with the messages of all of them
+     * and deletes the rest.
+     */
+    private int merge(Conversation conversation, List<MessageArchiveSegment> run) {
+        if (run.size() < 2) {
+            return 0;
+        }
+        List<MessageDto> messages = new ArrayList<>();
+        for (MessageArchiveSegment segment : run) {
+            messages.addAll(MessageArchiveCodec.decode(segment.getPayload(), conversation));
+        }
+        store(run.get(0), messages);
+        segmentRepository.deleteAll(run.subList(1, run.size()));
+        return run.size() - 1;
+    }
+
+    /**
+     * Sets the segment's payload and summary columns from its messages, oldest first.
+     */
+    private static void store(MessageArchiveSegment segment, List<MessageDto> messages) {
+        MessageDto first = messages.get(0);
+        MessageDto last = messages.get(messages.size() - 1);
+        segment.setFirstMessageId(first.getId());
+        segment.setFirstCreatedAt(first.getCreatedAt());
+        segment.setLastMessageId(last.getId());
+        segment.setLastCreatedAt(last.getCreatedAt());
+        segment.setMessageCount(messages.size());
+        Long userLowId = segment.getConversation().getUserLow().getId();
+        int unreadLow = 0;
+        int unreadHigh = 0;
+        for (MessageDto message : messages) {
+            if (!Boolean.TRUE.equals(message.getIsRead())) {
+                if (userLowId.equals(message.getReceiverId())) {
+                    unreadLow++;
+                } else {
+                    unreadHigh++;
+                }
+            }
+        }
+        segment.setUnreadLow(unreadLow);
+        segment.setUnreadHigh(unreadHigh);
+        segment.setPayload(MessageArchiveCodec.encode(messages));
+    }
+
+    private static MessageDto toArchived(Message message, boolean isRead) {
+        MessageDto archived = new MessageDto();
+        archived.setId(message.getId());
+        archived.setSenderId(message.getSender().getId());
+        archived.setReceiverId(message.getReceiver().getId());
+        archived.setContent(message.getContent());
+        archived.setExchangeId(message.getExchange() != null ? message.getExchange().getId() : null);
+        archived.setIsRead(isRead);
+        archived.setCreatedAt(message.getCreatedAt());
+        return archived;
+    }
+}
@@ -0,0 +1,360 @@
+package com.skillswap.service;
+
+import com.skillswap.dto.ConversationDto;
+import com.skillswap.dto.MessageDto;
+import com.skillswap.entity.Conversation;
+import com.skillswap.entity.Message;
+import com.skillswap.entity.SkillExchange;
+import com.skillswap.entity.User;
+import com.skillswap.messaging.MessageHub;
+import com.skillswap.messaging.MessageSubmission;
+import com.skillswap.messaging.UnreadCounters;
+import com.skillswap.pagination.Cursor;
+import com.skillswap.pagination.CursorPage;
+import com.skillswap.pagination.PaginationSettings;
+import com.skillswap.repository.MessageRepository;
+import com.skillswap.repository.SkillExchangeRepository;
+import com.skillswap.repository.UserRepository;
+import com.skillswap.util.TransactionHooks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class MessageService {
+
+    public static final String MESSAGE_EVENT = "message";
+    public static final String READ_EVENT = "read";
+    public static final String CONVERSATION_EVENT = "conversation";
+    public static final String CONVERSATION_READ_EVENT = "conversation-read";
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SkillExchangeRepository skillExchangeRepository;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private MessageArchiveService messageArchiveService;
+
+    @Autowired
+    private MessageHub messageHub;
+
+    @Autowired
+    private UnreadCounters unreadCounters;
+
+    /**
+     * Stores one message in its own transaction. The message ingest buffer
+     * uses {@link #storeAll} instead, which shares this path for a whole batch.
+     */
+    @Transactional
+    public MessageDto sendMessage(Long senderId, MessageDto messageDto) {
+        List<MessageSubmission> single = List.of(new MessageSubmission(senderId, messageDto));
+        Map<Long, User> users = loadUsers(single);
+        Map<Long, SkillExchange> exchanges = loadExchanges(single);
+        return persist(List.of(toMessage(senderId, messageDto, users, exchanges))).get(0);
+    }
+
+    /**
+     * Stores a batch of submissions in one transaction; message ids come from
+     * a pooled sequence, so the inserts go out as JDBC batches. Submissions
+     * that fail validation are completed exceptionally straight away, the
+     * rest once the batch has committed.
+     */
+    @Transactional
+    public void storeAll(List<MessageSubmission> submissions) {
+        Map<Long, User> users = loadUsers(submissions);
+        Map<Long, SkillExchange> exchanges = loadExchanges(submissions);
+        List<Message> messages = new ArrayList<>();
+        List<MessageSubmission> accepted = new ArrayList<>();
+        for (MessageSubmission submission : submissions) {
+            try {
+                messages.add(toMessage(submission.getSenderId(), submission.getMessage(), users, exchanges));
+                accepted.add(submission);
+            } catch (RuntimeException e) {
+                submission.getResult().completeExceptionally(e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        List<MessageDto> stored = persist(messages);
+        TransactionHooks.afterCommit(() -> {
+            for (int i = 0; i < accepted.size(); i++) {
+                accepted.get(i).getResult().complete(stored.get(i));
+            }
+        });
+    }
+
+    /**
+     * Saves the messages and updates their conversations and unread counts in
+     * the current transaction. Once it commits, pushes each message and each
+     * side's final view of every touched conversation to the users' streams,
+     * from the hub's fan-out thread.
+     */
+    private List<MessageDto> persist(List<Message> messages) {
+        List<Message> saved = messageRepository.saveAll(messages);
+        List<Conversation> conversations = conversationService.recordMessages(saved);
+        List<MessageDto> dtos = saved.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+
+        Map<Long, List<ConversationDto>> views = new HashMap<>();
+        conversations.stream().distinct().forEach(conversation -> {
+            Long userLowId = conversation.getUserLow().getId();
+            Long userHighId = conversation.getUserHigh().getId();
+            views.computeIfAbsent(userLowId, id -> new ArrayList<>())
+                    .add(conversationService.convertToDto(conversation, userLowId));
+            views.computeIfAbsent(userHighId, id -> new ArrayList<>())
+                    .add(conversationService.convertToDto(conversation, userHighId));
+        });
+        unreadCounters.adjustOnCommit(saved.stream()
+                .collect(Collectors.groupingBy(message -> message.getReceiver().getId(), Collectors.counting())));
+        TransactionHooks.afterCommit(() -> messageHub.publishLater(() -> {
+            for (MessageDto dto : dtos) {
+                messageHub.publish(dto.getReceiverId(), MESSAGE_EVENT, dto);
+                messageHub.publish(dto.getSenderId(), MESSAGE_EVENT, dto);
+            }
+            views.forEach((userId, userViews) -> userViews
+                    .forEach(view -> messageHub.publish(userId, CONVERSATION_EVENT, view)));
+        }));
+        return dtos;
+    }
+
+    private Message toMessage(Long senderId, MessageDto messageDto, Map<Long, User> users,
+            Map<Long, SkillExchange> exchanges) {
+        User sender = users.get(senderId);
+        if (sender == null) {
+            throw new RuntimeException("User not found with id: " + senderId);
+        }
+        User receiver = users.get(messageDto.getReceiverId());
+        if (receiver == null) {
+            throw new RuntimeException("User not found with id: " + messageDto.getReceiverId());
+        }
+        if (sender.getId().equals(receiver.getId())) {
+            throw new RuntimeException("Cannot send a message to yourself");
+        }
+
+        Message message = new Message(sender, receiver, messageDto.getContent());
+        if (messageDto.getExchangeId() != null) {
+            SkillExchange exchange = exchanges.get(messageDto.getExchangeId());
+            if (exchange == null) {
+                throw new RuntimeException("Exchange not found with id: " + messageDto.getExchangeId());
+            }
+            message.setExchange(exchange);
+        }
+        return message;
+    }
+
+    private Map<Long, User> loadUsers(List<MessageSubmission> submissions) {
+        Set<Long> userIds = new HashSet<>();
+        for (MessageSubmission submission : submissions) {
+            userIds.add(submission.getSenderId());
+            userIds.add(submission.getMessage().getReceiverId());
+        }
+        return userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    private Map<Long, SkillExchange> loadExchanges(List<MessageSubmission> submissions) {
+        Set<Long> exchangeIds = submissions.stream()
+                .map(submission -> submission.getMessage().getExchangeId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (exchangeIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return skillExchangeRepository.findAllById(exchangeIds).stream()
+                .collect(Collectors.toMap(SkillExchange::getId, Function.identity()));
+    }
+
+    public List<MessageDto> getMessages(Long userId) {
+        return messageRepository.findByUserId(userId).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Newest first; the cursor carries the creation time and id of the last
+     * message returned.
+     */
+    public CursorPage<MessageDto> getMessages(Long userId, String cursor, int limit) {
+        List<Message> messages;
+        if (cursor == null) {
+            messages = messageRepository.findRecentByUserId(userId, PaginationSettings.fetchWindow(limit));
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            messages = messageRepository.findByUserIdBefore(userId, position.sortKeyAsTimestamp(),
+                    position.getId(), PaginationSettings.fetchWindow(limit));
+        }
+        return CursorPage.of(messages, limit,
+                message -> Cursor.of(message.getCreatedAt().toString(), message.getId()),
+                rows -> rows.stream().map(this::convertToDto).collect(Collectors.toList()));
+    }
+
+    /**
+     * The conversation's messages still in the messages table, oldest first.
+     * Archived history is only reachable through the paged variant, which
+     * decodes just the segments a page needs.
+     */
+    public List<MessageDto> getConversation(Long userId, Long otherUserId) {
+        return messageRepository.findConversationBetweenUsers(userId, otherUserId).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * One conversation, newest first, paging seamlessly from the messages
+     * table into archive segments: every archived message is older than every
+     * message still in the table, so the same (creation time, id) cursor
+     * works in both tiers.
+     */
+    public CursorPage<MessageDto> getConversation(Long userId, Long otherUserId, String cursor, int limit) {
+        LocalDateTime beforeCreatedAt = null;
+        Long beforeId = null;
+        List<Message> recent;
+        if (cursor == null) {
+            recent = messageRepository.findRecentBetweenUsers(userId, otherUserId,
+                    PaginationSettings.fetchWindow(limit));
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            beforeCreatedAt = position.sortKeyAsTimestamp();
+            beforeId = position.getId();
+            recent = messageRepository.findBetweenUsersBefore(userId, otherUserId, beforeCreatedAt, beforeId,
+                    PaginationSettings.fetchWindow(limit));
+        }
+        List<MessageDto> rows = recent.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (rows.size() <= limit) {
+            if (!rows.isEmpty()) {
+                MessageDto oldest = rows.get(rows.size() - 1);
+                beforeCreatedAt = oldest.getCreatedAt();
+                beforeId = oldest.getId();
+            }
+            messageArchiveService.appendArchived(userId, otherUserId, beforeCreatedAt, beforeId, rows, limit + 1);
+        }
+        return CursorPage.of(rows, limit,
+                message -> Cursor.of(message.getCreatedAt().toString(), message.getId()),
+                Function.identity());
+    }
+
+    /**
+     * Unread messages of the user, archived ones first.
+     */
+    @Transactional(readOnly = true)
+    public List<MessageDto> getUnreadMessages(Long userId) {
+        List<MessageDto> unread = messageArchiveService.getArchivedUnread(userId);
+        messageRepository.findByReceiverIdAndIsReadFalse(userId).stream()
+                .map(this::convertToDto)
+                .forEach(unread::add);
+        return unread;
+    }
+
+    /**
+     * Served from {@link UnreadCounters}; only the first call for a user
+     * counts in the database.
+     */
+    public Long getUnreadCount(Long userId) {
+        return unreadCounters.get(userId);
+    }
+
+    /**
+     * Marks a message read by its receiver and tells the sender's streams.
+     * The conditional UPDATE decides who flips the flag, so racing with
+     * {@link #markConversationRead} or a second call counts the read once.
+     * Archived messages are marked in their segment; an archived message that
+     * is already read is reported as not found.
+     */
+    @Transactional
+    public MessageDto markAsRead(Long id, Long userId) {
+        Message message = messageRepository.findById(id).orElse(null);
+        if (message == null) {
+            return recordRead(messageArchiveService.markRead(id, userId), id, userId);
+        }
+        if (!message.getReceiver().getId().equals(userId)) {
+            throw new RuntimeException("Only the receiver can mark a message as read");
+        }
+        // Conversation before message row, the order markConversationRead locks them in
+        Conversation conversation = conversationService.lockConversation(userId, message.getSender().getId());
+        int marked = messageRepository.markReadIfUnread(id, userId);
+        if (marked == 0 && conversation != null && !messageRepository.existsById(id)) {
+            // Archived after it was loaded above
+            return recordRead(messageArchiveService.markRead(conversation, id, userId), id, userId);
+        }
+        MessageDto read = convertToDto(message);
+        read.setIsRead(true);
+        if (marked == 0) {
+            return read;
+        }
+        return recordRead(read, id, userId);
+    }
+
+    private MessageDto recordRead(MessageDto read, Long id, Long userId) {
+        if (read == null) {
+            throw new RuntimeException("Message not found with id: " + id);
+        }
+        Conversation conversation = conversationService.lockConversation(userId, read.getSenderId());
+        if (conversation != null) {
+            conversation.recordRead(userId, 1);
+        }
+        unreadCounters.adjustOnCommit(userId, -1);
+        TransactionHooks.afterCommit(() -> messageHub.publish(read.getSenderId(), READ_EVENT, read));
+        return read;
+    }
+
+    /**
+     * Marks everything the partner sent to the reader as read with one UPDATE,
+     * however long the conversation, and rewrites only the archive segments
+     * still holding messages the reader has not read. The partner's streams
+     * get the reader's view of the conversation as a "conversation-read" event.
+     */
+    @Transactional
+    public ConversationDto markConversationRead(Long readerId, Long partnerId) {
+        Conversation conversation = conversationService.recordConversationRead(readerId, partnerId);
+        if (conversation == null) {
+            throw new RuntimeException("Conversation not found with user id: " + partnerId);
+        }
+        int marked = messageRepository.markReadFromSender(readerId, partnerId)
+                + messageArchiveService.markConversationRead(conversation, readerId);
+        unreadCounters.adjustOnCommit(readerId, -marked);
+        ConversationDto readerView = conversationService.convertToDto(conversation, readerId);
+        TransactionHooks.afterCommit(() -> {
+            messageHub.publish(readerId, CONVERSATION_EVENT, readerView);
+            messageHub.publish(partnerId, CONVERSATION_READ_EVENT, readerView);
+        });
+        return readerView;
+    }
+
+    public MessageDto convertToDto(Message message) {
+        MessageDto dto = new MessageDto();
+        dto.setId(message.getId());
+        dto.setSenderId(message.getSender().getId());
+        dto.setReceiverId(message.getReceiver().getId());
+        dto.setSenderName(message.getSender().getUsername());
+        dto.setReceiverName(message.getReceiver().getUsername());
+        dto.setContent(message.getContent());
+        dto.setExchangeId(message.getExchange() != null ? message.getExchange().getId() : null);
+        dto.setIsRead(message.getIsRead());
+        dto.setCreatedAt(message.getCreatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,122 @@
+package com.skillswap.service;
+
+import com.skillswap.dto.SkillExchangeDto;
+import com.skillswap.dto.UserDto;
+import com.skillswap.dto.UserProfileDto;
+import com.skillswap.dto.UserSkillDto;
+import com.skillswap.entity.User;
+import com.skillswap.entity.UserReputation;
+import com.skillswap.repository.SkillExchangeRepository;
+import com.skillswap.repository.UserRepository;
+import com.skillswap.repository.UserSkillRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Assembles a profile page in one request: the user with their reputation,
+ * their skills and, on their own profile, their active exchanges. Each part
+ * is a single query that depends only on the user id, so all of them run at
+ * once on a small dedicated pool and the request waits for the slowest
+ * instead of the sum. When the pool and its queue are full, the request thread
+ * loads the remaining parts itself. The query count stays at four however
+ * many skills or exchanges the user has.
+ */
+@Service
+public class ProfileService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSkillRepository userSkillRepository;
+
+    @Autowired
+    private SkillExchangeRepository skillExchangeRepository;
+
+    @Autowired
+    private ReputationService reputationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ExchangeService exchangeService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${skillswap.profile.threads}")
+    private int threads;
+
+    @Value("${skillswap.profile.queue-capacity}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+    private ExecutorService taskExecutor;
+
+    @PostConstruct
+    void start() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "profile-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        taskExecutor = ExecutorServiceMetrics.monitor(meterRegistry, executor, "profile");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public UserProfileDto getProfile(Long userId, Long viewerId) {
+        CompletableFuture<User> user = CompletableFuture.supplyAsync(() -> userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId)), taskExecutor);
+        CompletableFuture<UserReputation> reputation = CompletableFuture.supplyAsync(
+                () -> reputationService.getReputations(List.of(userId)).get(userId), taskExecutor);
+        CompletableFuture<List<UserSkillDto>> skills = CompletableFuture.supplyAsync(
+                () -> userSkillRepository.findByUserId(userId), taskExecutor);
+        CompletableFuture<List<SkillExchangeDto>> activeExchanges = userId.equals(viewerId)
+                ? CompletableFuture.supplyAsync(
+                        () -> skillExchangeRepository.findActiveWithDetailsByUserId(userId).stream()
+                                .map(exchangeService::convertToDto)
+                                .collect(Collectors.toList()), taskExecutor)
+                : CompletableFuture.completedFuture(null);
+
+        UserDto userDto = userService.convertToDto(join(user));
+        userService.applyReputation(userDto, join(reputation));
+        return new UserProfileDto(userDto, join(skills), join(activeExchanges));
+    }
+
+    private static <T> T join(CompletableFuture<T> part) {
+        try {
+            return part.join();
+        } catch (CompletionException e) {
+            // Surface the part's own exception, as if it had been loaded on the request thread
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
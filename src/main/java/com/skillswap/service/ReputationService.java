@@ -0,0 +1,314 @@
+package com.skillswap.service;
+
+import com.skillswap.entity.SkillExchange;
+import com.skillswap.entity.SkillExchange.ExchangeStatus;
+import com.skillswap.entity.UserReputation;
+import com.skillswap.event.ReputationChangedEvent;
+import com.skillswap.repository.SkillExchangeRepository;
+import com.skillswap.repository.UserRepository;
+import com.skillswap.repository.UserReputationRepository;
+import com.skillswap.util.Batches;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the user_reputation read model. Exchange completions and ratings
+ * adjust it inside their own transaction; {@link #verify()} recomputes every
+ * user's totals from skill_exchanges, repairs rows that drifted and reports
+ * how many did.
+ */
+@Service
+public class ReputationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReputationService.class);
+
+    // Decay weights grow from this instant instead of shrinking towards now, so a
+    // new rating only ever adds to the stored sums
+    private static final LocalDateTime DECAY_EPOCH = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    // Relative difference below which recomputed decayed sums count as equal
+    private static final double DECAY_TOLERANCE = 1e-9;
+
+    @Autowired
+    private UserReputationRepository userReputationRepository;
+
+    @Autowired
+    private SkillExchangeRepository skillExchangeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Creates missing rows outside the caller's transaction, which a duplicate key would abort
+    private TransactionTemplate insertTemplate;
+
+    @Value("${skillswap.reputation.half-life-days}")
+    private double halfLifeDays;
+
+    private volatile long lastDrift;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("skillswap.reputation.drift", this, service -> service.lastDrift)
+                .description("Users whose reputation totals were wrong at the last verification")
+                .register(meterRegistry);
+        insertTemplate = new TransactionTemplate(transactionManager);
+        insertTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional
+    public void initialize(Long userId) {
+        if (!userReputationRepository.existsById(userId)) {
+            userReputationRepository.save(new UserReputation(userId));
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCompleted(SkillExchange exchange) {
+        double weight = decayWeight(exchange.getCompletedDate(), exchange.getCreatedAt());
+        List<Long> userIds = List.of(exchange.getRequester().getId(), exchange.getProvider().getId());
+        for (Long userId : userIds) {
+            if (userReputationRepository.addCompleted(userId, weight) == 0) {
+                createIfAbsent(userId);
+                userReputationRepository.addCompleted(userId, weight);
+            }
+        }
+        eventPublisher.publishEvent(new ReputationChangedEvent(userIds));
+    }
+
+    /**
+     * Credits a rating to the party it was given to: the requester's rating
+     * goes to the provider and the provider's rating to the requester.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRating(SkillExchange exchange, boolean byRequester, int rating) {
+        if (byRequester) {
+            Long providerId = exchange.getProvider().getId();
+            double weight = decayWeight(exchange.getCompletedDate(), exchange.getCreatedAt());
+            if (userReputationRepository.addProviderRating(providerId, rating, rating * weight, weight) == 0) {
+                createIfAbsent(providerId);
+                userReputationRepository.addProviderRating(providerId, rating, rating * weight, weight);
+            }
+            eventPublisher.publishEvent(new ReputationChangedEvent(List.of(providerId)));
+        } else {
+            Long requesterId = exchange.getRequester().getId();
+            if (userReputationRepository.addRequesterRating(requesterId, rating) == 0) {
+                createIfAbsent(requesterId);
+                userReputationRepository.addRequesterRating(requesterId, rating);
+            }
+        }
+    }
+
+    /**
+     * Reputation of each given user that has any, in one query per
+     * {@link Batches#MAX_IN_LIST} users.
+     */
+    public Map<Long, UserReputation> getReputations(Collection<Long> userIds) {
+        Map<Long, UserReputation> reputations = new HashMap<>();
+        for (List<Long> batch : Batches.partition(userIds, Batches.MAX_IN_LIST)) {
+            reputations.putAll(userReputationRepository.findAllById(batch).stream()
+                    .collect(Collectors.toMap(UserReputation::getUserId, Function.identity())));
+        }
+        return reputations;
+    }
+
+    /**
+     * Completed exchanges as of now, each counted half as much per half-life
+     * since it completed.
+     */
+    public double recentCompletions(UserReputation reputation) {
+        return recentCompletions(reputation.getCompletedDecayedWeight());
+    }
+
+    public double recentCompletions(double completedDecayedWeight) {
+        return completedDecayedWeight / decayWeight(LocalDateTime.now(), null);
+    }
+
+    /**
+     * Compares every row with totals recomputed from skill_exchanges, without
+     * locks. Each row that differs, or is missing, is then repaired in its own
+     * transaction under the row's lock, from a recount of that user alone: an
+     * adjustment committed by then is in the recount, and one still to come
+     * applies its delta on top of the repair, so neither is lost.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${skillswap.reputation.verify-cron}")
+    public void verify() {
+        Map<Long, UserReputation> existing = userReputationRepository.findAll().stream()
+                .collect(Collectors.toMap(UserReputation::getUserId, Function.identity()));
+        Map<Long, UserReputation> actual = expectedTotals(userRepository.findAllIds(),
+                skillExchangeRepository.findReputationSources());
+
+        List<Long> changed = new ArrayList<>();
+        int created = 0;
+        int drifted = 0;
+        for (UserReputation expected : actual.values()) {
+            Long userId = expected.getUserId();
+            UserReputation stored = existing.get(userId);
+            if (stored == null) {
+                createIfAbsent(userId);
+                created++;
+            } else if (matches(stored, expected)) {
+                continue;
+            }
+            // The snapshot may be stale; only a difference confirmed under the lock is drift
+            if (Boolean.TRUE.equals(transactionTemplate.execute(tx -> repair(userId)))) {
+                changed.add(userId);
+                if (stored != null) {
+                    drifted++;
+                }
+            }
+        }
+        lastDrift = drifted;
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new ReputationChangedEvent(changed));
+        }
+        if (drifted == 0) {
+            log.info("Verified reputation for {} users ({} rows created, no drift)", actual.size(), created);
+        } else {
+            log.warn("Verified reputation for {} users ({} rows created, {} drifted and repaired)",
+                    actual.size(), created, drifted);
+        }
+    }
+
+    private boolean repair(Long userId) {
+        UserReputation stored = userReputationRepository.findByIdForUpdate(userId).orElse(null);
+        if (stored == null) {
+            return false;
+        }
+        UserReputation expected = expectedTotals(List.of(userId),
+                skillExchangeRepository.findReputationSourcesByUserId(userId)).get(userId);
+        if (matches(stored, expected)) {
+            return false;
+        }
+        copyTotals(expected, stored);
+        stored.setRepairedAt(LocalDateTime.now());
+        return true;
+    }
+
+    /**
+     * Totals of the given users from the exchanges; parties outside the set are skipped.
+     */
+    private Map<Long, UserReputation> expectedTotals(Collection<Long> userIds,
+            List<SkillExchangeRepository.ReputationSource> exchanges) {
+        Map<Long, UserReputation> totals = userIds.stream()
+                .collect(Collectors.toMap(Function.identity(), UserReputation::new));
+        for (SkillExchangeRepository.ReputationSource exchange : exchanges) {
+            UserReputation requester = totals.get(exchange.getRequesterId());
+            UserReputation provider = totals.get(exchange.getProviderId());
+            double weight = decayWeight(exchange.getCompletedDate(), exchange.getCreatedAt());
+            if (exchange.getStatus() == ExchangeStatus.COMPLETED) {
+                for (UserReputation party : Arrays.asList(requester, provider)) {
+                    if (party != null) {
+                        party.setCompletedCount(party.getCompletedCount() + 1);
+                        party.setCompletedDecayedWeight(party.getCompletedDecayedWeight() + weight);
+                    }
+                }
+            }
+            if (exchange.getRequesterRating() != null && provider != null) {
+                int rating = exchange.getRequesterRating();
+                provider.setProviderRatingSum(provider.getProviderRatingSum() + rating);
+                provider.setProviderRatingCount(provider.getProviderRatingCount() + 1);
+                provider.setProviderDecayedSum(provider.getProviderDecayedSum() + rating * weight);
+                provider.setProviderDecayedWeight(provider.getProviderDecayedWeight() + weight);
+            }
+            if (exchange.getProviderRating() != null && requester != null) {
+                requester.setRequesterRatingSum(requester.getRequesterRatingSum() + exchange.getProviderRating());
+                requester.setRequesterRatingCount(requester.getRequesterRatingCount() + 1);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Inserts an empty row unless one exists. Rows are normally created with the
+     * user; this covers users that predate the read model. Concurrent callers may
+     * both try; the loser's duplicate key only rolls back its own insert.
+     */
+    private void createIfAbsent(Long userId) {
+        try {
+            insertTemplate.executeWithoutResult(tx -> {
+                if (!userReputationRepository.existsById(userId)) {
+                    userReputationRepository.saveAndFlush(new UserReputation(userId));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Reputation row for user {} created concurrently", userId);
+        }
+    }
+
+    /**
+     * Weight of a rating or completion in the decayed sums: doubles every
+     * half-life after {@link #DECAY_EPOCH}, so older ones count for relatively less.
+     */
+    private double decayWeight(LocalDateTime completedDate, LocalDateTime createdAt) {
+        LocalDateTime ratedAt = completedDate != null ? completedDate : createdAt;
+        double days = Duration.between(DECAY_EPOCH, ratedAt).toSeconds() / 86400.0;
+        return Math.pow(2.0, days / halfLifeDays);
+    }
+
+    private static boolean matches(UserReputation stored, UserReputation expected) {
+        return Objects.equals(stored.getProviderRatingSum(), expected.getProviderRatingSum())
+                && Objects.equals(stored.getProviderRatingCount(), expected.getProviderRatingCount())
+                && Objects.equals(stored.getRequesterRatingSum(), expected.getRequesterRatingSum())
+                && Objects.equals(stored.getRequesterRatingCount(), expected.getRequesterRatingCount())
+                && Objects.equals(stored.getCompletedCount(), expected.getCompletedCount())
+                && closeEnough(stored.getCompletedDecayedWeight(), expected.getCompletedDecayedWeight())
+                && closeEnough(stored.getProviderDecayedSum(), expected.getProviderDecayedSum())
+                && closeEnough(stored.getProviderDecayedWeight(), expected.getProviderDecayedWeight());
+    }
+
+    private static boolean closeEnough(double stored, double expected) {
+        return Math.abs(stored - expected) <= DECAY_TOLERANCE * Math.max(1.0, Math.abs(expected));
+    }
+
+    private static void copyTotals(UserReputation from, UserReputation to) {
+        to.setProviderRatingSum(from.getProviderRatingSum());
+        to.setProviderRatingCount(from.getProviderRatingCount());
+        to.setRequesterRatingSum(from.getRequesterRatingSum());
+        to.setRequesterRatingCount(from.getRequesterRatingCount());
+        to.setCompletedCount(from.getCompletedCount());
+        to.setCompletedDecayedWeight(from.getCompletedDecayedWeight());
+        to.setProviderDecayedSum(from.getProviderDecayedSum());
+        to.setProviderDecayedWeight(from.getProviderDecayedWeight());
+    }
+}
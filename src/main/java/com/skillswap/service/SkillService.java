@@ -1,13 +1,30 @@
 package com.skillswap.service;
 
 import com.skillswap.dto.SkillDto;
+import com.skillswap.dto.SkillSuggestionDto;
 import com.skillswap.entity.Skill;
+import com.skillswap.entity.UserSkill;
+import com.skillswap.pagination.Cursor;
+import com.skillswap.pagination.CursorPage;
+import com.skillswap.pagination.PaginationSettings;
 import com.skillswap.repository.SkillRepository;
+import com.skillswap.repository.SkillStatsRepository;
 import com.skillswap.repository.UserSkillRepository;
+import com.skillswap.search.InvertedIndex;
+import com.skillswap.search.SearchIndexService;
+import com.skillswap.util.Batches;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,6 +36,22 @@ public class SkillService {
     @Autowired
     private UserSkillRepository userSkillRepository;
 
+    @Autowired
+    private SkillStatsRepository skillStatsRepository;
+
+    @Autowired
+    private SkillStatsService skillStatsService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Value("${skillswap.popular.max-limit}")
+    private int maxPopularLimit;
+
+    @Value("${skillswap.search.max-suggestions}")
+    private int maxSuggestLimit;
+
+    @Transactional
     public SkillDto createSkill(SkillDto skillDto) {
         Skill skill = new Skill();
         skill.setName(skillDto.getName());
@@ -27,47 +60,76 @@ public class SkillService {
         skill.setIconUrl(skillDto.getIconUrl());
 
         Skill savedSkill = skillRepository.save(skill);
+        skillStatsService.initialize(savedSkill.getId());
+        searchIndexService.indexSkill(savedSkill);
         return convertToDto(savedSkill);
     }
 
+    @Transactional(readOnly = true)
     public SkillDto getSkillById(Long id) {
         Skill skill = skillRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Skill not found with id: " + id));
         return convertToDto(skill);
     }
 
+    @Transactional(readOnly = true)
     public List<SkillDto> getAllSkills() {
         List<Skill> skills = skillRepository.findByIsActiveTrue();
-        return skills.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(skills);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<SkillDto> getAllSkills(String cursor, int limit) {
+        List<Skill> skills = skillRepository.findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(
+                Cursor.afterId(cursor), PaginationSettings.fetchWindow(limit));
+        return CursorPage.of(skills, limit, skill -> Cursor.ofId(skill.getId()), this::convertToDtos);
+    }
+
+    @Transactional(readOnly = true)
     public List<SkillDto> getSkillsByCategory(String category) {
         List<Skill> skills = skillRepository.findByCategory(category);
-        return skills.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(skills);
     }
 
-    public List<SkillDto> searchSkills(String query) {
-        List<Skill> skills = skillRepository.searchSkills(query);
-        return skills.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<SkillDto> getSkillsByCategory(String category, String cursor, int limit) {
+        List<Skill> skills = skillRepository.findByCategoryAndIdGreaterThanOrderByIdAsc(
+                category, Cursor.afterId(cursor), PaginationSettings.fetchWindow(limit));
+        return CursorPage.of(skills, limit, skill -> Cursor.ofId(skill.getId()), this::convertToDtos);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SkillDto> searchSkills(String query, String category) {
+        return convertToDtos(loadRanked(rankedSkillHits(query, category)));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<SkillDto> searchSkills(String query, String category, String cursor, int limit) {
+        List<InvertedIndex.Hit> hits = searchIndexService.searchSkillsAfter(query, category, cursor, limit);
+        if (hits.isEmpty() && !searchIndexService.hasSkillMatches(query)) {
+            // Typo fallback: few enough names match that ranking them all per page is cheap
+            hits = SearchIndexService.pageAfter(searchIndexService.fuzzySearchSkills(query, category), cursor, limit);
+        }
+        return CursorPage.of(hits, limit, SearchIndexService::cursorOf, page -> convertToDtos(loadRanked(page)));
     }
 
+    public List<SkillSuggestionDto> suggestSkills(String prefix, int limit) {
+        return searchIndexService.suggestSkills(prefix, Math.max(1, Math.min(limit, maxSuggestLimit)));
+    }
+
+    @Transactional(readOnly = true)
     public List<String> getCategories() {
         return skillRepository.findDistinctCategories();
     }
 
-    public List<SkillDto> getMostPopularSkills() {
-        List<Skill> skills = skillRepository.findMostPopularSkills();
-        return skills.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<SkillDto> getMostPopularSkills(int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, maxPopularLimit));
+        List<Skill> skills = skillStatsRepository.findMostPopularSkills(PageRequest.of(0, boundedLimit));
+        return convertToDtos(skills);
     }
 
+    @Transactional
     public SkillDto updateSkill(Long id, SkillDto skillDto) {
         Skill skill = skillRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Skill not found with id: " + id));
@@ -78,18 +140,78 @@ public class SkillService {
         skill.setIconUrl(skillDto.getIconUrl());
 
         Skill updatedSkill = skillRepository.save(skill);
+        searchIndexService.indexSkill(updatedSkill);
         return convertToDto(updatedSkill);
     }
 
+    @Transactional
     public void deleteSkill(Long id) {
         Skill skill = skillRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Skill not found with id: " + id));
 
         skill.setIsActive(false);
         skillRepository.save(skill);
+        searchIndexService.indexSkill(skill);
+    }
+
+    /**
+     * Full-text hits, falling back to typo-tolerant name matching when the
+     * query matches no indexed term. A null category matches all.
+     */
+    private List<InvertedIndex.Hit> rankedSkillHits(String query, String category) {
+        if (!searchIndexService.hasSkillMatches(query)) {
+            return searchIndexService.fuzzySearchSkills(query, category);
+        }
+        return searchIndexService.searchSkills(query, category);
+    }
+
+    private List<Skill> loadRanked(List<InvertedIndex.Hit> hits) {
+        List<Long> ids = hits.stream()
+                .map(InvertedIndex.Hit::getId)
+                .collect(Collectors.toList());
+        Map<Long, Skill> skillsById = new HashMap<>();
+        for (List<Long> batch : Batches.partition(ids, Batches.MAX_IN_LIST)) {
+            skillsById.putAll(skillRepository.findAllById(batch).stream()
+                    .collect(Collectors.toMap(Skill::getId, Function.identity())));
+        }
+        return ids.stream()
+                .map(skillsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     public SkillDto convertToDto(Skill skill) {
+        return convertToDtos(Collections.singletonList(skill)).get(0);
+    }
+
+    /**
+     * Maps a page of skills to DTOs, resolving the offering-user counts for the
+     * whole page with a single grouped query instead of one count per skill.
+     * The unpaged legacy lists take one query per {@link Batches#MAX_IN_LIST}
+     * skills, so no statement binds an unbounded IN list.
+     */
+    public List<SkillDto> convertToDtos(List<Skill> skills) {
+        if (skills.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> skillIds = skills.stream()
+                .map(Skill::getId)
+                .collect(Collectors.toList());
+        Map<Long, Long> userCounts = new HashMap<>();
+        for (List<Long> batch : Batches.partition(skillIds, Batches.MAX_IN_LIST)) {
+            for (UserSkillRepository.SkillUserCount count : userSkillRepository
+                    .countBySkillIdsAndSkillType(batch, UserSkill.SkillType.OFFER)) {
+                userCounts.put(count.getSkillId(), count.getUserCount());
+            }
+        }
+
+        return skills.stream()
+                .map(skill -> toDto(skill, userCounts.getOrDefault(skill.getId(), 0L)))
+                .collect(Collectors.toList());
+    }
+
+    private SkillDto toDto(Skill skill, Long userCount) {
         SkillDto dto = new SkillDto();
         dto.setId(skill.getId());
         dto.setName(skill.getName());
@@ -97,13 +219,7 @@ public class SkillService {
         dto.setCategory(skill.getCategory());
         dto.setIconUrl(skill.getIconUrl());
         dto.setIsActive(skill.getIsActive());
-
-        // Get user count for this skill
-        Long userCount = userSkillRepository.countBySkillIdAndSkillType(
-                skill.getId(),
-                com.skillswap.entity.UserSkill.SkillType.OFFER);
         dto.setUserCount(userCount);
-
         return dto;
     }
 
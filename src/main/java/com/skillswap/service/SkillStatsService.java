@@ -0,0 +1,185 @@
+package com.skillswap.service;
+
+import com.skillswap.entity.SkillStats;
+import com.skillswap.entity.UserSkill;
+import com.skillswap.repository.SkillRepository;
+import com.skillswap.repository.SkillStatsRepository;
+import com.skillswap.repository.UserSkillRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the skill_stats read model. Counters are adjusted inside the same
+ * transaction as the user-skill write; {@link #rebuild()} recomputes them from
+ * user_skills to repair any drift. A repair locks the row and recounts the
+ * skill before writing, so it never overwrites a concurrent adjustment.
+ */
+@Service
+public class SkillStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(SkillStatsService.class);
+
+    @Autowired
+    private SkillStatsRepository skillStatsRepository;
+
+    @Autowired
+    private UserSkillRepository userSkillRepository;
+
+    @Autowired
+    private SkillRepository skillRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Creates missing rows outside the caller's transaction, which a duplicate key would abort
+    private TransactionTemplate insertTemplate;
+
+    @PostConstruct
+    void createInsertTemplate() {
+        insertTemplate = new TransactionTemplate(transactionManager);
+        insertTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional
+    public void initialize(Long skillId) {
+        if (!skillStatsRepository.existsById(skillId)) {
+            skillStatsRepository.save(new SkillStats(skillId));
+        }
+    }
+
+    @Transactional
+    public void recordAdded(UserSkill userSkill) {
+        applyDelta(userSkill.getSkill().getId(), userSkill.getSkillType(), 1, isAvailableProvider(userSkill) ? 1 : 0);
+    }
+
+    @Transactional
+    public void recordRemoved(UserSkill userSkill) {
+        applyDelta(userSkill.getSkill().getId(), userSkill.getSkillType(), -1, isAvailableProvider(userSkill) ? -1 : 0);
+    }
+
+    @Transactional
+    public void recordAvailabilityChanged(UserSkill userSkill, boolean wasAvailable) {
+        if (userSkill.getSkillType() != UserSkill.SkillType.OFFER) {
+            return;
+        }
+        boolean isAvailable = Boolean.TRUE.equals(userSkill.getIsAvailable());
+        if (wasAvailable != isAvailable) {
+            applyDelta(userSkill.getSkill().getId(), userSkill.getSkillType(), 0, isAvailable ? 1 : -1);
+        }
+    }
+
+    /**
+     * Compares the counters with user_skills and repairs the skills that
+     * differ, each in its own short transaction. The comparison is only a
+     * filter: it reads both tables without a lock, so a repair re-checks the
+     * skill under the row lock and skips it if a concurrent write explains
+     * the difference.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${skillswap.stats.rebuild-cron}")
+    public void rebuild() {
+        Map<Long, SkillStats> existing = skillStatsRepository.findAll().stream()
+                .collect(Collectors.toMap(SkillStats::getSkillId, Function.identity()));
+        Map<Long, UserSkillRepository.SkillTypeCounts> counts = userSkillRepository
+                .countGroupedBySkill(UserSkill.SkillType.OFFER, UserSkill.SkillType.SEEK)
+                .stream()
+                .collect(Collectors.toMap(UserSkillRepository.SkillTypeCounts::getSkillId, Function.identity()));
+
+        int created = 0;
+        int drifted = 0;
+        List<Long> skillIds = skillRepository.findAllIds();
+        for (Long skillId : skillIds) {
+            SkillStats stats = existing.get(skillId);
+            if (stats == null) {
+                createIfAbsent(skillId);
+                created++;
+            } else if (matches(stats, counts.get(skillId))) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(transactionTemplate.execute(tx -> repair(skillId)))) {
+                drifted++;
+            }
+        }
+        log.info("Rebuilt skill stats for {} skills ({} rows created, {} repaired)", skillIds.size(), created,
+                drifted);
+    }
+
+    private boolean repair(Long skillId) {
+        // A user-skill write adjusts the row in its own transaction, so once the row is locked
+        // every such write has either committed into both the recount and the counters, or
+        // has yet to apply its delta
+        SkillStats stats = skillStatsRepository.findByIdForUpdate(skillId).orElse(null);
+        if (stats == null) {
+            return false;
+        }
+        UserSkillRepository.SkillTypeCounts actual = userSkillRepository
+                .countForSkill(skillId, UserSkill.SkillType.OFFER, UserSkill.SkillType.SEEK)
+                .orElse(null);
+        if (matches(stats, actual)) {
+            return false;
+        }
+        stats.setOfferCount(actual != null ? actual.getOfferCount() : 0L);
+        stats.setSeekCount(actual != null ? actual.getSeekCount() : 0L);
+        stats.setAvailableProviderCount(actual != null ? actual.getAvailableProviderCount() : 0L);
+        stats.setRebuiltAt(LocalDateTime.now());
+        return true;
+    }
+
+    private static boolean matches(SkillStats stats, UserSkillRepository.SkillTypeCounts actual) {
+        long offers = actual != null ? actual.getOfferCount() : 0L;
+        long seeks = actual != null ? actual.getSeekCount() : 0L;
+        long available = actual != null ? actual.getAvailableProviderCount() : 0L;
+        return stats.getOfferCount() == offers && stats.getSeekCount() == seeks
+                && stats.getAvailableProviderCount() == available;
+    }
+
+    private void applyDelta(Long skillId, UserSkill.SkillType skillType, long delta, long availableDelta) {
+        long offerDelta = skillType == UserSkill.SkillType.OFFER ? delta : 0;
+        long seekDelta = skillType == UserSkill.SkillType.SEEK ? delta : 0;
+        if (skillStatsRepository.applyDelta(skillId, offerDelta, seekDelta, availableDelta) == 0) {
+            // Row is normally created with the skill; fall back for skills that predate the read model.
+            createIfAbsent(skillId);
+            skillStatsRepository.applyDelta(skillId, offerDelta, seekDelta, availableDelta);
+        }
+    }
+
+    /**
+     * Inserts an empty counter row unless one exists. Concurrent callers may
+     * both try; the loser's duplicate key only rolls back its own insert.
+     */
+    private void createIfAbsent(Long skillId) {
+        try {
+            insertTemplate.executeWithoutResult(tx -> {
+                if (!skillStatsRepository.existsById(skillId)) {
+                    skillStatsRepository.saveAndFlush(new SkillStats(skillId));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another transaction created the row first
+        }
+    }
+
+    private boolean isAvailableProvider(UserSkill userSkill) {
+        return userSkill.getSkillType() == UserSkill.SkillType.OFFER && Boolean.TRUE.equals(userSkill.getIsAvailable());
+    }
+}
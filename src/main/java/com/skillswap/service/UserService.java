@@ -2,16 +2,37 @@ package com.skillswap.service;
 
 import com.skillswap.dto.UserDto;
 import com.skillswap.entity.User;
+import com.skillswap.entity.UserReputation;
+import com.skillswap.geo.GeoGridIndex;
+import com.skillswap.geo.GeoIndexService;
+import com.skillswap.geo.GeoPoint;
+import com.skillswap.pagination.Cursor;
+import com.skillswap.pagination.CursorPage;
+import com.skillswap.pagination.PaginationSettings;
 import com.skillswap.repository.UserRepository;
+import com.skillswap.search.InvertedIndex;
+import com.skillswap.search.SearchIndexService;
+import com.skillswap.security.AuthenticatedUser;
+import com.skillswap.security.PrincipalCache;
+import com.skillswap.security.TokenRevocationService;
+import com.skillswap.util.Batches;
+import com.skillswap.util.TransactionHooks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,18 +45,32 @@ public class UserService implements UserDetailsService {
     @Lazy
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private GeoIndexService geoIndexService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private ReputationService reputationService;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities("ROLE_USER")
-                .build();
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getPassword(),
+                Boolean.TRUE.equals(user.getIsActive()), tokenVersionOf(user),
+                AuthorityUtils.createAuthorityList("ROLE_USER"));
     }
 
+    @Transactional
     public UserDto createUser(UserDto userDto) {
         User user = new User();
         user.setUsername(userDto.getUsername());
@@ -45,16 +80,32 @@ public class UserService implements UserDetailsService {
         user.setLastName(userDto.getLastName());
         user.setBio(userDto.getBio());
         user.setLocation(userDto.getLocation());
+        geoIndexService.applyCoordinates(user, userDto.getLocation());
         user.setProfileImageUrl(userDto.getProfileImageUrl());
 
         User savedUser = userRepository.save(user);
+        reputationService.initialize(savedUser.getId());
+        searchIndexService.indexUser(savedUser);
+        geoIndexService.indexUser(savedUser);
         return convertToDto(savedUser);
     }
 
+    @Transactional(readOnly = true)
     public UserDto getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
-        return convertToDto(user);
+        return withReputation(List.of(convertToDto(user))).get(0);
+    }
+
+    /**
+     * Id of the authenticated caller. Token principals carry it, so most
+     * requests skip the user lookup.
+     */
+    public Long getCurrentUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user && user.getId() != null) {
+            return user.getId();
+        }
+        return getUserByUsername(authentication.getName()).getId();
     }
 
     public UserDto getUserByUsername(String username) {
@@ -63,6 +114,7 @@ public class UserService implements UserDetailsService {
         return convertToDto(user);
     }
 
+    @Transactional
     public UserDto updateUser(Long id, UserDto userDto) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
@@ -71,24 +123,96 @@ public class UserService implements UserDetailsService {
         user.setLastName(userDto.getLastName());
         user.setBio(userDto.getBio());
         user.setLocation(userDto.getLocation());
+        geoIndexService.applyCoordinates(user, userDto.getLocation());
         user.setProfileImageUrl(userDto.getProfileImageUrl());
 
         User updatedUser = userRepository.save(user);
+        searchIndexService.indexUser(updatedUser);
+        geoIndexService.indexUser(updatedUser);
+        String username = updatedUser.getUsername();
+        TransactionHooks.afterCommit(() -> principalCache.invalidate(username));
         return convertToDto(updatedUser);
     }
 
+    /**
+     * Invalidates every token issued to the user so far. Call this whenever the
+     * user's password changes or the account is deactivated.
+     */
+    @Transactional
+    public void revokeAllTokens(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        int newVersion = tokenVersionOf(user) + 1;
+        user.setTokenVersion(newVersion);
+        userRepository.save(user);
+        tokenRevocationService.revokeAllForUser(userId, newVersion);
+        String username = user.getUsername();
+        TransactionHooks.afterCommit(() -> principalCache.invalidate(username));
+    }
+
+    /**
+     * Deactivates the account. Token principals are built from claims without a
+     * lookup, so the user's tokens are revoked rather than left valid until expiry.
+     */
+    @Transactional
+    public void deactivateUser(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        user.setIsActive(false);
+        userRepository.save(user);
+        revokeAllTokens(userId);
+    }
+
+    private static int tokenVersionOf(User user) {
+        return user.getTokenVersion() != null ? user.getTokenVersion() : 0;
+    }
+
+    @Transactional(readOnly = true)
     public List<UserDto> searchUsers(String query) {
-        List<User> users = userRepository.searchUsers(query);
-        return users.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(loadRanked(searchIndexService.searchUsers(query)));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> searchUsers(String query, String cursor, int limit) {
+        List<InvertedIndex.Hit> hits = searchIndexService.searchUsersAfter(query, cursor, limit);
+        return CursorPage.of(hits, limit, SearchIndexService::cursorOf, page -> convertToDtos(loadRanked(page)));
     }
 
+    @Transactional(readOnly = true)
     public List<UserDto> getUsersByLocation(String location) {
-        List<User> users = userRepository.findByLocationContaining(location);
-        return users.stream()
-                .map(this::convertToDto)
+        return convertToDtos(userRepository.findByLocationContaining(location));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> getUsersByLocation(String location, String cursor, int limit) {
+        List<User> users = userRepository.findByLocationContainingAndIdGreaterThanOrderByIdAsc(
+                location, Cursor.afterId(cursor), PaginationSettings.fetchWindow(limit));
+        return CursorPage.of(users, limit, user -> Cursor.ofId(user.getId()), this::convertToDtos);
+    }
+
+    /**
+     * Users near {@code center}, nearest first, each with their distance.
+     */
+    @Transactional(readOnly = true)
+    public List<UserDto> getNearbyUsers(GeoPoint center, Double radiusKm, int limit, Long excludeUserId) {
+        // One extra hit so the list stays full when the caller is among the nearest
+        List<GeoGridIndex.Hit> hits = geoIndexService.findNearby(center, radiusKm, limit + 1).stream()
+                .filter(hit -> excludeUserId == null || hit.getUserId() != excludeUserId)
+                .limit(limit)
                 .collect(Collectors.toList());
+        Map<Long, User> users = userRepository.findAllById(hits.stream()
+                        .map(GeoGridIndex.Hit::getUserId)
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return withReputation(hits.stream()
+                .filter(hit -> users.containsKey(hit.getUserId()))
+                .map(hit -> {
+                    UserDto dto = convertToDto(users.get(hit.getUserId()));
+                    dto.setDistanceKm(hit.getDistanceKm());
+                    return dto;
+                })
+                .collect(Collectors.toList()));
     }
 
     public boolean existsByUsername(String username) {
@@ -108,6 +232,8 @@ public class UserService implements UserDetailsService {
         dto.setLastName(user.getLastName());
         dto.setBio(user.getBio());
         dto.setLocation(user.getLocation());
+        dto.setLatitude(user.getLatitude());
+        dto.setLongitude(user.getLongitude());
         dto.setProfileImageUrl(user.getProfileImageUrl());
         dto.setIsVerified(user.getIsVerified());
         dto.setIsActive(user.getIsActive());
@@ -116,6 +242,50 @@ public class UserService implements UserDetailsService {
         return dto;
     }
 
+    private List<User> loadRanked(List<InvertedIndex.Hit> hits) {
+        List<Long> ids = hits.stream()
+                .map(InvertedIndex.Hit::getId)
+                .collect(Collectors.toList());
+        Map<Long, User> usersById = new HashMap<>();
+        for (List<Long> batch : Batches.partition(ids, Batches.MAX_IN_LIST)) {
+            usersById.putAll(userRepository.findAllById(batch).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity())));
+        }
+        return ids.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private List<UserDto> convertToDtos(List<User> users) {
+        return withReputation(users.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Fills in reputation for a list of users with one query per
+     * {@link Batches#MAX_IN_LIST} users listed.
+     */
+    private List<UserDto> withReputation(List<UserDto> users) {
+        Map<Long, UserReputation> reputations = reputationService.getReputations(users.stream()
+                .map(UserDto::getId)
+                .collect(Collectors.toList()));
+        for (UserDto user : users) {
+            applyReputation(user, reputations.get(user.getId()));
+        }
+        return users;
+    }
+
+    public void applyReputation(UserDto user, UserReputation reputation) {
+        if (reputation != null) {
+            user.setAverageRating(reputation.getAverageRatingAsProvider());
+            user.setRatingCount(reputation.getProviderRatingCount());
+            user.setRecentRating(reputation.getRecentRatingAsProvider());
+            user.setCompletedExchangeCount(reputation.getCompletedCount());
+        }
+    }
+
     public User convertToEntity(UserDto dto) {
         User user = new User();
         user.setId(dto.getId());
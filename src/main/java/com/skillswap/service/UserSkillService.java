@@ -4,13 +4,31 @@ import com.skillswap.dto.UserSkillDto;
 import com.skillswap.entity.Skill;
 import com.skillswap.entity.User;
 import com.skillswap.entity.UserSkill;
+import com.skillswap.event.UserSkillChangedEvent;
+import com.skillswap.geo.GeoGridIndex;
+import com.skillswap.geo.GeoIndexService;
+import com.skillswap.geo.GeoPoint;
+import com.skillswap.pagination.Cursor;
+import com.skillswap.pagination.CursorPage;
+import com.skillswap.pagination.PaginationSettings;
 import com.skillswap.repository.SkillRepository;
 import com.skillswap.repository.UserRepository;
 import com.skillswap.repository.UserSkillRepository;
+import com.skillswap.search.InvertedIndex;
+import com.skillswap.search.SearchIndexService;
+import com.skillswap.util.Batches;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,6 +43,25 @@ public class UserSkillService {
     @Autowired
     private SkillRepository skillRepository;
 
+    @Autowired
+    private SkillStatsService skillStatsService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private GeoIndexService geoIndexService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${skillswap.geo.default-radius-km}")
+    private double defaultRadiusKm;
+
+    @Value("${skillswap.geo.max-candidates}")
+    private int maxNearbyCandidates;
+
+    @Transactional
     public UserSkillDto addUserSkill(UserSkillDto userSkillDto) {
         User user = userRepository.findById(userSkillDto.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userSkillDto.getUserId()));
@@ -49,58 +86,159 @@ public class UserSkillService {
         userSkill.setIsAvailable(userSkillDto.getIsAvailable());
 
         UserSkill savedUserSkill = userSkillRepository.save(userSkill);
+        skillStatsService.recordAdded(savedUserSkill);
+        eventPublisher.publishEvent(new UserSkillChangedEvent(UserSkillChangedEvent.Change.ADDED, savedUserSkill));
         return convertToDto(savedUserSkill);
     }
 
+    @Transactional(readOnly = true)
     public List<UserSkillDto> getUserSkills(Long userId) {
-        List<UserSkill> userSkills = userSkillRepository.findByUserId(userId);
-        return userSkills.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return userSkillRepository.findByUserId(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<UserSkillDto> getUserSkills(Long userId, String cursor, int limit) {
+        List<UserSkillDto> userSkills = userSkillRepository.findByUserIdAfter(
+                userId, Cursor.afterId(cursor), PaginationSettings.fetchWindow(limit));
+        return toPage(userSkills, limit);
     }
 
+    @Transactional(readOnly = true)
     public List<UserSkillDto> getUserSkillsByType(Long userId, UserSkill.SkillType skillType) {
-        List<UserSkill> userSkills = userSkillRepository.findByUserIdAndSkillType(userId, skillType);
-        return userSkills.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return userSkillRepository.findByUserIdAndSkillType(userId, skillType);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<UserSkillDto> getUserSkillsByType(Long userId, UserSkill.SkillType skillType, String cursor,
+            int limit) {
+        List<UserSkillDto> userSkills = userSkillRepository.findByUserIdAndSkillTypeAfter(
+                userId, skillType, Cursor.afterId(cursor), PaginationSettings.fetchWindow(limit));
+        return toPage(userSkills, limit);
+    }
+
+    @Transactional(readOnly = true)
     public List<UserSkillDto> getAvailableSkillsBySkillId(Long skillId, UserSkill.SkillType skillType) {
-        List<UserSkill> userSkills = userSkillRepository.findAvailableBySkillIdAndType(skillId, skillType);
-        return userSkills.stream()
-                .map(this::convertToDto)
+        return userSkillRepository.findAvailableBySkillIdAndType(skillId, skillType);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<UserSkillDto> getAvailableSkillsBySkillId(Long skillId, UserSkill.SkillType skillType,
+            String cursor, int limit) {
+        List<UserSkillDto> userSkills = userSkillRepository.findAvailableBySkillIdAndTypeAfter(
+                skillId, skillType, Cursor.afterId(cursor), PaginationSettings.fetchWindow(limit));
+        return toPage(userSkills, limit);
+    }
+
+    /**
+     * Available user skills whose owners are within the radius of {@code center},
+     * nearest first. Users are checked for the skill nearest first, starting with
+     * the {@code max-candidates} nearest and doubling until {@code limit}
+     * providers are found or the radius holds no more users; the providers found
+     * among the nearest users are always the nearest providers overall.
+     */
+    @Transactional(readOnly = true)
+    public List<UserSkillDto> getAvailableSkillsNear(Long skillId, UserSkill.SkillType skillType, GeoPoint center,
+            Double radiusKm, int limit) {
+        double radius = radiusKm != null ? radiusKm : defaultRadiusKm;
+        Map<Long, Double> distances = new HashMap<>();
+        List<UserSkillDto> providers = new ArrayList<>();
+        int candidates = maxNearbyCandidates;
+        while (true) {
+            List<GeoGridIndex.Hit> nearby = geoIndexService.findNearby(center, radius, candidates);
+            List<Long> unchecked = new ArrayList<>();
+            for (GeoGridIndex.Hit hit : nearby) {
+                if (distances.putIfAbsent(hit.getUserId(), hit.getDistanceKm()) == null) {
+                    unchecked.add(hit.getUserId());
+                }
+            }
+            for (List<Long> userIds : Batches.partition(unchecked, Batches.MAX_IN_LIST)) {
+                providers.addAll(userSkillRepository.findAvailableBySkillIdAndTypeAndUserIdIn(
+                        skillId, skillType, userIds));
+            }
+            if (providers.size() >= limit || nearby.size() < candidates) {
+                break;
+            }
+            candidates *= 2;
+        }
+        return providers.stream()
+                .map(dto -> {
+                    dto.setDistanceKm(distances.get(dto.getUserId()));
+                    return dto;
+                })
+                .sorted(Comparator.comparingDouble(UserSkillDto::getDistanceKm)
+                        .thenComparing(UserSkillDto::getId))
+                .limit(limit)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<UserSkillDto> getSkillsByCategoryAndType(String category, UserSkill.SkillType skillType) {
-        List<UserSkill> userSkills = userSkillRepository.findByCategoryAndType(category, skillType);
-        return userSkills.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return userSkillRepository.findByCategoryAndType(category, skillType);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<UserSkillDto> getSkillsByCategoryAndType(String category, UserSkill.SkillType skillType,
+            String cursor, int limit) {
+        List<UserSkillDto> userSkills = userSkillRepository.findByCategoryAndTypeAfter(
+                category, skillType, Cursor.afterId(cursor), PaginationSettings.fetchWindow(limit));
+        return toPage(userSkills, limit);
     }
 
+    @Transactional(readOnly = true)
     public List<UserSkillDto> searchSkillsByQueryAndType(String query, UserSkill.SkillType skillType) {
-        List<UserSkill> userSkills = userSkillRepository.searchByQueryAndType(query, skillType);
-        return userSkills.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        List<Long> skillIds = matchingSkillIds(query);
+        if (skillIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<UserSkillDto> userSkills = new ArrayList<>();
+        for (List<Long> batch : Batches.partition(skillIds, Batches.MAX_IN_LIST)) {
+            userSkills.addAll(userSkillRepository.findBySkillIdInAndSkillType(batch, skillType));
+        }
+        userSkills.sort(Comparator.comparing(UserSkillDto::getId));
+        return userSkills;
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<UserSkillDto> searchSkillsByQueryAndType(String query, UserSkill.SkillType skillType,
+            String cursor, int limit) {
+        List<Long> skillIds = matchingSkillIds(query);
+        if (skillIds.isEmpty()) {
+            return new CursorPage<>(Collections.emptyList(), null, false);
+        }
+        // Every matching skill takes part, a batch of ids per query; the pages of each batch
+        // are merged by id, so a query matching few skills still takes one statement
+        List<UserSkillDto> userSkills = new ArrayList<>();
+        for (List<Long> batch : Batches.partition(skillIds, Batches.MAX_IN_LIST)) {
+            userSkills.addAll(userSkillRepository.findBySkillIdInAndSkillTypeAfter(
+                    batch, skillType, Cursor.afterId(cursor), PaginationSettings.fetchWindow(limit)));
+        }
+        userSkills.sort(Comparator.comparing(UserSkillDto::getId));
+        return toPage(userSkills.subList(0, Math.min(userSkills.size(), limit + 1)), limit);
+    }
+
+    @Transactional
     public UserSkillDto updateUserSkill(Long id, UserSkillDto userSkillDto) {
         UserSkill userSkill = userSkillRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("UserSkill not found with id: " + id));
+        boolean wasAvailable = Boolean.TRUE.equals(userSkill.getIsAvailable());
 
         userSkill.setProficiencyLevel(userSkillDto.getProficiencyLevel());
         userSkill.setDescription(userSkillDto.getDescription());
         userSkill.setIsAvailable(userSkillDto.getIsAvailable());
 
         UserSkill updatedUserSkill = userSkillRepository.save(userSkill);
+        skillStatsService.recordAvailabilityChanged(updatedUserSkill, wasAvailable);
+        eventPublisher.publishEvent(new UserSkillChangedEvent(UserSkillChangedEvent.Change.UPDATED, updatedUserSkill));
         return convertToDto(updatedUserSkill);
     }
 
+    @Transactional
     public void deleteUserSkill(Long id) {
-        userSkillRepository.deleteById(id);
+        UserSkill userSkill = userSkillRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("UserSkill not found with id: " + id));
+        userSkillRepository.delete(userSkill);
+        skillStatsService.recordRemoved(userSkill);
+        eventPublisher.publishEvent(new UserSkillChangedEvent(UserSkillChangedEvent.Change.REMOVED, userSkill));
     }
 
     public UserSkillDto convertToDto(UserSkill userSkill) {
@@ -117,6 +255,16 @@ public class UserSkillService {
         return dto;
     }
 
+    private List<Long> matchingSkillIds(String query) {
+        return searchIndexService.searchSkills(query).stream()
+                .map(InvertedIndex.Hit::getId)
+                .collect(Collectors.toList());
+    }
+
+    private CursorPage<UserSkillDto> toPage(List<UserSkillDto> userSkills, int limit) {
+        return CursorPage.of(userSkills, limit, userSkill -> Cursor.ofId(userSkill.getId()), rows -> rows);
+    }
+
     public UserSkill convertToEntity(UserSkillDto dto) {
         UserSkill userSkill = new UserSkill();
         userSkill.setId(dto.getId());
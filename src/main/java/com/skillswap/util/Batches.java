@@ -0,0 +1,35 @@
+package com.skillswap.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public final class Batches {
+
+    // Ids bound into one IN list; well below the 32767 bind parameters PostgreSQL
+    // allows per statement, and small enough to keep query plans cacheable
+    public static final int MAX_IN_LIST = 1000;
+
+    private Batches() {
+    }
+
+    /**
+     * Splits the values into consecutive lists of at most {@code size}, in
+     * their iteration order.
+     */
+    public static <T> List<List<T>> partition(Collection<T> values, int size) {
+        List<List<T>> batches = new ArrayList<>((values.size() + size - 1) / size);
+        List<T> batch = new ArrayList<>(Math.min(size, values.size()));
+        for (T value : values) {
+            batch.add(value);
+            if (batch.size() == size) {
+                batches.add(batch);
+                batch = new ArrayList<>(size);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+}
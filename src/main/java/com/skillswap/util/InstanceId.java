@@ -0,0 +1,26 @@
+package com.skillswap.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+
+public final class InstanceId {
+
+    // pid@host for the logs, plus a random suffix so a restarted process never reuses an id
+    private static final String ID = abbreviate(ManagementFactory.getRuntimeMXBean().getName(), 55)
+            + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    private InstanceId() {
+    }
+
+    /**
+     * Identifies this running instance among others sharing the database.
+     * At most 64 characters.
+     */
+    public static String get() {
+        return ID;
+    }
+
+    private static String abbreviate(String name, int length) {
+        return name.length() <= length ? name : name.substring(0, length);
+    }
+}
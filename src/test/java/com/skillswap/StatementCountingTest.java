@@ -0,0 +1,51 @@
+package com.skillswap;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.function.Supplier;
+
+/**
+ * Base for tests that pin how many SQL statements an operation runs. Counts
+ * every statement Hibernate prepares, on any thread, so the polling job that
+ * would otherwise run in the background is pushed out past the test run.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "skillswap.security.revocation-poll-interval-ms=3600000"
+})
+public abstract class StatementCountingTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    protected long statementsRunBy(Runnable action) {
+        return runCounted(() -> {
+            action.run();
+            return null;
+        }).statements;
+    }
+
+    protected <T> Counted<T> runCounted(Supplier<T> action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long before = statistics.getPrepareStatementCount();
+        T result = action.get();
+        return new Counted<>(result, statistics.getPrepareStatementCount() - before);
+    }
+
+    protected static final class Counted<T> {
+
+        public final T result;
+        public final long statements;
+
+        Counted(T result, long statements) {
+            this.result = result;
+            this.statements = statements;
+        }
+    }
+}
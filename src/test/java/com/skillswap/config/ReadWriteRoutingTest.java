@@ -0,0 +1,148 @@
+package com.skillswap.config;
+
+import com.skillswap.dto.SkillDto;
+import com.skillswap.entity.Skill;
+import com.skillswap.repository.SkillRepository;
+import com.skillswap.service.SkillService;
+import com.skillswap.util.InstanceId;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes against a replica that is a separate database from the primary,
+ * holding a category the primary does not, so every read shows which
+ * database served it. Replication is simulated by writing the replica's
+ * copy of the heartbeat row directly.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "skillswap.datasource.replica.enabled=true",
+        "skillswap.datasource.replica.url=" + ReadWriteRoutingTest.REPLICA_URL,
+        "skillswap.datasource.replica.max-lag-ms=60000",
+        // Checked by the tests themselves once they have set the replica's heartbeat
+        "skillswap.datasource.replica.lag-check-interval-ms=3600000"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadWriteRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private static final String REPLICA_ONLY = "RoutingReplicaOnly";
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private SkillService skillService;
+
+    @Autowired
+    private SkillRepository skillRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeAll
+    void copySchemaToReplica() {
+        primary = new JdbcTemplate(primaryDataSource);
+        // Not through the application's replica pool, which only hands out read-only connections
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        for (String statement : primary.queryForList("SCRIPT NODATA", String.class)) {
+            replica.execute(statement);
+        }
+        replica.update("INSERT INTO skills (name, category, is_active, created_at) VALUES (?, ?, TRUE, ?)",
+                "Routing replica skill", REPLICA_ONLY, LocalDateTime.now());
+    }
+
+    @Test
+    void readOnlyServiceTransactionReadsReplica() {
+        replicaBehindBy(Duration.ZERO);
+        double replicaReads = reads("replica");
+
+        assertThat(skillService.getCategories()).contains(REPLICA_ONLY);
+        assertThat(reads("replica")).isGreaterThan(replicaReads);
+    }
+
+    @Test
+    void repositoryTransactionReadsPrimary() {
+        replicaBehindBy(Duration.ZERO);
+
+        // Outside a service transaction Spring Data opens its own read-only one
+        assertThat(skillRepository.findDistinctCategories()).doesNotContain(REPLICA_ONLY);
+        assertThat(skillRepository.findAll()).extracting(Skill::getCategory)
+                .doesNotContain(REPLICA_ONLY);
+    }
+
+    @Test
+    void writeTransactionUsesPrimary() {
+        replicaBehindBy(Duration.ZERO);
+
+        SkillDto skill = new SkillDto();
+        skill.setName("Routing written skill");
+        skill.setCategory("RoutingWritten");
+        skillService.createSkill(skill);
+
+        assertThat(count(primary, "RoutingWritten")).isEqualTo(1);
+        assertThat(count(replica, "RoutingWritten")).isZero();
+        // A read-only method joining a write transaction reads what that transaction can see
+        List<String> categories = transactionTemplate.execute(tx -> skillService.getCategories());
+        assertThat(categories).contains("RoutingWritten").doesNotContain(REPLICA_ONLY);
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        replicaBehindBy(Duration.ofMinutes(10));
+        double fallbackReads = reads("primary");
+
+        assertThat(lagMonitor.isReplicaUsable()).isFalse();
+        assertThat(skillService.getCategories()).doesNotContain(REPLICA_ONLY);
+        assertThat(reads("primary")).isGreaterThan(fallbackReads);
+
+        replicaBehindBy(Duration.ZERO);
+
+        assertThat(skillService.getCategories()).contains(REPLICA_ONLY);
+    }
+
+    /**
+     * Makes the replica's copy of this instance's heartbeat {@code lag} old
+     * and has the monitor measure it.
+     */
+    private void replicaBehindBy(Duration lag) {
+        replica.update("MERGE INTO replication_heartbeats (instance_id, beat_millis) KEY (instance_id) VALUES (?, ?)",
+                InstanceId.get(), System.currentTimeMillis() - lag.toMillis());
+        lagMonitor.check();
+        assertThat(lagMonitor.isReplicaUsable()).isEqualTo(lag.isZero());
+    }
+
+    private double reads(String target) {
+        return meterRegistry.get("skillswap.datasource.reads").tag("target", target).counter().count();
+    }
+
+    private static long count(JdbcTemplate database, String category) {
+        return database.queryForObject("SELECT COUNT(*) FROM skills WHERE category = ?", Long.class, category);
+    }
+}
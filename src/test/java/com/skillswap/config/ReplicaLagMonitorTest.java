@@ -0,0 +1,81 @@
+package com.skillswap.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two instances share a primary. One reads its heartbeats back through a
+ * second connection to the primary's database, a replica that never lags;
+ * the other through a separate database that replication never reaches.
+ */
+class ReplicaLagMonitorTest {
+
+    private static final long MAX_LAG_MILLIS = 1000L;
+
+    private final DataSource primary = database("lag_primary");
+    private final DataSource caughtUpReplica = database("lag_primary");
+    private final DataSource stalledReplica = database("lag_stalled");
+
+    @BeforeEach
+    void createTables() {
+        for (DataSource dataSource : new DataSource[] {primary, stalledReplica}) {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.execute("DROP TABLE IF EXISTS replication_heartbeats");
+            jdbc.execute("CREATE TABLE replication_heartbeats "
+                    + "(instance_id VARCHAR(64) PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+        }
+    }
+
+    @Test
+    void eachInstanceMeasuresItsOwnReplica() {
+        ReplicaLagMonitor caughtUp = new ReplicaLagMonitor(primary, caughtUpReplica, MAX_LAG_MILLIS, "instance-a");
+        ReplicaLagMonitor stalled = new ReplicaLagMonitor(primary, stalledReplica, MAX_LAG_MILLIS, "instance-b");
+
+        caughtUp.check();
+        stalled.check();
+
+        assertThat(caughtUp.isReplicaUsable()).isTrue();
+        assertThat(stalled.isReplicaUsable()).isFalse();
+        assertThat(stalled.getLagMillis()).isEqualTo(-1L);
+        assertThat(new JdbcTemplate(primary).queryForObject(
+                "SELECT COUNT(*) FROM replication_heartbeats", Long.class)).isEqualTo(2L);
+    }
+
+    @Test
+    void anotherInstancesClockDoesNotAffectTheLag() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(primary, caughtUpReplica, MAX_LAG_MILLIS, "instance-a");
+        long skewed = System.currentTimeMillis() - Duration.ofHours(1).toMillis();
+        new JdbcTemplate(primary).update(
+                "INSERT INTO replication_heartbeats (instance_id, beat_millis) VALUES (?, ?)", "skewed", skewed);
+
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isTrue();
+        assertThat(monitor.getLagMillis()).isLessThanOrEqualTo(MAX_LAG_MILLIS);
+    }
+
+    @Test
+    void replicaIsUnusableOnceTheLastCheckIsOlderThanTheMaximumLag() throws InterruptedException {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(primary, caughtUpReplica, MAX_LAG_MILLIS, "instance-a");
+
+        monitor.check();
+        assertThat(monitor.isReplicaUsable()).isTrue();
+
+        Thread.sleep(MAX_LAG_MILLIS + 100L);
+        assertThat(monitor.isReplicaUsable()).isFalse();
+
+        monitor.check();
+        assertThat(monitor.isReplicaUsable()).isTrue();
+    }
+
+    private static DataSource database(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
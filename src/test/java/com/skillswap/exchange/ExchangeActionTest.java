@@ -0,0 +1,76 @@
+package com.skillswap.exchange;
+
+import com.skillswap.entity.SkillExchange.ExchangeStatus;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every action against every status and every caller, checked against the
+ * state machine written out by hand.
+ */
+class ExchangeActionTest {
+
+    enum Caller {
+        REQUESTER, PROVIDER, STRANGER
+    }
+
+    private static final Map<ExchangeAction, Set<ExchangeStatus>> LEGAL_FROM = new EnumMap<>(ExchangeAction.class);
+    private static final Map<ExchangeAction, Set<Caller>> ALLOWED_CALLERS = new EnumMap<>(ExchangeAction.class);
+
+    static {
+        LEGAL_FROM.put(ExchangeAction.ACCEPT, EnumSet.of(ExchangeStatus.PENDING));
+        LEGAL_FROM.put(ExchangeAction.REJECT, EnumSet.of(ExchangeStatus.PENDING));
+        LEGAL_FROM.put(ExchangeAction.START, EnumSet.of(ExchangeStatus.ACCEPTED));
+        LEGAL_FROM.put(ExchangeAction.COMPLETE, EnumSet.of(ExchangeStatus.IN_PROGRESS));
+        LEGAL_FROM.put(ExchangeAction.CANCEL,
+                EnumSet.of(ExchangeStatus.PENDING, ExchangeStatus.ACCEPTED, ExchangeStatus.IN_PROGRESS));
+
+        ALLOWED_CALLERS.put(ExchangeAction.ACCEPT, EnumSet.of(Caller.PROVIDER));
+        ALLOWED_CALLERS.put(ExchangeAction.REJECT, EnumSet.of(Caller.PROVIDER));
+        ALLOWED_CALLERS.put(ExchangeAction.START, EnumSet.of(Caller.REQUESTER, Caller.PROVIDER));
+        ALLOWED_CALLERS.put(ExchangeAction.COMPLETE, EnumSet.of(Caller.REQUESTER, Caller.PROVIDER));
+        ALLOWED_CALLERS.put(ExchangeAction.CANCEL, EnumSet.of(Caller.REQUESTER, Caller.PROVIDER));
+    }
+
+    static List<Arguments> everyActionAndStatus() {
+        List<Arguments> cases = new ArrayList<>();
+        for (ExchangeAction action : ExchangeAction.values()) {
+            for (ExchangeStatus status : ExchangeStatus.values()) {
+                cases.add(Arguments.of(action, status, LEGAL_FROM.get(action).contains(status)));
+            }
+        }
+        return cases;
+    }
+
+    static List<Arguments> everyActionAndCaller() {
+        List<Arguments> cases = new ArrayList<>();
+        for (ExchangeAction action : ExchangeAction.values()) {
+            for (Caller caller : Caller.values()) {
+                cases.add(Arguments.of(action, caller, ALLOWED_CALLERS.get(action).contains(caller)));
+            }
+        }
+        return cases;
+    }
+
+    @ParameterizedTest(name = "{0} from {1}: {2}")
+    @MethodSource("everyActionAndStatus")
+    void allowsOnlyTheListedStatuses(ExchangeAction action, ExchangeStatus status, boolean allowed) {
+        assertThat(action.allowsFrom(status)).isEqualTo(allowed);
+    }
+
+    @ParameterizedTest(name = "{0} by {1}: {2}")
+    @MethodSource("everyActionAndCaller")
+    void allowsOnlyTheListedParty(ExchangeAction action, Caller caller, boolean allowed) {
+        assertThat(action.allowsParty(caller == Caller.REQUESTER, caller == Caller.PROVIDER)).isEqualTo(allowed);
+    }
+}
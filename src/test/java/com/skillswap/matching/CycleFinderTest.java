@@ -0,0 +1,130 @@
+package com.skillswap.matching;
+
+import com.skillswap.entity.UserSkill.SkillType;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cycle search on a small graph whose cycles are known, and a timed run at
+ * the size the nightly job is meant to handle.
+ */
+class CycleFinderTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CycleFinderTest.class);
+
+    // Each pair is "teacher teaches learner", through a skill of its own
+    private static final long[][] TEACHES = {
+            {1, 2}, {2, 3}, {3, 1},
+            {1, 10}, {10, 11}, {11, 12}, {12, 1},
+            {2, 8}, {8, 9}, {9, 2},
+            {4, 5}, {5, 6}, {6, 7}, {7, 4},
+            // Five long, beyond the longest cycle searched
+            {13, 14}, {14, 15}, {15, 16}, {16, 17}, {17, 13},
+            // Two long, shorter than a swap cycle
+            {18, 19}, {19, 18},
+            // A triangle and a square sharing the path 20 -> 21 -> 22
+            {20, 21}, {21, 22}, {22, 20}, {22, 23}, {23, 20}
+    };
+
+    private static final Set<List<Long>> TRIANGLES = Set.of(
+            List.of(1L, 2L, 3L), List.of(2L, 8L, 9L), List.of(20L, 21L, 22L));
+
+    private static final Set<List<Long>> SQUARES = Set.of(
+            List.of(1L, 10L, 11L, 12L), List.of(4L, 5L, 6L, 7L), List.of(20L, 21L, 22L, 23L));
+
+    @Test
+    void findsEachThreeAndFourCycleOnceFromItsSmallestUser() {
+        List<List<Long>> cycles = findCycles(knownGraph(), 4, 100);
+
+        Set<List<Long>> expected = new HashSet<>(TRIANGLES);
+        expected.addAll(SQUARES);
+        assertThat(cycles).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    void maxLengthThreeFindsOnlyTriangles() {
+        assertThat(findCycles(knownGraph(), 3, 100)).containsExactlyInAnyOrderElementsOf(TRIANGLES);
+    }
+
+    @Test
+    void stopsAtMaxCyclesPerUser() {
+        List<List<Long>> cycles = findCycles(knownGraph(), 4, 1);
+
+        assertThat(cycles.stream().filter(cycle -> cycle.get(0) == 1L)).hasSize(1);
+        assertThat(cycles.stream().filter(cycle -> cycle.get(0) == 20L)).hasSize(1);
+    }
+
+    @Test
+    void searchesHalfAMillionUsers() {
+        int users = 500_000;
+        int skills = 20_000;
+        Random random = new Random(42);
+        SkillGraph graph = new SkillGraph();
+        for (long user = 1; user <= users; user++) {
+            for (int i = 0; i < 2; i++) {
+                graph.loadEdge(user, 1 + random.nextInt(skills), SkillType.OFFER, 3, true);
+                graph.loadEdge(user, 1 + random.nextInt(skills), SkillType.SEEK, 3, true);
+            }
+        }
+        GraphSnapshot snapshot = graph.snapshot();
+
+        long started = System.nanoTime();
+        CycleFinder finder = new CycleFinder(snapshot, 4, 32, 3);
+        List<int[]> cycles = finder.find(ForkJoinPool.commonPool());
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        log.info("Searched {} users in {} ms on {} threads: {} cycles", finder.getUsersProcessed(), elapsedMillis,
+                ForkJoinPool.commonPool().getParallelism(), cycles.size());
+        assertThat(finder.getUsersProcessed()).isEqualTo(users);
+        for (int[] cycle : cycles) {
+            assertTeachingCycle(snapshot, cycle);
+        }
+        assertThat(elapsedMillis).isLessThan(TimeUnit.MINUTES.toMillis(5));
+    }
+
+    private static SkillGraph knownGraph() {
+        SkillGraph graph = new SkillGraph();
+        // Users take slots in id order, so the smallest slot is also the smallest id
+        for (long user = 1; user <= 23; user++) {
+            graph.addEdge(user, 1000 + user, SkillType.OFFER, 3, true);
+        }
+        for (long[] pair : TEACHES) {
+            long skill = pair[0] * 100 + pair[1];
+            graph.addEdge(pair[0], skill, SkillType.OFFER, 3, true);
+            graph.addEdge(pair[1], skill, SkillType.SEEK, 3, true);
+        }
+        return graph;
+    }
+
+    private static List<List<Long>> findCycles(SkillGraph graph, int maxLength, int maxCyclesPerUser) {
+        GraphSnapshot snapshot = graph.snapshot();
+        List<List<Long>> cycles = new ArrayList<>();
+        for (int[] cycle : new CycleFinder(snapshot, maxLength, 32, maxCyclesPerUser).find(ForkJoinPool.commonPool())) {
+            assertTeachingCycle(snapshot, cycle);
+            List<Long> userIds = new ArrayList<>();
+            for (int slot : cycle) {
+                userIds.add(snapshot.userId(slot));
+            }
+            cycles.add(userIds);
+        }
+        return cycles;
+    }
+
+    private static void assertTeachingCycle(GraphSnapshot snapshot, int[] cycle) {
+        for (int i = 0; i < cycle.length; i++) {
+            assertThat(cycle[0]).isLessThanOrEqualTo(cycle[i]);
+            assertThat(snapshot.firstSharedSkill(cycle[i], cycle[(i + 1) % cycle.length])).isNotNegative();
+        }
+    }
+}
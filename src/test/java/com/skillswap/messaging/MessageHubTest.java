@@ -0,0 +1,82 @@
+package com.skillswap.messaging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A fan-out thread held up by a slow stream fills the backlog; further
+ * groups are dropped and counted, never run on the publishing thread.
+ */
+class MessageHubTest {
+
+    private static final int QUEUE_CAPACITY = 2;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MessageHub hub;
+
+    @BeforeEach
+    void startHub() {
+        hub = new MessageHub();
+        ReflectionTestUtils.setField(hub, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(hub, "streamTimeoutMillis", 60_000L);
+        ReflectionTestUtils.setField(hub, "maxStreamsPerUser", 5);
+        ReflectionTestUtils.setField(hub, "heartbeatIntervalMillis", 60_000L);
+        ReflectionTestUtils.setField(hub, "fanOutQueueCapacity", QUEUE_CAPACITY);
+        hub.start();
+    }
+
+    @AfterEach
+    void stopHub() throws InterruptedException {
+        hub.stop();
+    }
+
+    @Test
+    void fullBacklogDropsGroupsInsteadOfRunningThemOnTheCaller() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        hub.publishLater(() -> {
+            writing.countDown();
+            awaitQuietly(release);
+        });
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Thread caller = Thread.currentThread();
+        List<Integer> ran = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> ranOn = Collections.synchronizedList(new ArrayList<>());
+        for (int group = 0; group < QUEUE_CAPACITY + 3; group++) {
+            int id = group;
+            hub.publishLater(() -> {
+                ran.add(id);
+                ranOn.add(Thread.currentThread());
+            });
+        }
+
+        assertThat(ran).isEmpty();
+        assertThat(meterRegistry.get("skillswap.messaging.fan-out.dropped").counter().count()).isEqualTo(3);
+
+        release.countDown();
+        hub.stop();
+
+        assertThat(ran).containsExactly(0, 1);
+        assertThat(ranOn).doesNotContain(caller);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.skillswap.messaging;
+
+import com.skillswap.dto.MessageDto;
+import com.skillswap.dto.UserDto;
+import com.skillswap.entity.Conversation;
+import com.skillswap.repository.ConversationRepository;
+import com.skillswap.repository.MessageRepository;
+import com.skillswap.service.MessageService;
+import com.skillswap.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sends the same load through both paths the message controller chooses
+ * between: the ingest buffer, and with {@code skillswap.messaging.ingest.enabled=false}
+ * one transaction per message. Readers mark conversations read while the
+ * messages arrive; afterwards every user's unread count must equal the sum
+ * of their conversations' unread counts and the count of their unread rows.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class MessageIngestThroughputTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageIngestThroughputTest.class);
+
+    private static final int THREADS = 32;
+    private static final int USERS = 20;
+    private static final int MESSAGES = 2400;
+
+    // Operations run untimed first, so neither path pays for the JIT warming up
+    private static final int WARM_UP = 400;
+
+    // One operation in this many marks a conversation read instead of sending
+    private static final int READ_EVERY = 10;
+
+    @Autowired
+    private MessageIngestBuffer messageIngestBuffer;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void ingestEnabled() throws Exception {
+        List<Long> users = createUsers("ingeston");
+        double perSecond = run(users, (sender, message) -> messageIngestBuffer.submit(sender, message).join());
+        log.info("Ingest enabled: {} messages/s", Math.round(perSecond));
+        assertUnreadCountsAgree(users);
+    }
+
+    @Test
+    void ingestDisabled() throws Exception {
+        List<Long> users = createUsers("ingestoff");
+        double perSecond = run(users, messageService::sendMessage);
+        log.info("Ingest disabled: {} messages/s", Math.round(perSecond));
+        assertUnreadCountsAgree(users);
+    }
+
+    private double run(List<Long> users, Sender sender) throws Exception {
+        // Cached counts are then kept up to date by deltas, the path under test
+        users.forEach(messageService::getUnreadCount);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            runOperations(pool, users, sender, WARM_UP);
+            long started = System.nanoTime();
+            runOperations(pool, users, sender, MESSAGES);
+            long elapsedNanos = System.nanoTime() - started;
+            return MESSAGES * (READ_EVERY - 1.0) / READ_EVERY / (elapsedNanos / 1e9);
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private void runOperations(ExecutorService pool, List<Long> users, Sender sender, int count) throws Exception {
+        List<Future<?>> operations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            boolean read = i % READ_EVERY == 0;
+            operations.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Long from = users.get(random.nextInt(users.size()));
+                Long to = users.get(random.nextInt(users.size()));
+                if (from.equals(to)) {
+                    return;
+                }
+                if (read) {
+                    try {
+                        messageService.markConversationRead(to, from);
+                    } catch (RuntimeException e) {
+                        // No conversation between the two yet
+                    }
+                    return;
+                }
+                MessageDto message = new MessageDto();
+                message.setReceiverId(to);
+                message.setContent("load " + from + " to " + to);
+                sender.send(from, message);
+            }));
+        }
+        for (Future<?> operation : operations) {
+            operation.get();
+        }
+    }
+
+    private void assertUnreadCountsAgree(List<Long> users) {
+        Map<Long, Long> conversationSums = transactionTemplate.execute(tx -> {
+            Map<Long, Long> sums = new HashMap<>();
+            for (Conversation conversation : conversationRepository.findAll()) {
+                for (Long userId : List.of(conversation.getUserLow().getId(), conversation.getUserHigh().getId())) {
+                    sums.merge(userId, (long) conversation.unreadFor(userId), Long::sum);
+                }
+            }
+            return sums;
+        });
+        for (Long userId : users) {
+            long expected = conversationSums.getOrDefault(userId, 0L);
+            assertThat(messageService.getUnreadCount(userId)).as("cached unread count of user %d", userId)
+                    .isEqualTo(expected);
+            assertThat(messageRepository.countUnreadIncludingArchived(userId))
+                    .as("unread messages of user %d", userId).isEqualTo(expected);
+        }
+    }
+
+    private List<Long> createUsers(String prefix) {
+        List<Long> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            UserDto user = new UserDto();
+            user.setUsername(prefix + i);
+            user.setEmail(prefix + i + "@example.com");
+            user.setPassword("password");
+            user.setFirstName("Ingest");
+            user.setLastName("Load");
+            users.add(userService.createUser(user).getId());
+        }
+        return users;
+    }
+
+    private interface Sender {
+
+        void send(Long senderId, MessageDto message);
+    }
+}
@@ -0,0 +1,61 @@
+package com.skillswap.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A token that decodes but whose sort key is not the type the page expects
+ * is a bad request, like a token that does not decode at all.
+ */
+class CursorTest {
+
+    @Test
+    void sortKeysRoundTrip() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 10, 18, 9, 30, 15, 123_000_000);
+
+        Cursor timestamp = Cursor.decode(Cursor.of(createdAt.toString(), 7L).encode());
+        Cursor score = Cursor.decode(Cursor.of(Double.toString(2.75), 8L).encode());
+
+        assertThat(timestamp.sortKeyAsTimestamp()).isEqualTo(createdAt);
+        assertThat(timestamp.getId()).isEqualTo(7L);
+        assertThat(score.sortKeyAsDouble()).isEqualTo(2.75);
+        assertThat(score.getId()).isEqualTo(8L);
+    }
+
+    @Test
+    void malformedTokenIsBadRequest() {
+        assertBadRequest(() -> Cursor.decode("not a cursor!"));
+        assertBadRequest(() -> Cursor.decode(encode("2.75|not-an-id")));
+        assertBadRequest(() -> Cursor.decode(encode("no separator")));
+    }
+
+    @Test
+    void sortKeyOfTheWrongTypeIsBadRequest() {
+        Cursor score = Cursor.decode(Cursor.of("2.75", 1L).encode());
+        Cursor timestamp = Cursor.decode(Cursor.of("2026-10-18T09:30", 1L).encode());
+        Cursor byId = Cursor.decode(Cursor.ofId(1L).encode());
+
+        assertBadRequest(score::sortKeyAsTimestamp);
+        assertBadRequest(timestamp::sortKeyAsDouble);
+        assertBadRequest(byId::sortKeyAsTimestamp);
+        assertBadRequest(byId::sortKeyAsDouble);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertBadRequest(Runnable parse) {
+        assertThatThrownBy(parse::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+}
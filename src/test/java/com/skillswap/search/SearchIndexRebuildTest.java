@@ -0,0 +1,120 @@
+package com.skillswap.search;
+
+import com.skillswap.dto.SkillDto;
+import com.skillswap.dto.UserDto;
+import com.skillswap.dto.UserSkillDto;
+import com.skillswap.entity.UserSkill.SkillType;
+import com.skillswap.repository.UserRepository;
+import com.skillswap.service.SkillService;
+import com.skillswap.service.UserService;
+import com.skillswap.service.UserSkillService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+/**
+ * Skills, users and offers committed while the indexes rebuild are neither
+ * lost in the swap nor counted twice: the indexes afterwards rank exactly
+ * as a rebuild from scratch does.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class SearchIndexRebuildTest {
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private SkillService skillService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserSkillService userSkillService;
+
+    @SpyBean
+    private UserRepository userRepository;
+
+    @Test
+    void changesCommittedDuringRebuildSurviveTheSwap() {
+        Long hotSkill = createSkill("Wombatry hot");
+        Long removedOffer = addOffer(createUser("rebuildwombat_0"), hotSkill);
+        addOffer(createUser("rebuildwombat_1"), hotSkill);
+        Long provider = createUser("rebuildwombat_2");
+        searchIndexService.rebuild();
+
+        // The skills and offer counts are loaded by the time users are, so
+        // these commit after the rebuild read them and before it swaps
+        Long[] created = new Long[2];
+        AtomicBoolean armed = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (armed.getAndSet(false)) {
+                created[0] = createSkill("Wombatry late");
+                created[1] = createUser("rebuildwombat_late");
+                addOffer(provider, hotSkill);
+                addOffer(created[1], hotSkill);
+                userSkillService.deleteUserSkill(removedOffer);
+            }
+            // A spied repository is a proxy, so the load goes through the spy's delegating answer
+            return mockingDetails(userRepository).getMockCreationSettings().getDefaultAnswer().answer(invocation);
+        }).when(userRepository).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class));
+
+        searchIndexService.rebuild();
+
+        assertThat(armed).isFalse();
+        assertThat(searchIndexService.describeSkill(created[0])).isNotNull();
+        Map<Long, Double> skills = scores(searchIndexService.searchSkills("wombatry"));
+        Map<Long, Double> users = scores(searchIndexService.searchUsers("rebuildwombat"));
+        assertThat(skills).containsKeys(hotSkill, created[0]);
+        assertThat(users).containsKey(created[1]).hasSize(4);
+
+        searchIndexService.rebuild();
+
+        assertThat(skills).isEqualTo(scores(searchIndexService.searchSkills("wombatry")));
+        assertThat(users).isEqualTo(scores(searchIndexService.searchUsers("rebuildwombat")));
+    }
+
+    private static Map<Long, Double> scores(List<InvertedIndex.Hit> hits) {
+        return hits.stream().collect(Collectors.toMap(InvertedIndex.Hit::getId, InvertedIndex.Hit::getScore));
+    }
+
+    private Long createSkill(String name) {
+        SkillDto skill = new SkillDto();
+        skill.setName(name);
+        skill.setCategory("RebuildSearch");
+        return skillService.createSkill(skill).getId();
+    }
+
+    private Long createUser(String username) {
+        UserDto user = new UserDto();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setFirstName("Rebuild");
+        user.setLastName("Search");
+        return userService.createUser(user).getId();
+    }
+
+    private Long addOffer(Long userId, Long skillId) {
+        UserSkillDto userSkill = new UserSkillDto();
+        userSkill.setUserId(userId);
+        userSkill.setSkillId(skillId);
+        userSkill.setSkillType(SkillType.OFFER);
+        userSkill.setProficiencyLevel(3);
+        userSkill.setIsAvailable(true);
+        return userSkillService.addUserSkill(userSkill).getId();
+    }
+}
@@ -0,0 +1,255 @@
+package com.skillswap.service;
+
+import com.skillswap.dto.SkillDto;
+import com.skillswap.dto.SkillExchangeDto;
+import com.skillswap.dto.UserDto;
+import com.skillswap.entity.SkillExchange;
+import com.skillswap.entity.SkillExchange.ExchangeStatus;
+import com.skillswap.exchange.ExchangeAction;
+import com.skillswap.repository.SkillExchangeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Both parties hammer a few hot exchanges with random actions and ratings.
+ * Every successful write is kept; ordered by version they must form a legal
+ * chain from PENDING with no gaps, ending at the stored status and version,
+ * so no write was lost and no illegal transition was applied.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        // Every lost race is logged by Hibernate before the service retries it
+        "logging.level.org.hibernate.orm.jdbc.batch=OFF"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExchangeServiceContentionTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ExchangeServiceContentionTest.class);
+
+    private static final int THREADS = 32;
+    private static final int ROUNDS = 20;
+    private static final int HOT_EXCHANGES = 4;
+    private static final int OPERATIONS_PER_ROUND = 200;
+
+    // Mostly actions that move an exchange forward, so the hot exchanges stay live for
+    // most of the round; null stands for a rating
+    private static final ExchangeAction[] WRITES = {
+            ExchangeAction.ACCEPT, ExchangeAction.ACCEPT, ExchangeAction.ACCEPT,
+            ExchangeAction.START, ExchangeAction.START, ExchangeAction.START,
+            ExchangeAction.COMPLETE, ExchangeAction.COMPLETE, ExchangeAction.COMPLETE,
+            null, null, null, null,
+            ExchangeAction.REJECT, ExchangeAction.CANCEL
+    };
+
+    @Autowired
+    private ExchangeService exchangeService;
+
+    @Autowired
+    private SkillExchangeRepository skillExchangeRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SkillService skillService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Long requester;
+    private Long provider;
+    private Long skill;
+
+    @BeforeAll
+    void createParties() {
+        requester = createUser("contentionrequester");
+        provider = createUser("contentionprovider");
+        SkillDto created = new SkillDto();
+        created.setName("Contention");
+        created.setCategory("Contention");
+        skill = skillService.createSkill(created).getId();
+    }
+
+    @Test
+    void concurrentActionsFormLegalChainsWithoutLostUpdates() throws Exception {
+        double retriesBefore = counter("skillswap.exchanges.retries");
+        double conflictsBefore = counter("skillswap.exchanges.conflicts");
+        Map<Long, Long> createdVersions = new ConcurrentHashMap<>();
+        Map<Long, Queue<SkillExchangeDto>> writes = new ConcurrentHashMap<>();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger exhausted = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long started = System.nanoTime();
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                List<Long> hot = new ArrayList<>();
+                for (int i = 0; i < HOT_EXCHANGES; i++) {
+                    SkillExchangeDto exchange = createExchange();
+                    hot.add(exchange.getId());
+                    createdVersions.put(exchange.getId(), exchange.getVersion());
+                    writes.put(exchange.getId(), new ConcurrentLinkedQueue<>());
+                }
+                List<Future<?>> operations = new ArrayList<>();
+                for (int i = 0; i < OPERATIONS_PER_ROUND; i++) {
+                    operations.add(pool.submit(() -> {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        Long id = hot.get(random.nextInt(hot.size()));
+                        Long caller = random.nextBoolean() ? requester : provider;
+                        try {
+                            writes.get(id).add(randomWrite(random, id, caller));
+                        } catch (OptimisticLockingFailureException e) {
+                            exhausted.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }));
+                }
+                for (Future<?> operation : operations) {
+                    operation.get();
+                }
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        int succeeded = 0;
+        for (Map.Entry<Long, Queue<SkillExchangeDto>> entry : writes.entrySet()) {
+            assertLegalChain(entry.getKey(), createdVersions.get(entry.getKey()), new ArrayList<>(entry.getValue()));
+            succeeded += entry.getValue().size();
+        }
+        double retries = counter("skillswap.exchanges.retries") - retriesBefore;
+        double conflicts = counter("skillswap.exchanges.conflicts") - conflictsBefore;
+        log.info("{} operations on {} exchanges in {} ms ({} ops/s): {} applied, {} refused by the state machine, "
+                        + "{} out of attempts; retries {}, conflicts {}",
+                ROUNDS * OPERATIONS_PER_ROUND, ROUNDS * HOT_EXCHANGES, elapsedMillis,
+                ROUNDS * OPERATIONS_PER_ROUND * 1000L / Math.max(1L, elapsedMillis),
+                succeeded, rejected.get(), exhausted.get(), (long) retries, (long) conflicts);
+        assertThat(succeeded).isPositive();
+        assertThat((long) conflicts).isEqualTo(exhausted.get());
+    }
+
+    @Test
+    void simultaneousRatingsByBothPartiesAreBothKept() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 30; i++) {
+                Long id = createExchange().getId();
+                exchangeService.transition(id, provider, ExchangeAction.ACCEPT);
+                exchangeService.transition(id, requester, ExchangeAction.START);
+                exchangeService.transition(id, provider, ExchangeAction.COMPLETE);
+
+                CyclicBarrier together = new CyclicBarrier(2);
+                Future<SkillExchangeDto> byRequester = pool.submit(() -> {
+                    together.await();
+                    return exchangeService.rate(id, requester, 4, "requester");
+                });
+                Future<SkillExchangeDto> byProvider = pool.submit(() -> {
+                    together.await();
+                    return exchangeService.rate(id, provider, 2, "provider");
+                });
+                byRequester.get();
+                byProvider.get();
+
+                SkillExchange stored = skillExchangeRepository.findById(id).orElseThrow();
+                assertThat(stored.getRequesterRating()).isEqualTo(4);
+                assertThat(stored.getProviderRating()).isEqualTo(2);
+                assertThat(stored.getRequesterFeedback()).isEqualTo("requester");
+                assertThat(stored.getProviderFeedback()).isEqualTo("provider");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private SkillExchangeDto randomWrite(ThreadLocalRandom random, Long id, Long caller) {
+        ExchangeAction action = WRITES[random.nextInt(WRITES.length)];
+        if (action == null) {
+            return exchangeService.rate(id, caller, 1 + random.nextInt(5), null);
+        }
+        return exchangeService.transition(id, caller, action);
+    }
+
+    private void assertLegalChain(Long id, Long createdVersion, List<SkillExchangeDto> writes) {
+        writes.sort(Comparator.comparing(SkillExchangeDto::getVersion));
+        ExchangeStatus status = ExchangeStatus.PENDING;
+        long version = createdVersion;
+        int ratings = 0;
+        for (SkillExchangeDto write : writes) {
+            assertThat(write.getVersion()).as("exchange %d: version after %d", id, version).isEqualTo(version + 1);
+            if (write.getStatus() == status) {
+                assertThat(status).as("exchange %d: rewrite without a status change", id)
+                        .isEqualTo(ExchangeStatus.COMPLETED);
+                ratings++;
+            } else {
+                assertThat(isLegal(status, write.getStatus()))
+                        .as("exchange %d: %s -> %s", id, status, write.getStatus()).isTrue();
+            }
+            status = write.getStatus();
+            version = write.getVersion();
+        }
+        SkillExchange stored = skillExchangeRepository.findById(id).orElseThrow();
+        assertThat(stored.getStatus()).as("exchange %d: stored status", id).isEqualTo(status);
+        assertThat(stored.getVersion()).as("exchange %d: stored version", id).isEqualTo(version);
+        int storedRatings = (stored.getRequesterRating() != null ? 1 : 0)
+                + (stored.getProviderRating() != null ? 1 : 0);
+        assertThat(storedRatings).as("exchange %d: ratings kept", id).isEqualTo(ratings);
+    }
+
+    private static boolean isLegal(ExchangeStatus from, ExchangeStatus to) {
+        for (ExchangeAction action : ExchangeAction.values()) {
+            if (action.allowsFrom(from) && action.getTarget() == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private SkillExchangeDto createExchange() {
+        SkillExchangeDto exchange = new SkillExchangeDto();
+        exchange.setProviderId(provider);
+        exchange.setRequestedSkillId(skill);
+        exchange.setOfferedSkillId(skill);
+        return exchangeService.createExchange(requester, exchange);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private Long createUser(String username) {
+        UserDto user = new UserDto();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setFirstName("Contention");
+        user.setLastName("Test");
+        return userService.createUser(user).getId();
+    }
+}
@@ -0,0 +1,98 @@
+package com.skillswap.service;
+
+import com.skillswap.StatementCountingTest;
+import com.skillswap.dto.SkillDto;
+import com.skillswap.dto.SkillExchangeDto;
+import com.skillswap.dto.UserDto;
+import com.skillswap.dto.UserProfileDto;
+import com.skillswap.dto.UserSkillDto;
+import com.skillswap.entity.UserSkill;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A profile page loads each of its parts with one query, however many
+ * skills or exchanges the user has.
+ */
+class ProfileServiceStatementCountTest extends StatementCountingTest {
+
+    @Autowired
+    private ProfileService profileService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SkillService skillService;
+
+    @Autowired
+    private UserSkillService userSkillService;
+
+    @Autowired
+    private ExchangeService exchangeService;
+
+    @Test
+    void ownProfileRunsFourStatementsForAnySize() {
+        Long small = createUser("profilesmall");
+        Long large = createUser("profilelarge");
+        Long partner = createUser("profilepartner");
+        addSkillsAndExchanges(small, partner, "Kakapo", 1);
+        addSkillsAndExchanges(large, partner, "Takahe", 12);
+
+        Counted<UserProfileDto> smallProfile = runCounted(() -> profileService.getProfile(small, small));
+        Counted<UserProfileDto> largeProfile = runCounted(() -> profileService.getProfile(large, large));
+
+        assertThat(largeProfile.result.getSkills()).hasSize(12);
+        assertThat(largeProfile.result.getActiveExchanges()).hasSize(12);
+        assertThat(smallProfile.statements).isEqualTo(4);
+        assertThat(largeProfile.statements).isEqualTo(4);
+    }
+
+    @Test
+    void otherUsersProfileSkipsTheExchanges() {
+        Long owner = createUser("profileowner");
+        Long viewer = createUser("profileviewer");
+        addSkillsAndExchanges(owner, viewer, "Kea", 5);
+
+        Counted<UserProfileDto> profile = runCounted(() -> profileService.getProfile(owner, viewer));
+
+        assertThat(profile.result.getSkills()).hasSize(5);
+        assertThat(profile.result.getActiveExchanges()).isNull();
+        assertThat(profile.statements).isEqualTo(3);
+    }
+
+    private Long createUser(String username) {
+        UserDto user = new UserDto();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setFirstName("Profile");
+        user.setLastName("Count");
+        return userService.createUser(user).getId();
+    }
+
+    private void addSkillsAndExchanges(Long userId, Long partnerId, String name, int count) {
+        for (int i = 0; i < count; i++) {
+            SkillDto skill = new SkillDto();
+            skill.setName(name + " " + i);
+            skill.setCategory("CountProfile");
+            Long skillId = skillService.createSkill(skill).getId();
+
+            UserSkillDto userSkill = new UserSkillDto();
+            userSkill.setUserId(userId);
+            userSkill.setSkillId(skillId);
+            userSkill.setSkillType(UserSkill.SkillType.OFFER);
+            userSkill.setProficiencyLevel(3);
+            userSkill.setIsAvailable(true);
+            userSkillService.addUserSkill(userSkill);
+
+            SkillExchangeDto exchange = new SkillExchangeDto();
+            exchange.setProviderId(partnerId);
+            exchange.setRequestedSkillId(skillId);
+            exchange.setOfferedSkillId(skillId);
+            exchangeService.createExchange(userId, exchange);
+        }
+    }
+}
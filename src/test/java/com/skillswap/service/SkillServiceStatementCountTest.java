@@ -0,0 +1,85 @@
+package com.skillswap.service;
+
+import com.skillswap.StatementCountingTest;
+import com.skillswap.dto.SkillDto;
+import com.skillswap.entity.Skill;
+import com.skillswap.repository.SkillRepository;
+import com.skillswap.util.Batches;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Skill lists resolve their offering-user counts with one grouped query per
+ * list, however many skills it holds.
+ */
+class SkillServiceStatementCountTest extends StatementCountingTest {
+
+    @Autowired
+    private SkillService skillService;
+
+    @Autowired
+    private SkillRepository skillRepository;
+
+    @Test
+    void categoryListRunsTheSameStatementsForAnyLength() {
+        createSkills("Quokka", "CountSmall", 2);
+        createSkills("Wombat", "CountLarge", 40);
+
+        long small = statementsRunBy(() -> assertThat(skillService.getSkillsByCategory("CountSmall")).hasSize(2));
+        long large = statementsRunBy(() -> assertThat(skillService.getSkillsByCategory("CountLarge")).hasSize(40));
+
+        assertThat(small).isEqualTo(2);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void searchRunsTheSameStatementsForAnyLength() {
+        createSkills("Zephyrology", "CountSearch", 2);
+        createSkills("Quasarcraft", "CountSearch", 30);
+
+        long small = statementsRunBy(() -> assertThat(skillService.searchSkills("zephyrology", null)).hasSize(2));
+        long large = statementsRunBy(() -> assertThat(skillService.searchSkills("quasarcraft", null)).hasSize(30));
+
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void popularAndSingleSkillRunTwoStatements() {
+        List<SkillDto> created = createSkills("Numbat", "CountPopular", 30);
+
+        assertThat(statementsRunBy(() -> skillService.getMostPopularSkills(2))).isEqualTo(2);
+        assertThat(statementsRunBy(() -> skillService.getMostPopularSkills(30))).isEqualTo(2);
+        assertThat(statementsRunBy(() -> skillService.getSkillById(created.get(0).getId()))).isEqualTo(2);
+    }
+
+    @Test
+    void legacyListBindsAtMostOneBatchOfIdsPerStatement() {
+        List<Skill> skills = new ArrayList<>();
+        for (int i = 0; i < Batches.MAX_IN_LIST + 10; i++) {
+            skills.add(new Skill("Bilby " + i, null, "CountBatched"));
+        }
+        skillRepository.saveAll(skills);
+
+        Counted<List<SkillDto>> all = runCounted(() -> skillService.getAllSkills());
+
+        int active = all.result.size();
+        assertThat(active).isGreaterThan(Batches.MAX_IN_LIST);
+        assertThat(all.statements).isEqualTo(1 + (active + Batches.MAX_IN_LIST - 1) / Batches.MAX_IN_LIST);
+    }
+
+    private List<SkillDto> createSkills(String name, String category, int count) {
+        List<SkillDto> created = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SkillDto skill = new SkillDto();
+            skill.setName(name + " " + i);
+            skill.setCategory(category);
+            created.add(skillService.createSkill(skill));
+        }
+        return created;
+    }
+}
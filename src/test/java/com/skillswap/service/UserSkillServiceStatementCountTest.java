@@ -0,0 +1,144 @@
+package com.skillswap.service;
+
+import com.skillswap.StatementCountingTest;
+import com.skillswap.dto.SkillDto;
+import com.skillswap.dto.UserDto;
+import com.skillswap.dto.UserSkillDto;
+import com.skillswap.entity.UserSkill.SkillType;
+import com.skillswap.geo.GeoIndexService;
+import com.skillswap.pagination.CursorPage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every list under /user-skills, legacy and paged, selects straight into
+ * UserSkillDto and runs one statement however many rows it returns.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserSkillServiceStatementCountTest extends StatementCountingTest {
+
+    private static final int ROWS = 15;
+    private static final int PAGE = 5;
+
+    @Autowired
+    private UserSkillService userSkillService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SkillService skillService;
+
+    @Autowired
+    private GeoIndexService geoIndexService;
+
+    private Long owner;
+    private Long sharedSkill;
+
+    @BeforeAll
+    void createRows() {
+        owner = createUser("userskillowner", null);
+        List<Long> skills = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            SkillDto skill = new SkillDto();
+            skill.setName("Pangolinry " + i);
+            skill.setCategory("CountUserSkills");
+            skills.add(skillService.createSkill(skill).getId());
+            addUserSkill(owner, skills.get(i));
+        }
+        sharedSkill = skills.get(0);
+        for (int i = 0; i < ROWS; i++) {
+            addUserSkill(createUser("userskillprovider" + i, "Oslo"), sharedSkill);
+        }
+    }
+
+    @Test
+    void byUserRunsOneStatement() {
+        assertOneStatement(() -> userSkillService.getUserSkills(owner));
+        assertPagesRunOneStatement(cursor -> userSkillService.getUserSkills(owner, cursor, PAGE));
+    }
+
+    @Test
+    void byUserAndTypeRunsOneStatement() {
+        assertOneStatement(() -> userSkillService.getUserSkillsByType(owner, SkillType.OFFER));
+        assertPagesRunOneStatement(cursor -> userSkillService.getUserSkillsByType(owner, SkillType.OFFER,
+                cursor, PAGE));
+    }
+
+    @Test
+    void bySkillRunsOneStatement() {
+        assertOneStatement(() -> userSkillService.getAvailableSkillsBySkillId(sharedSkill, SkillType.OFFER));
+        assertPagesRunOneStatement(cursor -> userSkillService.getAvailableSkillsBySkillId(sharedSkill,
+                SkillType.OFFER, cursor, PAGE));
+    }
+
+    @Test
+    void bySkillNearRunsOneStatement() {
+        Counted<List<UserSkillDto>> near = runCounted(() -> userSkillService.getAvailableSkillsNear(sharedSkill,
+                SkillType.OFFER, geoIndexService.resolve("Oslo"), 50.0, ROWS));
+
+        assertThat(near.result).hasSize(ROWS);
+        assertThat(near.statements).isEqualTo(1);
+    }
+
+    @Test
+    void byCategoryRunsOneStatement() {
+        assertOneStatement(() -> userSkillService.getSkillsByCategoryAndType("CountUserSkills", SkillType.OFFER));
+        assertPagesRunOneStatement(cursor -> userSkillService.getSkillsByCategoryAndType("CountUserSkills",
+                SkillType.OFFER, cursor, PAGE));
+    }
+
+    @Test
+    void searchRunsOneStatement() {
+        assertOneStatement(() -> userSkillService.searchSkillsByQueryAndType("pangolinry", SkillType.OFFER));
+        assertPagesRunOneStatement(cursor -> userSkillService.searchSkillsByQueryAndType("pangolinry",
+                SkillType.OFFER, cursor, PAGE));
+    }
+
+    private void assertOneStatement(Supplier<List<UserSkillDto>> list) {
+        Counted<List<UserSkillDto>> counted = runCounted(list);
+
+        assertThat(counted.result).hasSizeGreaterThanOrEqualTo(ROWS);
+        assertThat(counted.statements).isEqualTo(1);
+    }
+
+    private void assertPagesRunOneStatement(Function<String, CursorPage<UserSkillDto>> page) {
+        Counted<CursorPage<UserSkillDto>> first = runCounted(() -> page.apply(null));
+        Counted<CursorPage<UserSkillDto>> second = runCounted(() -> page.apply(first.result.getNextCursor()));
+
+        assertThat(first.result.getItems()).hasSize(PAGE);
+        assertThat(second.result.getItems()).hasSize(PAGE);
+        assertThat(first.statements).isEqualTo(1);
+        assertThat(second.statements).isEqualTo(1);
+    }
+
+    private Long createUser(String username, String location) {
+        UserDto user = new UserDto();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setFirstName("UserSkill");
+        user.setLastName("Count");
+        user.setLocation(location);
+        return userService.createUser(user).getId();
+    }
+
+    private void addUserSkill(Long userId, Long skillId) {
+        UserSkillDto userSkill = new UserSkillDto();
+        userSkill.setUserId(userId);
+        userSkill.setSkillId(skillId);
+        userSkill.setSkillType(SkillType.OFFER);
+        userSkill.setProficiencyLevel(3);
+        userSkill.setIsAvailable(true);
+        userSkillService.addUserSkill(userSkill);
+    }
+}